@@ -0,0 +1,82 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.sink.FluxSinks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 CreateDemo#fluxCreateBuffered 的场景：每次有一批元素可以推送 <br>
+ * next：Flux.create 逐个调用 next <br>
+ * nextAll：FluxSinks.createBatched 每批调用一次 nextAll
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchSinkBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"1", "100", "1000"})
+    public int batchSize;
+
+    @Param({"BUFFER", "DROP"})
+    public FluxSink.OverflowStrategy strategy;
+
+    Integer[] batch;
+
+    @Setup
+    public void setup() {
+        batch = new Integer[batchSize];
+        Arrays.fill(batch, 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void next(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.<Integer>create(sink -> {
+            for (int i = 0; i < SIZE; i += batchSize) {
+                for (Integer v : batch) {
+                    sink.next(v);
+                }
+            }
+            sink.complete();
+        }, strategy).subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void nextAll(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        FluxSinks.<Integer>createBatched(sink -> {
+            for (int i = 0; i < SIZE; i += batchSize) {
+                sink.nextAll(batch);
+            }
+            sink.complete();
+        }, strategy).subscribe(subscriber);
+        subscriber.await();
+    }
+}
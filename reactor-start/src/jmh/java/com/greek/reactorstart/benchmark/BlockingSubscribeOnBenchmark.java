@@ -0,0 +1,84 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.scheduler.VirtualThreadScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#testScheduler，concurrency 个阻塞 blockMillis 毫秒的调用同时 subscribeOn <br>
+ * ELASTIC：Schedulers.newElastic，每个阻塞调用一个平台线程 <br>
+ * BOUNDED_ELASTIC：Schedulers.newBoundedElastic，线程数有上限，超出的调用排队 <br>
+ * VIRTUAL：VirtualThreadScheduler，需要在 Java 21 以上运行，否则测的是退回的平台线程池 <br>
+ * 理想耗时是 blockMillis，超出的部分是创建线程和排队的开销
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockingSubscribeOnBenchmark {
+
+    @Param({"ELASTIC", "BOUNDED_ELASTIC", "VIRTUAL"})
+    public String impl;
+
+    @Param({"10000"})
+    public int concurrency;
+
+    @Param({"10"})
+    public int blockMillis;
+
+    Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (impl) {
+            case "ELASTIC":
+                scheduler = Schedulers.newElastic("blocking", 60, true);
+                break;
+            case "BOUNDED_ELASTIC":
+                scheduler = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Integer.MAX_VALUE, "blocking", 60, true);
+                break;
+            default:
+                scheduler = VirtualThreadScheduler.create("blocking");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public Long blockingCalls() {
+        long millis = blockMillis;
+        return Flux.range(0, concurrency)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(millis);
+                    return i;
+                }).subscribeOn(scheduler), concurrency)
+                .count()
+                .block();
+    }
+}
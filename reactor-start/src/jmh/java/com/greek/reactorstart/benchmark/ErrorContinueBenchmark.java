@@ -0,0 +1,85 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.publisher.ErrorContinue;
+import com.greek.reactorstart.publisher.ErrorSideChannel;
+import com.greek.reactorstart.publisher.StacklessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 TransformDemo#errorModeContinueLargerThanConcurrencySourceMappedCallableFails 的操作链：
+ * range -> flatMap(部分元素返回 Flux.error) -> 跳过出错的元素 <br>
+ * 1. onErrorContinue：IllegalStateException，每个错误查找 Context 中的策略 <br>
+ * 2. errorContinue：ErrorContinue + IllegalStateException，只省掉策略查找 <br>
+ * 3. errorContinueStackless：ErrorContinue + StacklessException，同时省掉填充调用栈 <br>
+ *
+ * failurePercent 为出错元素的百分比，结果按单个元素计算
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ErrorContinueBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"1", "10", "50"})
+    public int failurePercent;
+
+    final ErrorSideChannel<Integer> channel = ErrorSideChannel.counting();
+
+    boolean fails(int v) {
+        return v % 100 < failurePercent;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void onErrorContinue(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .flatMap(v -> fails(v) ? Flux.<Integer>error(new IllegalStateException("boom #" + v)) : Flux.just(v), 32)
+                .onErrorContinue(IllegalStateException.class, (ex, v) -> bh.consume(v))
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void errorContinue(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .transform(ErrorContinue.to(channel).only(IllegalStateException.class).<Integer>flatMap(v -> fails(v) ?
+                        Flux.error(new IllegalStateException("boom #" + v)) : Flux.just(v), 32))
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void errorContinueStackless(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .transform(ErrorContinue.to(channel).only(StacklessException.class).<Integer>flatMap(v -> fails(v) ?
+                        Flux.error(new StacklessException("boom #" + v)) : Flux.just(v), 32))
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,51 @@
+package com.greek.reactorstart.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 TransformDemo#testMaxConcurrency1/testMaxConcurrency2 的操作链：
+ * range -> flatMap(Flux::just, concurrency, prefetch)
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlatMapBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"1", "64", "256"})
+    public int concurrency;
+
+    @Param({"1", "32", "256"})
+    public int prefetch;
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void rangeFlatMapJust(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .flatMap(Flux::just, concurrency, prefetch)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,56 @@
+package com.greek.reactorstart.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#fuseableTest 的操作链：range -> map -> filter <br>
+ * 1. plain：普通订阅者，不请求融合，和 blockLast() 的情况一致 <br>
+ * 2. fused：订阅者请求SYNC融合，整条链通过 poll() 拉取 <br>
+ * 3. hidden：在 range 后面加 hide()，融合被打断 <br>
+ *
+ * 每次调用推送 {@link #SIZE} 个元素，结果按单个元素计算（ns/元素，配合 -prof gc 得到字节/元素）
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FusionBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"plain", "fused", "hidden"})
+    public String shape;
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void rangeMapFilter(Blackhole bh) throws InterruptedException {
+        Flux<Integer> source = Flux.range(0, SIZE);
+        if ("hidden".equals(shape)) {
+            source = source.hide();
+        }
+        PerfSubscriber subscriber = new PerfSubscriber(bh, "fused".equals(shape));
+        source.map(item -> item * item)
+                .filter(item -> item % 2 != 0)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,86 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.publisher.Indexing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 TransformDemo#index 的操作链：range -> index -> map <br>
+ * 1. indexMap / indexing：Flux.index().map(tuple) 对比 Indexing.map，后者不创建 Tuple2 <br>
+ * 2. parallelIndexMap / parallelIndexing：index 之后再 parallel（单个计数器）对比 parallel 之后 Indexing.mapParallel（按块分配序号）<br>
+ *
+ * 每次调用处理 {@link #SIZE} 个元素，结果按单个元素计算（配合 -prof gc 得到字节/元素）
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+
+    static final int SIZE = 100_000;
+
+    static final int RAILS = 4;
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void indexMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .index()
+                .map(tuple -> tuple.getT1() + tuple.getT2())
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void indexing(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .transform(Indexing.<Integer, Long>map((index, item) -> index + item))
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void parallelIndexMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .index()
+                .parallel(RAILS)
+                .map(tuple -> tuple.getT1() + tuple.getT2())
+                .sequential()
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void parallelIndexing(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .parallel(RAILS)
+                .transform(Indexing.<Integer, Long>mapParallel((index, item) -> index + item))
+                .sequential()
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
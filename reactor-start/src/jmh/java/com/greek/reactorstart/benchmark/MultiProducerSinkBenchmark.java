@@ -0,0 +1,92 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.sink.FluxSinks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 对应 CreateDemo#fluxCreateSinkConcurrent 和 UnicastProcessorTest#multiThreadProducer 的场景：
+ * 多个线程同时调用同一个 FluxSink.next <br>
+ * BUFFER：Flux.create(emitter, OverflowStrategy.BUFFER)，所有线程经过 SerializedSink 竞争同一个队列 <br>
+ * STRIPED：FluxSinks.createStriped(emitter)，每个线程写入自己的通道
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiProducerSinkBenchmark {
+
+    static final int SIZE = 1 << 20;
+
+    static final Integer VALUE = 1;
+
+    @Param({"1", "4", "16", "64"})
+    public int producers;
+
+    @Param({"BUFFER", "STRIPED"})
+    public String impl;
+
+    ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(64);
+    }
+
+    @TearDown
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void multiProducer(Blackhole bh) throws InterruptedException {
+        int perProducer = SIZE / producers;
+        AtomicInteger remaining = new AtomicInteger(producers);
+        Consumer<FluxSink<Integer>> emitter = sink -> {
+            for (int p = 0; p < producers; p++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        sink.next(VALUE);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        sink.complete();
+                    }
+                });
+            }
+        };
+
+        Flux<Integer> source = "STRIPED".equals(impl)
+                ? FluxSinks.createStriped(emitter)
+                : Flux.create(emitter, FluxSink.OverflowStrategy.BUFFER);
+
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        source.subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,125 @@
+package com.greek.reactorstart.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.greek.reactorstart.processor.LagPolicy;
+import com.greek.reactorstart.processor.RingMulticastProcessor;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.FluxProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EmitterProcessor 向多个订阅者广播，其中一个订阅者每个元素额外消耗 slowTokens 的CPU <br>
+ * 所有订阅者各自 publishOn 到同一个 parallel 调度器 <br>
+ * emit：每次调用推送一个元素，Throughput 看推送速度，SampleTime 看 onNext 的阻塞时间（缓存满了会自旋等待最慢的订阅者） <br>
+ * roundTrip：推送一个元素并等待最后一个订阅者收到，SampleTime 的 p0.99 就是广播的延迟 <br>
+ * subscribers=1 时唯一的订阅者就是慢订阅者 <br>
+ * impl=RING 时使用 RingMulticastProcessor（SKIP_AHEAD），慢订阅者只会跳过数据，不会拖慢推送和其他订阅者
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MulticastBenchmark {
+
+    static final Integer VALUE = 1;
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int subscribers;
+
+    @Param({"0", "1000"})
+    public int slowTokens;
+
+    @Param({"256"})
+    public int bufferSize;
+
+    @Param({"EMITTER", "RING"})
+    public String impl;
+
+    Scheduler scheduler;
+
+    FluxProcessor<Integer, Integer> processor;
+
+    /**
+     * 最后一个订阅者收到的元素个数
+     */
+    AtomicLong received;
+
+    long sent;
+
+    @Setup(Level.Trial)
+    public void setupScheduler() {
+        scheduler = Schedulers.newParallel("multicast");
+    }
+
+    @TearDown(Level.Trial)
+    public void teardownScheduler() {
+        scheduler.dispose();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        processor = "RING".equals(impl)
+                ? RingMulticastProcessor.create(bufferSize, LagPolicy.SKIP_AHEAD)
+                : EmitterProcessor.create(bufferSize, false);
+        received = new AtomicLong();
+        sent = 0L;
+
+        AtomicLong counter = received;
+        int tokens = slowTokens;
+        for (int i = 0; i < subscribers; i++) {
+            boolean slow = i == 0;
+            boolean last = i == subscribers - 1;
+            processor.publishOn(scheduler)
+                    .subscribe(v -> {
+                        if (slow) {
+                            Blackhole.consumeCPU(tokens);
+                        }
+                        if (last) {
+                            counter.lazySet(counter.get() + 1);
+                        }
+                    });
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void teardown() {
+        processor.onComplete();
+    }
+
+    @Benchmark
+    public void emit() {
+        processor.onNext(VALUE);
+    }
+
+    @Benchmark
+    public void roundTrip() {
+        long target = ++sent;
+        processor.onNext(VALUE);
+        AtomicLong counter = received;
+        while (counter.get() < target) {
+            // 自旋等待最后一个订阅者收到
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.publisher.ReorderWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 TransformDemo#flatMap 的操作链：range -> flatMap(异步的内部 Publisher) <br>
+ * 1. flatMap：不保证顺序，作为吞吐量的上限 <br>
+ * 2. concatMap：保证顺序，一次只订阅一个内部 Publisher <br>
+ * 3. flatMapSequential / ReorderWindow：保证顺序并发订阅，后者缓存的元素个数有上限 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderedFlatMapBenchmark {
+
+    static final int SIZE = 10_000;
+
+    @Param({"8", "64"})
+    public int concurrency;
+
+    static Mono<Integer> inner(Integer v) {
+        return Mono.just(v).subscribeOn(Schedulers.parallel());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void flatMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .flatMap(OrderedFlatMapBenchmark::inner, concurrency)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void concatMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .concatMap(OrderedFlatMapBenchmark::inner)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void flatMapSequential(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .flatMapSequential(OrderedFlatMapBenchmark::inner, concurrency)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void reorderWindow(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .transform(ReorderWindow.<Integer>maxElements(256).flatMap(OrderedFlatMapBenchmark::inner, concurrency))
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,80 @@
+package com.greek.reactorstart.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 基准测试用的订阅者 <br>
+ * 1. 订阅时请求无限个元素，元素交给Blackhole消费，避免被JIT优化掉 <br>
+ * 2. 通过await()等待终止信号，异步的操作链也能测出完整耗时 <br>
+ * 3. 可选地向上游请求SYNC融合，模拟publishOn、flatMap等会融合上游的消费者 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class PerfSubscriber implements CoreSubscriber<Object> {
+
+    private final Blackhole bh;
+
+    private final boolean syncFusion;
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    private Throwable error;
+
+    public PerfSubscriber(Blackhole bh) {
+        this(bh, false);
+    }
+
+    public PerfSubscriber(Blackhole bh, boolean syncFusion) {
+        this.bh = bh;
+        this.syncFusion = syncFusion;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+        if (syncFusion && s instanceof Fuseable.QueueSubscription) {
+            Fuseable.QueueSubscription<Object> qs = (Fuseable.QueueSubscription<Object>) s;
+            if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+                Object v;
+                while ((v = qs.poll()) != null) {
+                    bh.consume(v);
+                }
+                onComplete();
+                return;
+            }
+        }
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(Object o) {
+        bh.consume(o);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        error = t;
+        latch.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        latch.countDown();
+    }
+
+    /**
+     * 等待终止信号，出现错误信号时直接抛出，避免把失败的运行当成结果
+     */
+    public void await() throws InterruptedException {
+        latch.await();
+        if (error != null) {
+            throw new IllegalStateException("benchmark pipeline failed", error);
+        }
+    }
+}
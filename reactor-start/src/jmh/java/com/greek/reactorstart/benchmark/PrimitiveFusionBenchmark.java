@@ -0,0 +1,81 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.publisher.IntFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#fuseableTest 的操作链：range -> map -> filter，Flux 对比 IntFlux <br>
+ * 1. boxedSum / intSum：求和，IntFlux 整条管道不装箱，只装箱最后的结果 <br>
+ * 2. boxedFused / intBoxed：每个元素都交给订阅者（SYNC 融合），IntFlux 只在最后一步装箱 <br>
+ *
+ * 每次调用处理 {@link #SIZE} 个元素，结果按单个元素计算（ns/元素，配合 -prof gc 得到字节/元素）
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveFusionBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Long boxedSum() {
+        return Flux.range(0, SIZE)
+                .map(item -> item * item)
+                .filter(item -> item % 2 != 0)
+                .reduce(0L, (sum, item) -> sum + item)
+                .block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Long intSum() {
+        return IntFlux.range(0, SIZE)
+                .map(item -> item * item)
+                .filter(item -> item % 2 != 0)
+                .sum()
+                .block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void boxedFused(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh, true);
+        Flux.range(0, SIZE)
+                .map(item -> item * item)
+                .filter(item -> item % 2 != 0)
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void intBoxed(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh, true);
+        IntFlux.range(0, SIZE)
+                .map(item -> item * item)
+                .filter(item -> item % 2 != 0)
+                .boxed()
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
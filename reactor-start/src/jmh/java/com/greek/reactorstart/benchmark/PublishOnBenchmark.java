@@ -0,0 +1,78 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.publisher.AdaptivePrefetch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#testPublishOn 的操作链：range -> publishOn -> map <br>
+ * prefetch 取 Queues.SMALL_BUFFER_SIZE(256) 即默认值，以及更小/更大的取值作对比 <br>
+ * rangeAdaptivePublishOnMap 用 {@link AdaptivePrefetch}，prefetch 只是初始值
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PublishOnBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"32", "256", "1024"})
+    public int prefetch;
+
+    Scheduler scheduler;
+
+    @Setup
+    public void setup() {
+        scheduler = Schedulers.newSingle("publishOn-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void rangePublishOnMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .publishOn(scheduler, prefetch)
+                .map(item -> item + "")
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void rangeAdaptivePublishOnMap(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, SIZE)
+                .transform(AdaptivePrefetch.defaults().initial(prefetch).publishOn(scheduler))
+                .map(item -> item + "")
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
@@ -0,0 +1,99 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.scheduler.WorkStealingScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#testExecEnv，一个繁忙的 rail 和很多轻量的 rail 共用一个并行调度器 <br>
+ * 繁忙的 rail 在自己的 Worker 上不停地执行耗时 heavyTokens 的任务（每次执行完重新提交） <br>
+ * 每次调用新建一个轻量的 rail：range -> publishOn -> map，测量它从订阅到完成的时间 <br>
+ * PARALLEL：Schedulers.newParallel，Worker 轮询绑定线程，有 1/parallelism 的 rail 会和繁忙的 rail 排在同一个线程 <br>
+ * WORK_STEALING：WorkStealingScheduler，Worker 不绑定线程 <br>
+ * 看 SampleTime 的 p0.99 / p0.999
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SkewedRailsBenchmark {
+
+    static final int RAIL_SIZE = 64;
+
+    @Param({"PARALLEL", "WORK_STEALING"})
+    public String impl;
+
+    @Param({"4"})
+    public int parallelism;
+
+    @Param({"10000", "1000000"})
+    public int heavyTokens;
+
+    @Param({"100"})
+    public int lightTokens;
+
+    Scheduler scheduler;
+
+    Scheduler.Worker heavy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scheduler = "PARALLEL".equals(impl)
+                ? Schedulers.newParallel("skewed", parallelism, true)
+                : WorkStealingScheduler.create("skewed", parallelism);
+        heavy = scheduler.createWorker();
+        int tokens = heavyTokens;
+        Scheduler.Worker w = heavy;
+        heavy.schedule(new Runnable() {
+            @Override
+            public void run() {
+                Blackhole.consumeCPU(tokens);
+                if (!w.isDisposed()) {
+                    w.schedule(this);
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        heavy.dispose();
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void lightRail(Blackhole bh) throws InterruptedException {
+        int tokens = lightTokens;
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        Flux.range(0, RAIL_SIZE)
+                .publishOn(scheduler)
+                .map(v -> {
+                    Blackhole.consumeCPU(tokens);
+                    return v;
+                })
+                .subscribe(subscriber);
+        subscriber.await();
+    }
+}
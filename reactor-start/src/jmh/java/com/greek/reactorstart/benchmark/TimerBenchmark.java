@@ -0,0 +1,83 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.scheduler.HashedWheelScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SchedulerTest#testDelayElements，已经有 pendingTimers 个定时任务时，再提交并取消一个定时任务的开销 <br>
+ * 模拟大量请求各自带 timeout、绝大多数在超时前完成的场景 <br>
+ * SINGLE：Schedulers.newSingle，ScheduledThreadPoolExecutor 的堆 <br>
+ * WHEEL：HashedWheelScheduler，tick 10ms，512 个槽 <br>
+ * 4 个线程同时提交
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TimerBenchmark {
+
+    static final Runnable NOOP = () -> { };
+
+    @Param({"SINGLE", "WHEEL"})
+    public String impl;
+
+    @Param({"1000", "1000000"})
+    public int pendingTimers;
+
+    Scheduler scheduler;
+
+    Disposable[] background;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scheduler = "SINGLE".equals(impl)
+                ? Schedulers.newSingle("timer", true)
+                : HashedWheelScheduler.create("timer", Duration.ofMillis(10), 512, Schedulers.parallel());
+        background = new Disposable[pendingTimers];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < pendingTimers; i++) {
+            // 测试期间都不会到期
+            background[i] = scheduler.schedule(NOOP, 3600 + random.nextInt(3600), TimeUnit.SECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        for (Disposable d : background) {
+            d.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void scheduleAndCancel() {
+        long delay = ThreadLocalRandom.current().nextInt(1_000, 30_000);
+        scheduler.schedule(NOOP, delay, TimeUnit.MILLISECONDS).dispose();
+    }
+}
@@ -0,0 +1,107 @@
+package com.greek.reactorstart.benchmark;
+
+import com.greek.reactorstart.queue.IntSpscQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 UnicastProcessorTest#overflowQueueTerminate，比较 UnicastProcessor 不同的缓存队列 <br>
+ * LINKED_BLOCKING_DEQUE：LinkedBlockingDeque(capacity)，每次 offer/poll 加锁并分配节点 <br>
+ * SPSC_ARRAY：Queues.get(capacity)，保存 Integer 对象的数组 <br>
+ * INT_SPSC：IntSpscQueue，保存 int 的数组 <br>
+ * burst：没有订阅者时推送 SIZE 个元素，然后订阅一次取完 <br>
+ * crossThread：订阅者 publishOn 到另一个线程，生产和消费同时进行 <br>
+ * 元素取值超出 Integer 缓存的范围，jmh profile 默认开启 -prof gc，gc.alloc.rate.norm 即每个元素分配的字节数 <br>
+ *
+ * 按对象大小估算的 gc.alloc.rate.norm（64 位、压缩指针，Integer 16 字节）： <br>
+ * LINKED_BLOCKING_DEQUE：约 40 B/元素（生产者装箱的 Integer 16 + Node 24） <br>
+ * SPSC_ARRAY：约 21 B/元素（Integer 16 + 容量取整到 2^17 的引用数组，摊到每个元素约 5） <br>
+ * INT_SPSC：约 36 B/元素（onNext 装箱的 Integer 16 被丢弃 + poll 重新装箱 16 + int 数组约 4） <br>
+ * IntSpscQueue 常驻内存更小，但分配速率接近 Queues.get 的两倍，比较 ns/op 时要把这部分 GC 开销算进去
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UnicastQueueBenchmark {
+
+    static final int SIZE = 100_000;
+
+    @Param({"LINKED_BLOCKING_DEQUE", "SPSC_ARRAY", "INT_SPSC"})
+    public String queue;
+
+    Scheduler scheduler;
+
+    @Setup
+    public void setup() {
+        scheduler = Schedulers.newSingle("unicast-consumer");
+    }
+
+    @TearDown
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    Queue<Integer> newQueue() {
+        switch (queue) {
+            case "LINKED_BLOCKING_DEQUE":
+                return new LinkedBlockingDeque<>(SIZE);
+            case "SPSC_ARRAY":
+                return Queues.<Integer>get(SIZE).get();
+            default:
+                return new IntSpscQueue(SIZE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void burst(Blackhole bh) throws InterruptedException {
+        UnicastProcessor<Integer> processor = UnicastProcessor.create(newQueue());
+        for (int i = 0; i < SIZE; i++) {
+            processor.onNext(i + 1000);
+        }
+        processor.onComplete();
+
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        processor.subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void crossThread(Blackhole bh) throws InterruptedException {
+        UnicastProcessor<Integer> processor = UnicastProcessor.create(newQueue());
+        PerfSubscriber subscriber = new PerfSubscriber(bh);
+        processor.publishOn(scheduler).subscribe(subscriber);
+        for (int i = 0; i < SIZE; i++) {
+            processor.onNext(i + 1000);
+        }
+        processor.onComplete();
+        subscriber.await();
+    }
+}
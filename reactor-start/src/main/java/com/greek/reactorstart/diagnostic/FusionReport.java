@@ -0,0 +1,314 @@
+package com.greek.reactorstart.diagnostic;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 一条操作链上每条边（上游 -> 下游）的融合情况 <br>
+ * 1. AssertSubscriber.assertFusionMode 只能检查最后一条边，这里沿 Scannable 的 PARENT 向上游遍历整条链 <br>
+ * 2. {@link #subscribed(Object)}：从已经订阅的 Subscriber 或 Subscription 开始，读取每个下游协商出的融合模式
+ * （reactor 的融合操作符把结果记在 sourceMode 字段中，只能通过反射读取），以及队列类型和 prefetch <br>
+ * 3. {@link #assembly(Publisher)}：还没订阅时只能看出哪些操作符不是 Fuseable，这些边一定不会融合 <br>
+ * 4. 每条不融合的边给出原因：上游不支持融合（hide()、不可融合的 log() 等），
+ * 上游拒绝了 publishOn 的 THREAD_BARRIER（map 等会被挪到其他线程执行的操作符），或者下游没有请求融合 <br>
+ *
+ * 注意：prefetch 和 publishOn 通过 Scannable 的属性读取，但 Scannable 没有暴露融合模式和队列，
+ * 这两项依赖 reactor 操作符的私有字段（按 3.3 的实现编写），升级 reactor 后可能读不到；
+ * 反射失败（字段被改名、运行环境禁止 setAccessible 等）时这条边报告为 UNKNOWN、queue=unknown，不会抛出异常 <br>
+ *
+ * 用于排查问题，不要在每个元素上调用：
+ * <pre>
+ * flux.doOnSubscribe(s -&gt; log.info("{}", FusionReport.subscribed(s)))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class FusionReport {
+
+    /**
+     * reactor 的融合操作符记录协商结果的字段名
+     */
+    static final String[] MODE_FIELDS = {"sourceMode", "establishedFusionMode", "fusionMode"};
+
+    /**
+     * 字段存在但反射读取失败
+     */
+    static final Object INACCESSIBLE = new Object();
+
+    /**
+     * 从已经订阅的 Subscriber 或 Subscription 向上游遍历，报告实际协商出的融合模式
+     */
+    public static FusionReport subscribed(Object subscriberOrSubscription) {
+        Objects.requireNonNull(subscriberOrSubscription, "subscriberOrSubscription");
+        List<Scannable> chain = chain(Scannable.from(subscriberOrSubscription));
+        List<Edge> edges = new ArrayList<>(chain.size());
+        // 从下游往上游计算：上游的边是否融合取决于下游的边
+        Mode downstreamMode = Mode.NONE;
+        for (int i = chain.size() - 1; i > 0; i--) {
+            Edge edge = subscribedEdge(chain.get(i - 1), chain.get(i), chain, i, downstreamMode);
+            edges.add(edge);
+            downstreamMode = edge.mode;
+        }
+        Collections.reverse(edges);
+        return new FusionReport(edges);
+    }
+
+    /**
+     * 还没有订阅的操作链，只能找出一定不会融合的边，其他边的模式是 UNKNOWN
+     */
+    public static FusionReport assembly(Publisher<?> publisher) {
+        Objects.requireNonNull(publisher, "publisher");
+        List<Scannable> chain = chain(Scannable.from(publisher));
+        List<Edge> edges = new ArrayList<>(chain.size());
+        for (int i = 1; i < chain.size(); i++) {
+            Scannable up = chain.get(i - 1);
+            Scannable down = chain.get(i);
+            Mode mode;
+            String reason;
+            if (!(up instanceof Fuseable)) {
+                mode = Mode.NONE;
+                reason = up.stepName() + " is not Fuseable";
+            }
+            else if (!(down instanceof Fuseable)) {
+                mode = Mode.NONE;
+                reason = down.stepName() + " is not Fuseable and does not request fusion";
+            }
+            else {
+                mode = Mode.UNKNOWN;
+                reason = "negotiated on subscribe";
+            }
+            edges.add(new Edge(up.stepName(), down.stepName(), mode, "-", prefetch(down), reason));
+        }
+        return new FusionReport(edges);
+    }
+
+    /**
+     * 按从源头到下游的顺序返回整条链
+     */
+    static List<Scannable> chain(Scannable last) {
+        if (!last.isScanAvailable()) {
+            throw new IllegalArgumentException(last + " is not Scannable");
+        }
+        List<Scannable> chain = last.parents().collect(Collectors.toCollection(ArrayList::new));
+        Collections.reverse(chain);
+        chain.add(last);
+        return chain;
+    }
+
+    static Edge subscribedEdge(Scannable up, Scannable down, List<Scannable> chain, int index, Mode downstreamMode) {
+        boolean upFuseable = up instanceof Fuseable.QueueSubscription;
+        Object negotiated = readMode(down);
+        Mode mode;
+        if (negotiated instanceof Integer) {
+            mode = Mode.of((Integer) negotiated);
+        }
+        else if (negotiated == INACCESSIBLE) {
+            return new Edge(up.stepName(), down.stepName(), Mode.UNKNOWN, queue(up, down), prefetch(down),
+                    "cannot read the fusion mode of " + down.stepName() + " from reactor internals");
+        }
+        else if (upFuseable && down instanceof Fuseable.QueueSubscription) {
+            mode = Mode.UNKNOWN;
+        }
+        else {
+            mode = Mode.NONE;
+        }
+
+        String reason = "";
+        if (mode == Mode.NONE) {
+            if (!upFuseable) {
+                reason = up.stepName() + " does not support fusion";
+            }
+            else if (down.scanUnsafe(Scannable.Attr.RUN_ON) != null) {
+                reason = up.stepName() + " refused the THREAD_BARRIER of " + down.stepName();
+            }
+            else if (down instanceof Fuseable.QueueSubscription && downstreamMode == Mode.NONE
+                    && index < chain.size() - 1) {
+                reason = down.stepName() + " is not fused downstream, so it does not request fusion";
+            }
+            else {
+                reason = down.stepName() + " did not request fusion";
+            }
+        }
+        return new Edge(up.stepName(), down.stepName(), mode, queue(up, down), prefetch(down), reason);
+    }
+
+    static String queue(Scannable up, Scannable down) {
+        Object q = readField(down, "queue");
+        if (q == null) {
+            return "-";
+        }
+        if (q == INACCESSIBLE) {
+            return "unknown";
+        }
+        if (q == up) {
+            return "fused(" + up.stepName() + ")";
+        }
+        return q.getClass().getSimpleName();
+    }
+
+    static int prefetch(Scannable s) {
+        Object p = s.scanUnsafe(Scannable.Attr.PREFETCH);
+        return p instanceof Integer ? (Integer) p : -1;
+    }
+
+    /**
+     * @return 协商出的模式，没有这些字段时为 null，读取失败时为 {@link #INACCESSIBLE}
+     */
+    static Object readMode(Object o) {
+        for (String name : MODE_FIELDS) {
+            Object v = readField(o, name);
+            if (v instanceof Integer || v == INACCESSIBLE) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 字段的值，没有这个字段时为 null；InaccessibleObjectException（Java 9+）、SecurityException
+     * 等读取失败时为 {@link #INACCESSIBLE}
+     */
+    static Object readField(Object o, String name) {
+        for (Class<?> c = o.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field f = c.getDeclaredField(name);
+                f.setAccessible(true);
+                return f.get(o);
+            }
+            catch (NoSuchFieldException e) {
+                // 继续查找父类
+            }
+            catch (ReflectiveOperationException | RuntimeException e) {
+                return INACCESSIBLE;
+            }
+        }
+        return null;
+    }
+
+    final List<Edge> edges;
+
+    FusionReport(List<Edge> edges) {
+        this.edges = Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * 从源头到下游的每条边
+     */
+    public List<Edge> edges() {
+        return edges;
+    }
+
+    /**
+     * 不融合的边
+     */
+    public List<Edge> unfused() {
+        return edges.stream().filter(e -> e.mode == Mode.NONE).collect(Collectors.toList());
+    }
+
+    /**
+     * 每条边一行，例如：<br>
+     * range -> map  NONE  queue=- prefetch=-  map is not fused downstream, so it does not request fusion <br>
+     * map -> publishOn  NONE  queue=SpscArrayQueue prefetch=256  map refused the THREAD_BARRIER of publishOn
+     */
+    @Override
+    public String toString() {
+        return edges.stream().map(Edge::toString).collect(Collectors.joining("\n"));
+    }
+
+    public enum Mode {
+
+        SYNC, ASYNC, NONE,
+
+        /**
+         * 两边都支持融合，但没办法知道协商的结果，或者读取 reactor 内部字段失败
+         */
+        UNKNOWN;
+
+        static Mode of(int fuseableMode) {
+            // 还没有协商时一些订阅者记为 -1
+            if (fuseableMode <= 0) {
+                return NONE;
+            }
+            if ((fuseableMode & Fuseable.SYNC) != 0) {
+                return SYNC;
+            }
+            if ((fuseableMode & Fuseable.ASYNC) != 0) {
+                return ASYNC;
+            }
+            return NONE;
+        }
+    }
+
+    public static final class Edge {
+
+        final String upstream;
+
+        final String downstream;
+
+        final Mode mode;
+
+        final String queue;
+
+        final int prefetch;
+
+        final String reason;
+
+        Edge(String upstream, String downstream, Mode mode, String queue, int prefetch, String reason) {
+            this.upstream = upstream;
+            this.downstream = downstream;
+            this.mode = mode;
+            this.queue = queue;
+            this.prefetch = prefetch;
+            this.reason = reason;
+        }
+
+        public String upstream() {
+            return upstream;
+        }
+
+        public String downstream() {
+            return downstream;
+        }
+
+        public Mode mode() {
+            return mode;
+        }
+
+        /**
+         * 下游的队列类型，融合时是上游本身，没有队列时是 "-"
+         */
+        public String queue() {
+            return queue;
+        }
+
+        /**
+         * 下游的 prefetch，没有时为 -1
+         */
+        public int prefetch() {
+            return prefetch;
+        }
+
+        /**
+         * 不融合的原因，融合时为空
+         */
+        public String reason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return upstream + " -> " + downstream + "  " + mode
+                    + "  queue=" + queue + " prefetch=" + (prefetch < 0 ? "-" : String.valueOf(prefetch))
+                    + (reason.isEmpty() ? "" : "  " + reason);
+        }
+    }
+}
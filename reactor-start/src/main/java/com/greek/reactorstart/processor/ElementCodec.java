@@ -0,0 +1,77 @@
+package com.greek.reactorstart.processor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 元素和字节之间的转换，用于把元素保存在堆外内存中 {@link OffHeapReplayProcessor}
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * 从 target 的 position 开始写入元素，空间不够时抛出 BufferOverflowException（调用方会扩容后重试）
+     */
+    void encode(T value, ByteBuffer target);
+
+    /**
+     * source 的 position 到 limit 之间正好是一个元素
+     */
+    T decode(ByteBuffer source);
+
+    static ElementCodec<String> utf8() {
+        return Utf8Codec.INSTANCE;
+    }
+
+    static ElementCodec<Long> longs() {
+        return LongCodec.INSTANCE;
+    }
+
+    static ElementCodec<Integer> ints() {
+        return IntCodec.INSTANCE;
+    }
+
+    enum Utf8Codec implements ElementCodec<String> {
+        INSTANCE;
+
+        @Override
+        public void encode(String value, ByteBuffer target) {
+            target.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer source) {
+            return StandardCharsets.UTF_8.decode(source).toString();
+        }
+    }
+
+    enum LongCodec implements ElementCodec<Long> {
+        INSTANCE;
+
+        @Override
+        public void encode(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer source) {
+            return source.getLong();
+        }
+    }
+
+    enum IntCodec implements ElementCodec<Integer> {
+        INSTANCE;
+
+        @Override
+        public void encode(Integer value, ByteBuffer target) {
+            target.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer source) {
+            return source.getInt();
+        }
+    }
+}
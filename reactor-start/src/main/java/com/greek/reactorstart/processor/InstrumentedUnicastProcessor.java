@@ -0,0 +1,128 @@
+package com.greek.reactorstart.processor;
+
+import com.greek.reactorstart.queue.InstrumentedQueue;
+import com.greek.reactorstart.queue.QueueAttr;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.FluxProcessor;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 可以观察缓存队列状态的 UnicastProcessor <br>
+ * 1. 缓存队列用 {@link InstrumentedQueue} 装饰，其余行为和 UnicastProcessor 完全一致（包括融合） <br>
+ * 2. 通过 scan 读取队列深度（Attr.BUFFERED）、容量（Attr.CAPACITY）和 {@link QueueAttr} 中的计数 <br>
+ * 3. 配合 {@link UnicastProcessorMetrics} 输出到 Micrometer <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class InstrumentedUnicastProcessor<T> extends FluxProcessor<T, T> {
+
+    /**
+     * @param queue    缓存队列
+     * @param capacity 缓存队列的容量，无界队列传 Integer.MAX_VALUE
+     */
+    public static <T> InstrumentedUnicastProcessor<T> create(Queue<T> queue, int capacity) {
+        InstrumentedQueue<T> instrumented = new InstrumentedQueue<>(queue, capacity);
+        return new InstrumentedUnicastProcessor<>(UnicastProcessor.create(instrumented), instrumented);
+    }
+
+    public static <T> InstrumentedUnicastProcessor<T> create(Queue<T> queue, int capacity,
+                                                             Consumer<? super T> onOverflow, Disposable onTerminate) {
+        InstrumentedQueue<T> instrumented = new InstrumentedQueue<>(queue, capacity);
+        return new InstrumentedUnicastProcessor<>(UnicastProcessor.create(instrumented, onOverflow, onTerminate),
+                instrumented);
+    }
+
+    final UnicastProcessor<T> processor;
+
+    final InstrumentedQueue<T> queue;
+
+    InstrumentedUnicastProcessor(UnicastProcessor<T> processor, InstrumentedQueue<T> queue) {
+        this.processor = processor;
+        this.queue = queue;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        processor.onSubscribe(s);
+    }
+
+    @Override
+    public void onNext(T t) {
+        processor.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        processor.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+        processor.onComplete();
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        processor.subscribe(actual);
+    }
+
+    /**
+     * @return 缓存队列的计数器
+     */
+    public InstrumentedQueue<T> queue() {
+        return queue;
+    }
+
+    @Override
+    public Context currentContext() {
+        return processor.currentContext();
+    }
+
+    @Override
+    public Stream<? extends Scannable> inners() {
+        return processor.inners();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return processor.isTerminated();
+    }
+
+    @Override
+    public Throwable getError() {
+        return processor.getError();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return queue.capacity();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return processor.isDisposed();
+    }
+
+    @Override
+    public void dispose() {
+        processor.dispose();
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        Object v = queue.scanUnsafe(key);
+        if (v != null) {
+            return v;
+        }
+        return processor.scanUnsafe(key);
+    }
+}
@@ -0,0 +1,20 @@
+package com.greek.reactorstart.processor;
+
+/**
+ * 订阅者落后超过环形缓存容量时的处理方式 {@link RingMulticastProcessor}
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public enum LagPolicy {
+
+    /**
+     * 给落后的订阅者发出 Exceptions.failWithOverflow 错误信号并移除，其他订阅者不受影响
+     */
+    DROP_SUBSCRIBER,
+
+    /**
+     * 落后的订阅者跳到缓存中最早的元素继续消费，跳过的元素不再推送
+     */
+    SKIP_AHEAD
+}
@@ -0,0 +1,645 @@
+package com.greek.reactorstart.processor;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.FluxProcessor;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * 历史数据保存在堆外内存中的 ReplayProcessor <br>
+ * 1. 元素经过 {@link ElementCodec} 编码后写入一个 direct ByteBuffer 或内存映射文件组成的环形缓存，堆上不保留历史数据 <br>
+ * 2. 缓存按字节数限制，写满之后覆盖最早的元素，后来的订阅者从最早的元素开始重放 <br>
+ * 3. 每个订阅者按自己的请求数读取，生产者从不等待订阅者，向上游请求 Long.MAX_VALUE <br>
+ * 4. 订阅者读取的位置被覆盖时，按 {@link LagPolicy} 单独处理这个订阅者 <br>
+ * 5. 完成之后订阅仍然会重放缓存中的数据，然后收到终止信号 <br>
+ *
+ * 每个元素占用 4 字节长度 + 编码后的字节，一个元素不会跨过缓存末尾，末尾放不下时从头开始写 <br>
+ * 读取不加锁（StampedLock 乐观读），读完之后校验这段时间内没有发生覆盖 <br>
+ * 堆外内存在 Processor 被回收之后释放；onNext 需要串行调用，多个线程推送数据时使用 sink()
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class OffHeapReplayProcessor<T> extends FluxProcessor<T, T> {
+
+    /**
+     * 历史数据保存在 ByteBuffer.allocateDirect(capacityBytes) 中，落后的订阅者收到错误信号
+     */
+    public static <T> OffHeapReplayProcessor<T> direct(int capacityBytes, ElementCodec<T> codec) {
+        return direct(capacityBytes, codec, LagPolicy.DROP_SUBSCRIBER);
+    }
+
+    public static <T> OffHeapReplayProcessor<T> direct(int capacityBytes, ElementCodec<T> codec, LagPolicy lagPolicy) {
+        checkCapacity(capacityBytes);
+        return new OffHeapReplayProcessor<>(ByteBuffer.allocateDirect(capacityBytes), codec, lagPolicy);
+    }
+
+    /**
+     * 历史数据保存在映射到内存的文件中，文件不存在时创建，原有内容会被覆盖，落后的订阅者收到错误信号
+     */
+    public static <T> OffHeapReplayProcessor<T> mapped(Path file, int capacityBytes, ElementCodec<T> codec) {
+        return mapped(file, capacityBytes, codec, LagPolicy.DROP_SUBSCRIBER);
+    }
+
+    public static <T> OffHeapReplayProcessor<T> mapped(Path file, int capacityBytes, ElementCodec<T> codec,
+                                                       LagPolicy lagPolicy) {
+        Objects.requireNonNull(file, "file");
+        checkCapacity(capacityBytes);
+        // 映射建立之后关闭 channel 不影响映射
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new OffHeapReplayProcessor<>(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes),
+                    codec, lagPolicy);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void checkCapacity(int capacityBytes) {
+        if (capacityBytes < MIN_CAPACITY) {
+            throw new IllegalArgumentException("capacityBytes >= " + MIN_CAPACITY + " required but it was " + capacityBytes);
+        }
+    }
+
+    static final int MIN_CAPACITY = 64;
+
+    static final int HEADER = 4;
+
+    /**
+     * 长度为 PADDING 表示缓存末尾剩下的空间没有使用，从头开始读
+     */
+    static final int PADDING = -1;
+
+    @SuppressWarnings("rawtypes")
+    static final ReplayInner[] EMPTY = new ReplayInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<OffHeapReplayProcessor, ReplayInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(OffHeapReplayProcessor.class, ReplayInner[].class, "subscribers");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<OffHeapReplayProcessor, Subscription> UPSTREAM =
+            AtomicReferenceFieldUpdater.newUpdater(OffHeapReplayProcessor.class, Subscription.class, "upstream");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<OffHeapReplayProcessor> PUBLISHED =
+            AtomicLongFieldUpdater.newUpdater(OffHeapReplayProcessor.class, "published");
+
+    final ByteBuffer ring;
+
+    final int capacity;
+
+    final ElementCodec<T> codec;
+
+    final LagPolicy lagPolicy;
+
+    /**
+     * 覆盖旧数据（移动 tail）时获取写锁，读取方用乐观读校验读到的数据没有被覆盖
+     */
+    final StampedLock lock = new StampedLock();
+
+    final LongAdder laggedSubscribers = new LongAdder();
+
+    final LongAdder skippedElements = new LongAdder();
+
+    /**
+     * 编码用的堆上缓存，只由生产者使用，放不下时扩容
+     */
+    ByteBuffer scratch = ByteBuffer.allocate(256);
+
+    /**
+     * 下一个元素写入的逻辑位置（只增不减，对 capacity 取余是实际位置），只由生产者使用
+     */
+    long head;
+
+    /**
+     * 最早的元素的逻辑位置和序号，在写锁中修改
+     */
+    long tail;
+
+    long firstSequence;
+
+    volatile ReplayInner<T>[] subscribers;
+
+    volatile Subscription upstream;
+
+    /**
+     * 已发布的元素个数，也是下一个元素的序号
+     */
+    volatile long published;
+
+    volatile boolean done;
+
+    Throwable error;
+
+    @SuppressWarnings("unchecked")
+    OffHeapReplayProcessor(ByteBuffer ring, ElementCodec<T> codec, LagPolicy lagPolicy) {
+        this.ring = ring;
+        this.capacity = ring.capacity();
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.lagPolicy = Objects.requireNonNull(lagPolicy, "lagPolicy");
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Operators.setOnce(UPSTREAM, this, s)) {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            Operators.onNextDropped(t, currentContext());
+            return;
+        }
+        Objects.requireNonNull(t, "onNext");
+        ByteBuffer encoded;
+        try {
+            encoded = encode(t);
+        }
+        catch (Throwable e) {
+            onError(Operators.onOperatorError(upstream, e, t, currentContext()));
+            return;
+        }
+        int length = encoded.remaining();
+        int record = HEADER + length;
+        if (record > capacity) {
+            onError(Operators.onOperatorError(upstream, new IllegalArgumentException("Element of " + length +
+                    " bytes does not fit in a ring of " + capacity + " bytes"), t, currentContext()));
+            return;
+        }
+
+        long h = head;
+        int offset = (int) (h % capacity);
+        int remaining = capacity - offset;
+        long start = remaining < record ? h + remaining : h;
+        long end = start + record;
+        if (end - tail > capacity) {
+            evict(start, end);
+        }
+
+        ByteBuffer r = ring;
+        if (start != h && remaining >= HEADER) {
+            r.putInt(offset, PADDING);
+        }
+        int position = (int) (start % capacity);
+        r.putInt(position, length);
+        r.position(position + HEADER);
+        r.put(encoded);
+
+        head = end;
+        PUBLISHED.lazySet(this, published + 1);
+        for (ReplayInner<T> inner : subscribers) {
+            inner.drain();
+        }
+    }
+
+    ByteBuffer encode(T t) {
+        for (;;) {
+            ByteBuffer s = scratch;
+            s.clear();
+            try {
+                codec.encode(t, s);
+                s.flip();
+                return s;
+            }
+            catch (BufferOverflowException e) {
+                if (s.capacity() >= capacity) {
+                    throw new IllegalArgumentException("Element does not fit in a ring of " + capacity + " bytes");
+                }
+                scratch = ByteBuffer.allocate((int) Math.min((long) s.capacity() << 1, capacity));
+            }
+        }
+    }
+
+    /**
+     * 移动 tail 直到 [tail, end) 不超过 capacity，被移出的元素可能已经有订阅者正在读取
+     */
+    void evict(long start, long end) {
+        long stamp = lock.writeLock();
+        try {
+            long t = tail;
+            long f = firstSequence;
+            long h = head;
+            while (end - t > capacity) {
+                if (t >= h) {
+                    // 所有元素都被移出，新的元素就是最早的元素
+                    t = start;
+                    break;
+                }
+                int offset = (int) (t % capacity);
+                int remaining = capacity - offset;
+                int length = remaining < HEADER ? PADDING : ring.getInt(offset);
+                if (length == PADDING) {
+                    t += remaining;
+                }
+                else {
+                    t += HEADER + length;
+                    f++;
+                }
+            }
+            tail = t;
+            firstSequence = f;
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        Objects.requireNonNull(t, "onError");
+        if (done) {
+            Operators.onErrorDropped(t, currentContext());
+            return;
+        }
+        error = t;
+        done = true;
+        for (ReplayInner<T> inner : subscribers) {
+            inner.drain();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        for (ReplayInner<T> inner : subscribers) {
+            inner.drain();
+        }
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        ReplayInner<T> inner = new ReplayInner<>(actual, this);
+        inner.reset();
+        actual.onSubscribe(inner);
+        add(inner);
+        if (inner.cancelled) {
+            remove(inner);
+            return;
+        }
+        inner.drain();
+    }
+
+    void add(ReplayInner<T> inner) {
+        for (;;) {
+            ReplayInner<T>[] a = subscribers;
+            int n = a.length;
+            ReplayInner<T>[] b = Arrays.copyOf(a, n + 1);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(ReplayInner<T> inner) {
+        for (;;) {
+            ReplayInner<T>[] a = subscribers;
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            ReplayInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new ReplayInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 缓存中的元素个数
+     */
+    public long retainedElements() {
+        long stamp = lock.readLock();
+        try {
+            return published - firstSequence;
+        }
+        finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 因为落后被移除的订阅者个数（DROP_SUBSCRIBER）
+     */
+    public long laggedSubscribers() {
+        return laggedSubscribers.sum();
+    }
+
+    /**
+     * @return 因为落后被跳过的元素总数（SKIP_AHEAD）
+     */
+    public long skippedElements() {
+        return skippedElements.sum();
+    }
+
+    /**
+     * @return 缓存的字节数
+     */
+    @Override
+    public int getBufferSize() {
+        return capacity;
+    }
+
+    @Override
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return done;
+    }
+
+    @Override
+    public Context currentContext() {
+        return Context.empty();
+    }
+
+    @Override
+    public Stream<? extends Scannable> inners() {
+        return Stream.of(subscribers);
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) {
+            return upstream;
+        }
+        if (key == Attr.CAPACITY) {
+            return capacity;
+        }
+        if (key == Attr.BUFFERED) {
+            return (int) Math.min(retainedElements(), Integer.MAX_VALUE);
+        }
+        if (key == Attr.TERMINATED) {
+            return done;
+        }
+        if (key == Attr.ERROR) {
+            return error;
+        }
+        return super.scanUnsafe(key);
+    }
+
+    static final class ReplayInner<T> implements Subscription, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<ReplayInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(ReplayInner.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<ReplayInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ReplayInner.class, "requested");
+
+        final CoreSubscriber<? super T> actual;
+
+        final OffHeapReplayProcessor<T> parent;
+
+        /**
+         * 每个订阅者有自己的 position/limit
+         */
+        final ByteBuffer view;
+
+        /**
+         * 下一个要读取的元素的序号和逻辑位置，只在drain中修改
+         */
+        long sequence;
+
+        long position;
+
+        volatile int wip;
+
+        volatile long requested;
+
+        volatile boolean cancelled;
+
+        ReplayInner(CoreSubscriber<? super T> actual, OffHeapReplayProcessor<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+            this.view = parent.ring.duplicate();
+        }
+
+        /**
+         * 移动到缓存中最早的元素
+         */
+        void reset() {
+            StampedLock lock = parent.lock;
+            long stamp = lock.tryOptimisticRead();
+            long s = parent.firstSequence;
+            long p = parent.tail;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    s = parent.firstSequence;
+                    p = parent.tail;
+                }
+                finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            sequence = s;
+            position = p;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                parent.remove(this);
+            }
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            final CoreSubscriber<? super T> a = actual;
+            final OffHeapReplayProcessor<T> p = parent;
+            final StampedLock lock = p.lock;
+            final int capacity = p.capacity;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+
+                for (;;) {
+                    if (cancelled) {
+                        return;
+                    }
+                    boolean d = p.done;
+                    long pub = p.published;
+
+                    long stamp = lock.tryOptimisticRead();
+                    if (position < p.tail) {
+                        if (!lagged()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (sequence == pub) {
+                        if (d) {
+                            cancelled = true;
+                            p.remove(this);
+                            Throwable ex = p.error;
+                            if (ex != null) {
+                                a.onError(ex);
+                            }
+                            else {
+                                a.onComplete();
+                            }
+                            return;
+                        }
+                        break;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+
+                    int offset = (int) (position % capacity);
+                    int remaining = capacity - offset;
+                    int length = remaining < HEADER ? PADDING : view.getInt(offset);
+                    if (length == PADDING) {
+                        if (lock.validate(stamp)) {
+                            position += remaining;
+                        }
+                        continue;
+                    }
+
+                    T v = null;
+                    RuntimeException failure = null;
+                    if (length >= 0 && length <= remaining - HEADER) {
+                        view.limit(offset + HEADER + length).position(offset + HEADER);
+                        try {
+                            v = p.codec.decode(view);
+                        }
+                        catch (RuntimeException ex) {
+                            failure = ex;
+                        }
+                        view.clear();
+                    }
+                    else {
+                        failure = new IllegalStateException("Corrupted record length " + length + " at " + offset);
+                    }
+                    if (!lock.validate(stamp)) {
+                        // 读取期间发生了覆盖，重新检查是否落后
+                        continue;
+                    }
+                    if (failure != null) {
+                        cancel();
+                        a.onError(Operators.onOperatorError(failure, a.currentContext()));
+                        return;
+                    }
+
+                    a.onNext(v);
+                    sequence++;
+                    position += HEADER + length;
+                    e++;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * 读取的位置已经被覆盖
+         *
+         * @return false 表示订阅者已被移除
+         */
+        boolean lagged() {
+            OffHeapReplayProcessor<T> p = parent;
+            long s = sequence;
+            reset();
+            if (sequence <= s) {
+                // 只移出了末尾没有使用的空间，下一个元素还在
+                sequence = s;
+                return true;
+            }
+            if (p.lagPolicy == LagPolicy.SKIP_AHEAD) {
+                p.skippedElements.add(sequence - s);
+                return true;
+            }
+            cancelled = true;
+            p.remove(this);
+            p.laggedSubscribers.increment();
+            actual.onError(Exceptions.failWithOverflow("Subscriber lagged behind the off-heap ring of " +
+                    p.capacity + " bytes"));
+            return false;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return parent;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.greek.reactorstart.processor;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.FluxProcessor;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 每个订阅者独立背压的广播 Processor <br>
+ * 1. 上游的数据按序号写入一个共享的环形缓存，生产者从不等待订阅者，向上游请求 Long.MAX_VALUE <br>
+ * 2. 每个订阅者有自己的读取位置（cursor），按自己的请求数从环形缓存中读取，快的订阅者不受慢的订阅者影响 <br>
+ * 3. 订阅者落后超过缓存容量时，按 {@link LagPolicy} 单独处理这个订阅者 <br>
+ * 4. 和 DirectProcessor 一样，后来的订阅者只能收到订阅之后的数据 <br>
+ *
+ * onNext 需要串行调用（Reactive Streams 规范），多个线程推送数据时使用 sink()
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class RingMulticastProcessor<T> extends FluxProcessor<T, T> {
+
+    /**
+     * 容量为 Queues.SMALL_BUFFER_SIZE，落后的订阅者收到错误信号
+     */
+    public static <T> RingMulticastProcessor<T> create() {
+        return create(Queues.SMALL_BUFFER_SIZE, LagPolicy.DROP_SUBSCRIBER);
+    }
+
+    /**
+     * @param capacity  环形缓存容量，会向上取整为2的幂
+     * @param lagPolicy 订阅者落后超过容量时的处理方式
+     */
+    public static <T> RingMulticastProcessor<T> create(int capacity, LagPolicy lagPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        Objects.requireNonNull(lagPolicy, "lagPolicy");
+        return new RingMulticastProcessor<>(Queues.ceilingNextPowerOfTwo(capacity), lagPolicy);
+    }
+
+    @SuppressWarnings("rawtypes")
+    static final RingInner[] EMPTY = new RingInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final RingInner[] TERMINATED = new RingInner[0];
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<RingMulticastProcessor, RingInner[]> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(RingMulticastProcessor.class, RingInner[].class, "subscribers");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<RingMulticastProcessor, Subscription> UPSTREAM =
+            AtomicReferenceFieldUpdater.newUpdater(RingMulticastProcessor.class, Subscription.class, "upstream");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<RingMulticastProcessor> PUBLISHED =
+            AtomicLongFieldUpdater.newUpdater(RingMulticastProcessor.class, "published");
+
+    final int capacity;
+
+    final int mask;
+
+    final LagPolicy lagPolicy;
+
+    /**
+     * 序号为 n 的元素放在 n & mask 位置，Slot 中保存序号，读取时用来判断是否已被覆盖
+     */
+    final AtomicReferenceArray<Slot> ring;
+
+    final LongAdder laggedSubscribers = new LongAdder();
+
+    final LongAdder skippedElements = new LongAdder();
+
+    volatile RingInner<T>[] subscribers;
+
+    volatile Subscription upstream;
+
+    /**
+     * 已发布的元素个数，也是下一个元素的序号，只由生产者修改
+     */
+    volatile long published;
+
+    volatile boolean done;
+
+    Throwable error;
+
+    @SuppressWarnings("unchecked")
+    RingMulticastProcessor(int capacity, LagPolicy lagPolicy) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.lagPolicy = lagPolicy;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        SUBSCRIBERS.lazySet(this, EMPTY);
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Operators.setOnce(UPSTREAM, this, s)) {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            Operators.onNextDropped(t, currentContext());
+            return;
+        }
+        Objects.requireNonNull(t, "onNext");
+        long p = published;
+        ring.lazySet((int) p & mask, new Slot(p, t));
+        PUBLISHED.lazySet(this, p + 1);
+        for (RingInner<T> inner : subscribers) {
+            inner.drain();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        Objects.requireNonNull(t, "onError");
+        if (done) {
+            Operators.onErrorDropped(t, currentContext());
+            return;
+        }
+        error = t;
+        done = true;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        terminate();
+    }
+
+    @SuppressWarnings("unchecked")
+    void terminate() {
+        for (RingInner<T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+            inner.drain();
+        }
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Objects.requireNonNull(actual, "subscribe");
+        RingInner<T> inner = new RingInner<>(actual, this, published);
+        actual.onSubscribe(inner);
+        if (add(inner) && inner.cancelled) {
+            remove(inner);
+            return;
+        }
+        // 已经终止时 cursor == published，drain 直接推送终止信号
+        inner.drain();
+    }
+
+    boolean add(RingInner<T> inner) {
+        for (;;) {
+            RingInner<T>[] a = subscribers;
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            RingInner<T>[] b = Arrays.copyOf(a, n + 1);
+            b[n] = inner;
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void remove(RingInner<T> inner) {
+        for (;;) {
+            RingInner<T>[] a = subscribers;
+            if (a == TERMINATED || a == EMPTY) {
+                return;
+            }
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            RingInner<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            }
+            else {
+                b = new RingInner[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 因为落后被移除的订阅者个数（DROP_SUBSCRIBER）
+     */
+    public long laggedSubscribers() {
+        return laggedSubscribers.sum();
+    }
+
+    /**
+     * @return 因为落后被跳过的元素总数（SKIP_AHEAD）
+     */
+    public long skippedElements() {
+        return skippedElements.sum();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return capacity;
+    }
+
+    @Override
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return done;
+    }
+
+    @Override
+    public Context currentContext() {
+        return Context.empty();
+    }
+
+    @Override
+    public Stream<? extends Scannable> inners() {
+        return Stream.of(subscribers);
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) {
+            return upstream;
+        }
+        if (key == Attr.CAPACITY) {
+            return capacity;
+        }
+        if (key == Attr.TERMINATED) {
+            return done;
+        }
+        if (key == Attr.ERROR) {
+            return error;
+        }
+        return super.scanUnsafe(key);
+    }
+
+    @Override
+    public void dispose() {
+        Operators.terminate(UPSTREAM, this);
+        onError(new CancellationException("Disposed"));
+    }
+
+    static final class Slot {
+
+        final long sequence;
+
+        final Object value;
+
+        Slot(long sequence, Object value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+
+    static final class RingInner<T> implements Subscription, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<RingInner> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(RingInner.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<RingInner> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(RingInner.class, "requested");
+
+        final CoreSubscriber<? super T> actual;
+
+        final RingMulticastProcessor<T> parent;
+
+        /**
+         * 下一个要读取的序号，只在drain中修改
+         */
+        long cursor;
+
+        long skipped;
+
+        volatile int wip;
+
+        volatile long requested;
+
+        volatile boolean cancelled;
+
+        RingInner(CoreSubscriber<? super T> actual, RingMulticastProcessor<T> parent, long cursor) {
+            this.actual = actual;
+            this.parent = parent;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                parent.remove(this);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            final CoreSubscriber<? super T> a = actual;
+            final RingMulticastProcessor<T> p = parent;
+            final AtomicReferenceArray<Slot> ring = p.ring;
+            final int mask = p.mask;
+            final long capacity = p.capacity;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                long c = cursor;
+
+                for (;;) {
+                    if (cancelled) {
+                        return;
+                    }
+                    boolean d = p.done;
+                    long pub = p.published;
+
+                    if (pub - c > capacity) {
+                        c = lagged(c, pub - capacity);
+                        if (c < 0L) {
+                            return;
+                        }
+                    }
+                    if (c == pub) {
+                        if (d) {
+                            cancelled = true;
+                            Throwable ex = p.error;
+                            if (ex != null) {
+                                a.onError(ex);
+                            }
+                            else {
+                                a.onComplete();
+                            }
+                            return;
+                        }
+                        break;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+
+                    Slot slot = ring.get((int) c & mask);
+                    if (slot.sequence != c) {
+                        // 读取 published 之后，这个位置又被生产者覆盖了
+                        c = lagged(c, slot.sequence + 1 - capacity);
+                        if (c < 0L) {
+                            return;
+                        }
+                        continue;
+                    }
+                    a.onNext((T) slot.value);
+                    c++;
+                    e++;
+                }
+
+                cursor = c;
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * 订阅者落后了，最早还能读取的序号是 oldest
+         *
+         * @return 新的读取位置，负数表示订阅者已被移除
+         */
+        long lagged(long c, long oldest) {
+            RingMulticastProcessor<T> p = parent;
+            if (p.lagPolicy == LagPolicy.SKIP_AHEAD) {
+                skipped += oldest - c;
+                p.skippedElements.add(oldest - c);
+                return oldest;
+            }
+            cancelled = true;
+            p.remove(this);
+            p.laggedSubscribers.increment();
+            actual.onError(Exceptions.failWithOverflow("Subscriber lagged behind by more than " +
+                    p.capacity + " elements (ring buffer capacity)"));
+            return -1L;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return parent;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            if (key == Attr.BUFFERED) {
+                return (int) Math.min(parent.published - cursor, parent.capacity);
+            }
+            return null;
+        }
+    }
+}
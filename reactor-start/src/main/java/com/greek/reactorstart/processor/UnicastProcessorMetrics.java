@@ -0,0 +1,64 @@
+package com.greek.reactorstart.processor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 把 {@link InstrumentedUnicastProcessor} 的缓存队列状态注册到 Micrometer <br>
+ * 所有指标都是在采集时读取计数器（Gauge / FunctionCounter），推送数据时没有额外开销；入队和出队速率由监控系统对计数求导得到 <br>
+ * 指标只持有 Processor 的弱引用，Processor 被回收后指标不再更新 <br>
+ *
+ * reactor.unicast.queue.depth / capacity / high.water：当前深度、容量、最大深度 <br>
+ * reactor.unicast.queue.enqueued / dequeued / overflows：入队、出队、溢出次数
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class UnicastProcessorMetrics implements MeterBinder {
+
+    static final String PREFIX = "reactor.unicast.queue";
+
+    final InstrumentedUnicastProcessor<?> processor;
+
+    final Iterable<Tag> tags;
+
+    /**
+     * @param name 区分不同 Processor 的名称，作为 name 标签
+     */
+    public UnicastProcessorMetrics(InstrumentedUnicastProcessor<?> processor, String name, Iterable<Tag> tags) {
+        this.processor = processor;
+        this.tags = Tags.concat(tags, "name", name);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".depth", processor, p -> p.queue().depth())
+                .tags(tags)
+                .description("Number of elements currently buffered")
+                .register(registry);
+        Gauge.builder(PREFIX + ".capacity", processor, p -> p.queue().capacity())
+                .tags(tags)
+                .description("Capacity of the buffer queue")
+                .register(registry);
+        Gauge.builder(PREFIX + ".high.water", processor, p -> p.queue().highWaterMark())
+                .tags(tags)
+                .description("Highest number of elements buffered so far")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".enqueued", processor, p -> p.queue().enqueued())
+                .tags(tags)
+                .description("Elements offered to the queue")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".dequeued", processor, p -> p.queue().dequeued())
+                .tags(tags)
+                .description("Elements polled or cleared from the queue")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".overflows", processor, p -> p.queue().overflows())
+                .tags(tags)
+                .description("Offers rejected because the queue was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.greek.reactorstart.processor;
+
+import com.greek.reactorstart.queue.IntSpscQueue;
+import com.greek.reactorstart.queue.LongSpscQueue;
+import reactor.core.Disposable;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存队列为基本类型数组的 UnicastProcessor <br>
+ * 对应 UnicastProcessor.create(queue, onOverflow, onTerminate)，队列换成 {@link IntSpscQueue} / {@link LongSpscQueue} <br>
+ * 队列满时调用 onOverflow，然后发出 Exceptions.failWithOverflow 错误信号 <br>
+ *
+ * UnicastProcessor 只有一个生产者（onNext 串行调用）和一个消费者，符合队列的 SPSC 要求；
+ * 多个线程推送数据时使用 sink() <br>
+ *
+ * 注意：只省掉了缓存的内存，没有省掉分配。UnicastProcessor 的 onNext 收到的已经是 Integer/Long，
+ * 入队时拆箱后这个对象就被丢弃，出队时 poll 再装箱一个新对象交给下游；
+ * 元素超出 Integer/Long 缓存（-128~127）时每个元素分配两个包装对象，
+ * 是 Queues.get 队列（直接保存生产者的对象，只分配一次）的两倍左右。
+ * 适合积压很多、在意常驻内存的场景；在意分配速率时用 Queues.get，见 UnicastQueueBenchmark
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class UnicastProcessors {
+
+    private UnicastProcessors() {
+    }
+
+    public static UnicastProcessor<Integer> ints(int capacity) {
+        return UnicastProcessor.create(new IntSpscQueue(capacity));
+    }
+
+    public static UnicastProcessor<Integer> ints(int capacity, Consumer<? super Integer> onOverflow,
+                                                 Disposable onTerminate) {
+        return UnicastProcessor.create(new IntSpscQueue(capacity), onOverflow, onTerminate);
+    }
+
+    public static UnicastProcessor<Long> longs(int capacity) {
+        return UnicastProcessor.create(new LongSpscQueue(capacity));
+    }
+
+    public static UnicastProcessor<Long> longs(int capacity, Consumer<? super Long> onOverflow,
+                                               Disposable onTerminate) {
+        return UnicastProcessor.create(new LongSpscQueue(capacity), onOverflow, onTerminate);
+    }
+}
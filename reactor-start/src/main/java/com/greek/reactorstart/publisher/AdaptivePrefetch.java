@@ -0,0 +1,105 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 自适应 publishOn 的预取配置，不可变对象，每个方法返回新的配置 <br>
+ * 1. publishOn 的 prefetch 固定（默认 Queues.SMALL_BUFFER_SIZE），下游很快时每批太小，请求次数多；下游很慢时每批太大，缓存占内存 <br>
+ * 2. 自适应模式在 [min, max] 之间调整 prefetch：每次补充请求时测量下游处理一个元素的时间，
+ * 让一批元素的处理时间接近 targetBatchTime，每次最多翻倍或减半 <br>
+ * 3. 补充请求时队列是空的（下游在等上游）说明瓶颈在上游，这时不减小 prefetch <br>
+ *
+ * <pre>
+ * flux.transform(AdaptivePrefetch.between(8, 4096).publishOn(scheduler))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class AdaptivePrefetch {
+
+    static final int DEFAULT_MIN = 8;
+
+    static final int DEFAULT_MAX = 4096;
+
+    static final Duration DEFAULT_TARGET_BATCH_TIME = Duration.ofMillis(1);
+
+    /**
+     * prefetch 在 8 ~ 4096 之间调整，从 Queues.SMALL_BUFFER_SIZE 开始
+     */
+    public static AdaptivePrefetch defaults() {
+        return between(DEFAULT_MIN, DEFAULT_MAX);
+    }
+
+    /**
+     * @param min 最小的 prefetch
+     * @param max 最大的 prefetch，也是缓存元素个数的上限
+     */
+    public static AdaptivePrefetch between(int min, int max) {
+        if (min <= 0) {
+            throw new IllegalArgumentException("min > 0 required but it was " + min);
+        }
+        if (max < min || max > 1 << 30) {
+            throw new IllegalArgumentException("max in [min, 2^30] required but it was " + max);
+        }
+        int initial = Math.max(min, Math.min(max, Queues.SMALL_BUFFER_SIZE));
+        return new AdaptivePrefetch(min, max, initial, DEFAULT_TARGET_BATCH_TIME.toNanos());
+    }
+
+    final int min;
+
+    final int max;
+
+    final int initial;
+
+    final long targetBatchNanos;
+
+    AdaptivePrefetch(int min, int max, int initial, long targetBatchNanos) {
+        this.min = min;
+        this.max = max;
+        this.initial = initial;
+        this.targetBatchNanos = targetBatchNanos;
+    }
+
+    /**
+     * 第一次请求的个数，默认 Queues.SMALL_BUFFER_SIZE（超出范围时取最近的边界）
+     */
+    public AdaptivePrefetch initial(int initial) {
+        if (initial < min || initial > max) {
+            throw new IllegalArgumentException("initial in [" + min + ", " + max + "] required but it was " + initial);
+        }
+        return new AdaptivePrefetch(min, max, initial, targetBatchNanos);
+    }
+
+    /**
+     * 下游处理一批元素的目标时间，默认1ms：越大每批越大
+     */
+    public AdaptivePrefetch targetBatchTime(Duration targetBatchTime) {
+        Objects.requireNonNull(targetBatchTime, "targetBatchTime");
+        if (targetBatchTime.toNanos() < TimeUnit.MICROSECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("targetBatchTime >= 1us required but it was " + targetBatchTime);
+        }
+        return new AdaptivePrefetch(min, max, initial, targetBatchTime.toNanos());
+    }
+
+    /**
+     * 和 publishOn(scheduler) 一样（delayError 为 true），用 transform 使用
+     */
+    public <T> Function<Flux<T>, Flux<T>> publishOn(Scheduler scheduler) {
+        Objects.requireNonNull(scheduler, "scheduler");
+        return source -> FluxPublishOnAdaptive.create(source, scheduler, this);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePrefetch[" + min + ".." + max + ", initial=" + initial
+                + ", targetBatch=" + TimeUnit.NANOSECONDS.toMicros(targetBatchNanos) + "us]";
+    }
+}
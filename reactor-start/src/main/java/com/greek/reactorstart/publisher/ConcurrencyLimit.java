@@ -0,0 +1,104 @@
+package com.greek.reactorstart.publisher;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * flatMap 并发数的 AIMD（加性增、乘性减）控制参数，不可变对象，每个方法返回新的配置 <br>
+ * 1. 内部 Publisher 在 latencyThreshold 之内正常完成，且当时的并发数至少达到上限的一半时，上限加 1 <br>
+ * 2. 内部 Publisher 出错或者耗时超过 latencyThreshold 时，上限乘以 backoffRatio，不小于 min <br>
+ * 3. 被取消的内部 Publisher 只释放并发数，不参与调整 <br>
+ *
+ * <pre>
+ * ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(4, 256)
+ *         .latencyThreshold(Duration.ofMillis(200))
+ *         .limiter();
+ * flux.transform(limiter.flatMap(id -&gt; client.load(id)))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ConcurrencyLimit {
+
+    static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(1);
+
+    static final double DEFAULT_BACKOFF_RATIO = 0.9d;
+
+    /**
+     * 并发数在 min 和 max 之间调整，初始为 min
+     */
+    public static ConcurrencyLimit aimd(int min, int max) {
+        if (min <= 0) {
+            throw new IllegalArgumentException("min > 0 required but it was " + min);
+        }
+        if (max < min) {
+            throw new IllegalArgumentException("max >= min required but it was " + max);
+        }
+        return new ConcurrencyLimit(min, max, min, DEFAULT_LATENCY_THRESHOLD.toNanos(), DEFAULT_BACKOFF_RATIO);
+    }
+
+    final int min;
+
+    final int max;
+
+    final int initial;
+
+    final long latencyThresholdNanos;
+
+    final double backoffRatio;
+
+    ConcurrencyLimit(int min, int max, int initial, long latencyThresholdNanos, double backoffRatio) {
+        this.min = min;
+        this.max = max;
+        this.initial = initial;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public ConcurrencyLimit initial(int initial) {
+        if (initial < min || initial > max) {
+            throw new IllegalArgumentException("min <= initial <= max required but it was " + initial);
+        }
+        return new ConcurrencyLimit(min, max, initial, latencyThresholdNanos, backoffRatio);
+    }
+
+    /**
+     * 内部 Publisher 从订阅到结束的耗时超过这个值就减小并发数，默认 1 秒
+     */
+    public ConcurrencyLimit latencyThreshold(Duration latencyThreshold) {
+        Objects.requireNonNull(latencyThreshold, "latencyThreshold");
+        if (latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+            throw new IllegalArgumentException("latencyThreshold > 0 required but it was " + latencyThreshold);
+        }
+        return new ConcurrencyLimit(min, max, initial, latencyThreshold.toNanos(), backoffRatio);
+    }
+
+    /**
+     * 减小并发数时乘以的系数，默认 0.9
+     */
+    public ConcurrencyLimit backoffRatio(double backoffRatio) {
+        if (!(backoffRatio > 0d && backoffRatio < 1d)) {
+            throw new IllegalArgumentException("0 < backoffRatio < 1 required but it was " + backoffRatio);
+        }
+        return new ConcurrencyLimit(min, max, initial, latencyThresholdNanos, backoffRatio);
+    }
+
+    /**
+     * 创建一个新的限制器；同一个限制器可以给多个 flatMap 共用，它们一起受同一个上限约束
+     */
+    public ConcurrencyLimiter limiter() {
+        return new ConcurrencyLimiter(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimit{" +
+                "min=" + min +
+                ", max=" + max +
+                ", initial=" + initial +
+                ", latencyThreshold=" + Duration.ofNanos(latencyThresholdNanos) +
+                ", backoffRatio=" + backoffRatio +
+                '}';
+    }
+}
@@ -0,0 +1,211 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * 按内部 Publisher 的耗时和错误动态调整并发数的 flatMap，参数见 {@link ConcurrencyLimit} <br>
+ * 1. 源头的每个元素先取得一个许可（inFlight &lt; limit）才向源头请求，内部 Publisher 结束时归还许可并根据结果调整 limit <br>
+ * 2. 取不到许可的 flatMap 在限制器上等待，有许可归还时由归还的线程唤醒 <br>
+ * 3. 当前的 limit 和 inFlight 可以通过 {@link ConcurrencyLimiterMetrics} 注册到 Micrometer <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ConcurrencyLimiter {
+
+    static final AtomicIntegerFieldUpdater<ConcurrencyLimiter> LIMIT =
+            AtomicIntegerFieldUpdater.newUpdater(ConcurrencyLimiter.class, "limit");
+
+    static final AtomicIntegerFieldUpdater<ConcurrencyLimiter> IN_FLIGHT =
+            AtomicIntegerFieldUpdater.newUpdater(ConcurrencyLimiter.class, "inFlight");
+
+    static final AtomicLongFieldUpdater<ConcurrencyLimiter> SAMPLES =
+            AtomicLongFieldUpdater.newUpdater(ConcurrencyLimiter.class, "samples");
+
+    static final AtomicLongFieldUpdater<ConcurrencyLimiter> DROPS =
+            AtomicLongFieldUpdater.newUpdater(ConcurrencyLimiter.class, "drops");
+
+    final ConcurrencyLimit config;
+
+    /**
+     * 等待许可的 flatMap，归还许可时全部唤醒
+     */
+    final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+    volatile int limit;
+
+    volatile int inFlight;
+
+    volatile long samples;
+
+    volatile long drops;
+
+    ConcurrencyLimiter(ConcurrencyLimit config) {
+        this.config = config;
+        this.limit = config.initial;
+    }
+
+    /**
+     * 和 flatMap(mapper, max) 一样合并内部 Publisher 的结果，但同时订阅的内部 Publisher 不超过当前的 limit，用 transform 使用
+     */
+    public <T, R> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, ? extends Publisher<? extends R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return source -> FluxConcurrencyGate.create(source, this)
+                .flatMap(t -> track(t, mapper), config.max);
+    }
+
+    /**
+     * 元素到达 flatMap 时已经取得了许可，由内部 Publisher 结束时归还；mapper 失败时立即归还
+     */
+    <T, R> Flux<R> track(T t, Function<? super T, ? extends Publisher<? extends R>> mapper) {
+        Publisher<? extends R> inner;
+        try {
+            inner = Objects.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+        }
+        catch (RuntimeException | Error ex) {
+            release();
+            throw ex;
+        }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            // 在结束信号传给 flatMap 之前采样：flatMap 处理内部错误时会取消出错的内部 Publisher，
+            // 用 doFinally 的话拿到的是 CANCEL；released 保证只归还一次
+            AtomicBoolean released = new AtomicBoolean();
+            return Flux.<R>from(inner)
+                    .doOnComplete(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            onSample(System.nanoTime() - start, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            onSample(System.nanoTime() - start, true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            release();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 当前的并发上限
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * 已经取得许可、还没归还的个数
+     */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 已经完成的采样个数
+     */
+    public long samples() {
+        return samples;
+    }
+
+    /**
+     * 出错或超时、导致上限减小的采样个数
+     */
+    public long drops() {
+        return drops;
+    }
+
+    boolean tryAcquire() {
+        for (; ; ) {
+            int n = inFlight;
+            if (n >= limit) {
+                return false;
+            }
+            if (IN_FLIGHT.compareAndSet(this, n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还许可，不调整上限
+     */
+    void release() {
+        release(1);
+    }
+
+    void release(int permits) {
+        if (permits > 0) {
+            IN_FLIGHT.addAndGet(this, -permits);
+            signalWaiters();
+        }
+    }
+
+    /**
+     * 归还一个许可，根据耗时和是否出错调整上限
+     */
+    void onSample(long latencyNanos, boolean failed) {
+        int before = IN_FLIGHT.getAndDecrement(this);
+        SAMPLES.incrementAndGet(this);
+        if (failed || latencyNanos > config.latencyThresholdNanos) {
+            DROPS.incrementAndGet(this);
+            for (; ; ) {
+                int l = limit;
+                int next = Math.max(config.min, (int) (l * config.backoffRatio));
+                if (next == l || LIMIT.compareAndSet(this, l, next)) {
+                    break;
+                }
+            }
+        }
+        else {
+            for (; ; ) {
+                int l = limit;
+                // 并发数没有用到上限的一半时，说明瓶颈不在这里，不再增大
+                if (l >= config.max || before * 2 < l) {
+                    break;
+                }
+                if (LIMIT.compareAndSet(this, l, l + 1)) {
+                    break;
+                }
+            }
+        }
+        signalWaiters();
+    }
+
+    void park(Runnable waiter) {
+        waiters.offer(waiter);
+    }
+
+    void unpark(Runnable waiter) {
+        waiters.remove(waiter);
+    }
+
+    void signalWaiters() {
+        Runnable waiter;
+        while (inFlight < limit && (waiter = waiters.poll()) != null) {
+            waiter.run();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+                "limit=" + limit +
+                ", inFlight=" + inFlight +
+                ", samples=" + samples +
+                ", drops=" + drops +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.greek.reactorstart.publisher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 把 {@link ConcurrencyLimiter} 的状态注册到 Micrometer，采集时读取，没有额外开销 <br>
+ *
+ * reactor.flatmap.concurrency.limit / in.flight：当前的并发上限、正在执行的内部 Publisher 个数 <br>
+ * reactor.flatmap.concurrency.samples / drops：完成的内部 Publisher 个数、其中出错或超时的个数
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ConcurrencyLimiterMetrics implements MeterBinder {
+
+    static final String PREFIX = "reactor.flatmap.concurrency";
+
+    final ConcurrencyLimiter limiter;
+
+    final Iterable<Tag> tags;
+
+    /**
+     * @param name 区分不同限制器的名称，作为 name 标签
+     */
+    public ConcurrencyLimiterMetrics(ConcurrencyLimiter limiter, String name, Iterable<Tag> tags) {
+        this.limiter = limiter;
+        this.tags = Tags.concat(tags, "name", name);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".limit", limiter, ConcurrencyLimiter::limit)
+                .tags(tags)
+                .description("Current limit of concurrently subscribed inner publishers")
+                .register(registry);
+        Gauge.builder(PREFIX + ".in.flight", limiter, ConcurrencyLimiter::inFlight)
+                .tags(tags)
+                .description("Inner publishers currently holding a permit")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".samples", limiter, ConcurrencyLimiter::samples)
+                .tags(tags)
+                .description("Inner publishers completed or failed")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".drops", limiter, ConcurrencyLimiter::drops)
+                .tags(tags)
+                .description("Inner publishers that failed or exceeded the latency threshold")
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.greek.reactorstart.publisher;
+
+/**
+ * 基本类型管道的游标：源头每次推送一个元素，经过 map/filter 等阶段交给最后的消费者 <br>
+ * 元素在各个阶段之间用 IntConsumer/LongConsumer 传递，不装箱；filter 掉的元素不会到达消费者
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+interface Cursor {
+
+    /**
+     * 推送源头的下一个元素
+     *
+     * @return 源头已经没有元素时返回 false
+     */
+    boolean advance();
+
+    /**
+     * 源头是否已经没有元素
+     */
+    boolean exhausted();
+}
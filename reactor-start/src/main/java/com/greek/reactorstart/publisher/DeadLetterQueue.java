@@ -0,0 +1,315 @@
+package com.greek.reactorstart.publisher;
+
+import com.greek.reactorstart.processor.ElementCodec;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * {@link ErrorSideChannel#spilling} 的实现：内存中缓存固定个数，满了之后追加写入本地文件 <br>
+ * 1. 没有订阅者时也缓存，订阅者按自己的请求数从内存中读取；同一时间只能有一个订阅者，释放并取完之后再订阅直接完成 <br>
+ * 2. 写入文件的元素不再从 Flux 发出，由 {@link #read(Path, ElementCodec)} 在之后批量读取重新处理 <br>
+ * 3. 写文件失败时元素交给 Operators.onErrorDropped，不影响主管道 <br>
+ *
+ * 文件中每条记录为：4 字节记录长度 + 4 字节元素长度 + 编码后的元素 + 错误的 toString()（UTF-8）<br>
+ * 入队和写入都加锁，每条记录写完就 flush；跳过元素本来就是少数情况，锁的开销可以接受
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class DeadLetterQueue<T> extends Flux<Dropped<T>> implements Disposable {
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<DeadLetterQueue, DeadLetterSubscription> CURRENT =
+            AtomicReferenceFieldUpdater.newUpdater(DeadLetterQueue.class, DeadLetterSubscription.class, "current");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<DeadLetterQueue> SPILLED =
+            AtomicLongFieldUpdater.newUpdater(DeadLetterQueue.class, "spilled");
+
+    /**
+     * 读取 spilling 写入的文件，错误还原为带原始 toString() 的 {@link StacklessException}
+     */
+    static <T> Flux<Dropped<T>> read(Path file, ElementCodec<T> codec) {
+        return Flux.using(() -> new DataInputStream(new BufferedInputStream(Files.newInputStream(file))),
+                in -> Flux.<Dropped<T>>generate(sink -> {
+                    try {
+                        int length;
+                        try {
+                            length = in.readInt();
+                        }
+                        catch (EOFException e) {
+                            sink.complete();
+                            return;
+                        }
+                        byte[] record = new byte[length];
+                        in.readFully(record);
+                        ByteBuffer buffer = ByteBuffer.wrap(record);
+                        int valueLength = buffer.getInt();
+                        ByteBuffer value = buffer.slice();
+                        value.limit(valueLength);
+                        buffer.position(buffer.position() + valueLength);
+                        String error = StandardCharsets.UTF_8.decode(buffer).toString();
+                        sink.next(new Dropped<>(codec.decode(value), new StacklessException(error)));
+                    }
+                    catch (IOException e) {
+                        sink.error(new UncheckedIOException(e));
+                    }
+                }),
+                in -> {
+                    try {
+                        in.close();
+                    }
+                    catch (IOException e) {
+                        Operators.onErrorDropped(e, Context.empty());
+                    }
+                });
+    }
+
+    final Queue<Dropped<T>> queue;
+
+    final Path file;
+
+    final ElementCodec<T> codec;
+
+    /**
+     * 以下两个字段在 synchronized (this) 中访问
+     */
+    DataOutputStream out;
+
+    ByteBuffer scratch = ByteBuffer.allocate(256);
+
+    volatile DeadLetterSubscription<T> current;
+
+    volatile long spilled;
+
+    volatile boolean disposed;
+
+    DeadLetterQueue(int capacity, Path file, ElementCodec<T> codec) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.file = file;
+        this.codec = codec;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super Dropped<T>> actual) {
+        DeadLetterSubscription<T> s = new DeadLetterSubscription<>(actual, this);
+        if (!CURRENT.compareAndSet(this, null, s)) {
+            Operators.error(actual, new IllegalStateException("ErrorSideChannel allows only one subscriber"));
+            return;
+        }
+        actual.onSubscribe(s);
+        s.drain();
+    }
+
+    void offer(Dropped<T> dropped) {
+        synchronized (this) {
+            // 和 dispose 在同一个锁中检查，释放之后不会再有元素进入队列而没有人取走
+            if (disposed) {
+                Operators.onNextDropped(dropped, Context.empty());
+                return;
+            }
+            if (!queue.offer(dropped)) {
+                spill(dropped);
+                return;
+            }
+        }
+        DeadLetterSubscription<T> s = current;
+        if (s != null) {
+            s.drain();
+        }
+    }
+
+    synchronized void spill(Dropped<T> dropped) {
+        if (disposed) {
+            Operators.onNextDropped(dropped, Context.empty());
+            return;
+        }
+        try {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+            }
+            ByteBuffer value = encode(dropped.value);
+            byte[] error = String.valueOf(dropped.error).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(4 + value.remaining() + error.length);
+            out.writeInt(value.remaining());
+            out.write(value.array(), value.arrayOffset() + value.position(), value.remaining());
+            out.write(error);
+            out.flush();
+            SPILLED.incrementAndGet(this);
+        }
+        catch (IOException e) {
+            Operators.onErrorDropped(new UncheckedIOException("Failed to spill " + dropped + " to " + file, e),
+                    Context.empty());
+        }
+    }
+
+    ByteBuffer encode(T value) {
+        for (; ; ) {
+            ByteBuffer s = scratch;
+            s.clear();
+            try {
+                codec.encode(value, s);
+                s.flip();
+                return s;
+            }
+            catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(s.capacity() << 1);
+            }
+        }
+    }
+
+    /**
+     * 关闭文件，订阅者取完内存中的元素后收到完成信号，之后跳过的元素交给 Operators.onNextDropped
+     */
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            if (out != null) {
+                try {
+                    out.close();
+                }
+                catch (IOException e) {
+                    Operators.onErrorDropped(e, Context.empty());
+                }
+                out = null;
+            }
+        }
+        DeadLetterSubscription<T> s = current;
+        if (s != null) {
+            s.drain();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    static final class DeadLetterSubscription<T> implements Subscription, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<DeadLetterSubscription> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(DeadLetterSubscription.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<DeadLetterSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(DeadLetterSubscription.class, "requested");
+
+        final CoreSubscriber<? super Dropped<T>> actual;
+
+        final DeadLetterQueue<T> parent;
+
+        volatile int wip;
+
+        volatile long requested;
+
+        volatile boolean cancelled;
+
+        DeadLetterSubscription(CoreSubscriber<? super Dropped<T>> actual, DeadLetterQueue<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                CURRENT.compareAndSet(parent, this, null);
+            }
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            int missed = 1;
+            Queue<Dropped<T>> q = parent.queue;
+            for (; ; ) {
+                long r = requested;
+                long e = 0L;
+                while (e != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    Dropped<T> v = q.poll();
+                    if (v == null) {
+                        break;
+                    }
+                    actual.onNext(v);
+                    e++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (parent.disposed && q.isEmpty()) {
+                    cancelled = true;
+                    // 之后的订阅者直接收到完成信号，而不是 only one subscriber 的错误
+                    CURRENT.compareAndSet(parent, this, null);
+                    actual.onComplete();
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.BUFFERED) {
+                return parent.queue.size();
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.greek.reactorstart.publisher;
+
+/**
+ * 被 {@link ErrorContinue} 跳过的元素和导致跳过的错误
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class Dropped<T> {
+
+    final T value;
+
+    final Throwable error;
+
+    Dropped(T value, Throwable error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * 源头的元素
+     */
+    public T value() {
+        return value;
+    }
+
+    public Throwable error() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "Dropped{" +
+                "value=" + value +
+                ", error=" + error +
+                '}';
+    }
+}
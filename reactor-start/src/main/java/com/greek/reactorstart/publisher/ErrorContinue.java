@@ -0,0 +1,110 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 代替 map/flatMap 加 onErrorContinue 的跳过错误元素的方式，不可变对象，每个方法返回新的配置 <br>
+ * 1. onErrorContinue 的策略放在 Context 里，每个错误都要查找一次，错误还会经过 onOperatorError 等钩子；
+ * 这里的策略在组装时确定，错误的元素直接交给 {@link ErrorSideChannel}，然后向上游补充一个请求 <br>
+ * 2. 只有匹配 only(...) 的错误被跳过，其他错误和 map/flatMap 一样终止 <br>
+ * 3. 出错很多时由 mapper 抛出或返回 {@link StacklessException}，省掉填充调用栈的开销 <br>
+ *
+ * <pre>
+ * ErrorSideChannel&lt;Order&gt; invalid = ErrorSideChannel.bounded(1024);
+ * invalid.asFlux().subscribe(d -&gt; log.warn("skip {}", d.value(), d.error()));
+ * orders.transform(ErrorContinue.to(invalid)
+ *         .only(StacklessException.class)
+ *         .flatMap(order -&gt; validate(order), 32))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ErrorContinue<T> {
+
+    /**
+     * 跳过所有错误，错误的元素交给 channel
+     */
+    public static <T> ErrorContinue<T> to(ErrorSideChannel<? super T> channel) {
+        Objects.requireNonNull(channel, "channel");
+        return new ErrorContinue<>(channel, e -> true);
+    }
+
+    final ErrorSideChannel<? super T> channel;
+
+    final Predicate<? super Throwable> filter;
+
+    ErrorContinue(ErrorSideChannel<? super T> channel, Predicate<? super Throwable> filter) {
+        this.channel = channel;
+        this.filter = filter;
+    }
+
+    /**
+     * 只跳过给定类型的错误
+     */
+    public ErrorContinue<T> only(Class<? extends Throwable> type) {
+        Objects.requireNonNull(type, "type");
+        return only(type::isInstance);
+    }
+
+    /**
+     * 只跳过匹配的错误
+     */
+    public ErrorContinue<T> only(Predicate<? super Throwable> filter) {
+        Objects.requireNonNull(filter, "filter");
+        return new ErrorContinue<>(channel, filter);
+    }
+
+    /**
+     * 和 map(mapper).onErrorContinue(...) 一样，mapper 抛出的错误只跳过当前元素
+     */
+    public <R> Function<Flux<T>, Flux<R>> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return source -> FluxMapContinue.create(source, mapper, this);
+    }
+
+    /**
+     * 和 flatMap(mapper, concurrency).onErrorContinue(...) 一样，mapper 抛出的错误和内部 Publisher 的错误只跳过当前元素，
+     * 内部 Publisher 已经发出的元素保留
+     */
+    public <R> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                                 int concurrency) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency > 0 required but it was " + concurrency);
+        }
+        return source -> source.flatMap(t -> inner(t, mapper), concurrency);
+    }
+
+    <R> Publisher<? extends R> inner(T t, Function<? super T, ? extends Publisher<? extends R>> mapper) {
+        Publisher<? extends R> p;
+        try {
+            p = Objects.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+        }
+        catch (Throwable ex) {
+            if (!skip(t, ex)) {
+                throw Exceptions.propagate(ex);
+            }
+            return Flux.empty();
+        }
+        return Flux.<R>from(p).onErrorResume(e -> skip(t, e), e -> Flux.empty());
+    }
+
+    /**
+     * @return true 表示错误已经交给 channel，跳过当前元素
+     */
+    boolean skip(T t, Throwable ex) {
+        Exceptions.throwIfFatal(ex);
+        if (!filter.test(ex)) {
+            return false;
+        }
+        channel.accept(t, ex);
+        return true;
+    }
+}
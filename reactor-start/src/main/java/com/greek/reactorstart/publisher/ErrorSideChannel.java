@@ -0,0 +1,178 @@
+package com.greek.reactorstart.publisher;
+
+import com.greek.reactorstart.processor.ElementCodec;
+import com.greek.reactorstart.sink.BoundedBuffer;
+import com.greek.reactorstart.sink.BufferFallback;
+import com.greek.reactorstart.sink.FluxSinks;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 接收 {@link ErrorContinue} 跳过的元素，可以多个管道共用，线程安全 <br>
+ * 1. asFlux() 同一时间只能有一个订阅者，订阅之前和取消之后跳过的元素只计数，不缓存 <br>
+ * 2. 订阅者太慢时按 {@link BoundedBuffer} 的配置缓存，bounded(capacity) 满了之后丢弃最早的，不会影响主管道 <br>
+ * 3. spilling(...) 作为死信队列：没有订阅者时也缓存，内存满了之后追加写入本地文件，之后用 readSpilled 读取重新处理 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ErrorSideChannel<T> implements Disposable {
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<ErrorSideChannel, FluxSink> SINK =
+            AtomicReferenceFieldUpdater.newUpdater(ErrorSideChannel.class, FluxSink.class, "sink");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<ErrorSideChannel> DROPPED =
+            AtomicLongFieldUpdater.newUpdater(ErrorSideChannel.class, "dropped");
+
+    /**
+     * 最多缓存 capacity 个，满了之后丢弃最早的
+     */
+    public static <T> ErrorSideChannel<T> bounded(int capacity) {
+        return bounded(BoundedBuffer.<Dropped<T>>maxElements(capacity).fallback(BufferFallback.DROP_OLDEST));
+    }
+
+    /**
+     * 按给定的配置缓存，不要使用 BLOCK 和 ERROR，否则订阅者太慢时会阻塞或终止 asFlux()
+     */
+    public static <T> ErrorSideChannel<T> bounded(BoundedBuffer<Dropped<T>> buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        return new ErrorSideChannel<>(buffer);
+    }
+
+    /**
+     * 只计数，不能订阅
+     */
+    public static <T> ErrorSideChannel<T> counting() {
+        return new ErrorSideChannel<>((BoundedBuffer<Dropped<T>>) null);
+    }
+
+    /**
+     * 内存中最多缓存 capacity 个，订阅者按请求数读取；满了之后用 codec 编码追加写入 file，文件不存在时创建 <br>
+     * 不再使用时调用 dispose() 关闭文件
+     */
+    public static <T> ErrorSideChannel<T> spilling(int capacity, Path file, ElementCodec<T> codec) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(codec, "codec");
+        return new ErrorSideChannel<>(new DeadLetterQueue<>(capacity, file, codec));
+    }
+
+    /**
+     * 读取 spilling 写入文件的元素，错误还原为 message 为原始错误 toString() 的 {@link StacklessException}
+     */
+    public static <T> Flux<Dropped<T>> readSpilled(Path file, ElementCodec<T> codec) {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(codec, "codec");
+        return DeadLetterQueue.read(file, codec);
+    }
+
+    final Flux<Dropped<T>> flux;
+
+    /**
+     * 只有 spilling 时不为 null
+     */
+    final DeadLetterQueue<T> deadLetters;
+
+    volatile FluxSink<Dropped<T>> sink;
+
+    volatile long dropped;
+
+    volatile boolean disposed;
+
+    ErrorSideChannel(DeadLetterQueue<T> deadLetters) {
+        this.flux = deadLetters;
+        this.deadLetters = deadLetters;
+    }
+
+    ErrorSideChannel(BoundedBuffer<Dropped<T>> buffer) {
+        this.deadLetters = null;
+        if (buffer == null) {
+            this.flux = Flux.error(new UnsupportedOperationException("ErrorSideChannel.counting() can't be subscribed"));
+        }
+        else {
+            this.flux = FluxSinks.createBounded(this::attach, buffer);
+        }
+    }
+
+    void attach(FluxSink<Dropped<T>> s) {
+        if (SINK.compareAndSet(this, null, s)) {
+            s.onDispose(() -> SINK.compareAndSet(this, s, null));
+        }
+        else {
+            s.error(new IllegalStateException("ErrorSideChannel allows only one subscriber"));
+        }
+    }
+
+    /**
+     * 跳过的元素；除了 spilling，订阅之前跳过的不会发出
+     */
+    public Flux<Dropped<T>> asFlux() {
+        return flux;
+    }
+
+    /**
+     * 一共跳过的元素个数，包括没有订阅者时跳过的
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * 写入文件的元素个数，只有 spilling 时不为 0
+     */
+    public long spilled() {
+        return deadLetters != null ? deadLetters.spilled : 0L;
+    }
+
+    void accept(T value, Throwable error) {
+        DROPPED.incrementAndGet(this);
+        if (deadLetters != null) {
+            deadLetters.offer(new Dropped<>(value, error));
+            return;
+        }
+        FluxSink<Dropped<T>> s = sink;
+        if (s != null) {
+            s.next(new Dropped<>(value, error));
+        }
+    }
+
+    /**
+     * 订阅者收到完成信号；spilling 时关闭文件，订阅者先取完内存中缓存的元素
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        if (deadLetters != null) {
+            deadLetters.dispose();
+            return;
+        }
+        FluxSink<Dropped<T>> s = SINK.getAndSet(this, null);
+        if (s != null) {
+            s.complete();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorSideChannel{" +
+                "dropped=" + dropped +
+                ", spilled=" + spilled() +
+                ", subscribed=" + (sink != null) +
+                '}';
+    }
+}
@@ -0,0 +1,225 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * {@link ConcurrencyLimiter#flatMap} 的前半部分，放在 flatMap 和源头之间 <br>
+ * 1. 下游（flatMap）一次请求 max 个，这里只有从限制器取得许可才向源头请求，每个许可对应一个元素 <br>
+ * 2. 取不到许可时在限制器上等待，被唤醒后重新尝试 <br>
+ * 3. 已经向源头请求、但元素没有到达就结束或取消时，归还多出来的许可 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxConcurrencyGate<T> extends FluxOperator<T, T> {
+
+    static <T> Flux<T> create(Flux<? extends T> source, ConcurrencyLimiter limiter) {
+        return onAssembly(new FluxConcurrencyGate<>(source, limiter));
+    }
+
+    final ConcurrencyLimiter limiter;
+
+    FluxConcurrencyGate(Flux<? extends T> source, ConcurrencyLimiter limiter) {
+        super(source);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        source.subscribe(new GateSubscriber<>(actual, limiter));
+    }
+
+    static final class GateSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable, Runnable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<GateSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(GateSubscriber.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<GateSubscriber> PARKED =
+                AtomicIntegerFieldUpdater.newUpdater(GateSubscriber.class, "parked");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<GateSubscriber> PERMITS =
+                AtomicIntegerFieldUpdater.newUpdater(GateSubscriber.class, "permits");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<GateSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(GateSubscriber.class, "requested");
+
+        final CoreSubscriber<? super T> actual;
+
+        final ConcurrencyLimiter limiter;
+
+        Subscription s;
+
+        volatile long requested;
+
+        volatile int wip;
+
+        /**
+         * 1 表示已经在限制器上等待
+         */
+        volatile int parked;
+
+        /**
+         * 已经取得、元素还没到达的许可个数
+         */
+        volatile int permits;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        GateSubscriber(CoreSubscriber<? super T> actual, ConcurrencyLimiter limiter) {
+            this.actual = actual;
+            this.limiter = limiter;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return;
+            }
+            PERMITS.decrementAndGet(this);
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            done = true;
+            releaseUnused();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            releaseUnused();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            s.cancel();
+            limiter.unpark(this);
+            releaseUnused();
+        }
+
+        /**
+         * 被限制器唤醒
+         */
+        @Override
+        public void run() {
+            parked = 0;
+            drain();
+        }
+
+        void releaseUnused() {
+            limiter.release(PERMITS.getAndSet(this, 0));
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                long r = requested;
+                long e = 0L;
+                while (e != r && !cancelled && !done) {
+                    if (!limiter.tryAcquire()) {
+                        // 先登记再重试一次，避免在两步之间归还的许可唤醒不到
+                        if (PARKED.compareAndSet(this, 0, 1)) {
+                            limiter.park(this);
+                        }
+                        if (!limiter.tryAcquire()) {
+                            break;
+                        }
+                    }
+                    e++;
+                }
+                if (e != 0L) {
+                    PERMITS.addAndGet(this, (int) e);
+                    if (r != Long.MAX_VALUE) {
+                        REQUESTED.addAndGet(this, -e);
+                    }
+                    s.request(e);
+                    if (cancelled || done) {
+                        releaseUnused();
+                    }
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            if (key == Attr.BUFFERED) {
+                return permits;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 基本类型管道的装箱步骤（IntFlux.mapToObj/boxed 等），把游标推出的元素按请求数发给下游 <br>
+ * 1. 和 FluxRange 一样分为请求 Long.MAX_VALUE 的快速路径和按请求数发送的慢速路径 <br>
+ * 2. 支持 SYNC 融合：poll() 推进游标直到产生一个元素 <br>
+ * 3. 发完请求的个数后，只有源头已经没有元素才立即完成；源头剩下的元素都会被 filter 掉时，要等下一次请求才能发现 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxCursor<R> extends Flux<R> implements Fuseable {
+
+    /**
+     * @param open 给定最后的消费者，打开一个新的游标；每次订阅调用一次
+     */
+    static <R> Flux<R> fromCursor(Function<Consumer<R>, Cursor> open) {
+        return onAssembly(new FluxCursor<>(open));
+    }
+
+    final Function<Consumer<R>, Cursor> open;
+
+    FluxCursor(Function<Consumer<R>, Cursor> open) {
+        this.open = open;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R> actual) {
+        CursorSubscription<R> s = new CursorSubscription<>(actual);
+        try {
+            s.cursor = open.apply(s);
+        }
+        catch (Throwable ex) {
+            Operators.error(actual, Operators.onOperatorError(ex, actual.currentContext()));
+            return;
+        }
+        actual.onSubscribe(s);
+    }
+
+    static final class CursorSubscription<R> implements QueueSubscription<R>, Consumer<R>, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<CursorSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(CursorSubscription.class, "requested");
+
+        final CoreSubscriber<? super R> actual;
+
+        Cursor cursor;
+
+        volatile long requested;
+
+        volatile boolean cancelled;
+
+        /**
+         * 慢速路径中已经发出的个数，由 accept 增加
+         */
+        long emitted;
+
+        boolean outputFused;
+
+        /**
+         * SYNC 融合时 accept 把元素放在这里，由 poll 取走
+         */
+        R value;
+
+        boolean done;
+
+        CursorSubscription(CoreSubscriber<? super R> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(R v) {
+            Objects.requireNonNull(v, "The mapper returned a null value");
+            if (outputFused) {
+                value = v;
+            }
+            else {
+                emitted++;
+                actual.onNext(v);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                if (Operators.addCap(REQUESTED, this, n) == 0) {
+                    if (n == Long.MAX_VALUE) {
+                        fastPath();
+                    }
+                    else {
+                        slowPath(n);
+                    }
+                }
+            }
+        }
+
+        void fastPath() {
+            Cursor c = cursor;
+            try {
+                while (c.advance()) {
+                    if (cancelled) {
+                        return;
+                    }
+                }
+            }
+            catch (Throwable ex) {
+                fail(ex);
+                return;
+            }
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+        void slowPath(long n) {
+            Cursor c = cursor;
+            for (; ; ) {
+                while (emitted != n) {
+                    if (cancelled) {
+                        return;
+                    }
+                    boolean more;
+                    try {
+                        more = c.advance();
+                    }
+                    catch (Throwable ex) {
+                        fail(ex);
+                        return;
+                    }
+                    if (!more) {
+                        if (!cancelled) {
+                            actual.onComplete();
+                        }
+                        return;
+                    }
+                }
+                if (cancelled) {
+                    return;
+                }
+                // 和 FluxRange 一样，源头已经没有元素时不等下一次请求就完成
+                if (c.exhausted()) {
+                    actual.onComplete();
+                    return;
+                }
+                n = requested;
+                if (n == emitted) {
+                    n = REQUESTED.addAndGet(this, -emitted);
+                    emitted = 0L;
+                    if (n == 0L) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        void fail(Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            cancelled = true;
+            actual.onError(Operators.onOperatorError(ex, actual.currentContext()));
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int requestFusion(int requestedMode) {
+            if ((requestedMode & Fuseable.SYNC) != 0) {
+                outputFused = true;
+                return Fuseable.SYNC;
+            }
+            return Fuseable.NONE;
+        }
+
+        @Override
+        public R poll() {
+            if (done) {
+                return null;
+            }
+            Cursor c = cursor;
+            while (c.advance()) {
+                R v = value;
+                if (v != null) {
+                    value = null;
+                    return v;
+                }
+            }
+            done = true;
+            return null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return done || cursor.exhausted();
+        }
+
+        /**
+         * filter 之后剩下的个数事先不知道，只区分有没有
+         */
+        @Override
+        public int size() {
+            return isEmpty() ? 0 : 1;
+        }
+
+        @Override
+        public void clear() {
+            done = true;
+            value = null;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.TERMINATED) {
+                return isEmpty();
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            return null;
+        }
+    }
+}
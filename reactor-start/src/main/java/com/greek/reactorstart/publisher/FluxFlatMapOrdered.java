@@ -0,0 +1,497 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按源头顺序发出结果的并发 flatMap，窗口配置见 {@link ReorderWindow} <br>
+ * 1. 源头的 onNext 把新的内部订阅者放入 pending 队列，drain 把它们按顺序移到 active，
+ * active 只在 drain 中访问 <br>
+ * 2. 向内部 Publisher 的请求都在 drain 中发出：请求的个数先记入 reserved，发给下游后才释放，
+ * 所以 reserved 就是窗口中已经缓存和正在路上的元素个数 <br>
+ * 3. 内部 Publisher 完成时补充一个源头请求，窗口满了就先记下来，等窗口有空间时再发出 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxFlatMapOrdered<T, R> extends FluxOperator<T, R> {
+
+    static <T, R> Flux<R> create(Flux<? extends T> source,
+                                 Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                 int concurrency,
+                                 ReorderWindow<R> window) {
+        return onAssembly(new FluxFlatMapOrdered<>(source, mapper, concurrency, window));
+    }
+
+    final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+    final int concurrency;
+
+    final ReorderWindow<R> window;
+
+    FluxFlatMapOrdered(Flux<? extends T> source,
+                       Function<? super T, ? extends Publisher<? extends R>> mapper,
+                       int concurrency,
+                       ReorderWindow<R> window) {
+        super(source);
+        this.mapper = mapper;
+        this.concurrency = concurrency;
+        this.window = window;
+    }
+
+    @Override
+    public int getPrefetch() {
+        return window.prefetch;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R> actual) {
+        source.subscribe(new OrderedMainSubscriber<>(actual, mapper, concurrency, window));
+    }
+
+    static final class OrderedMainSubscriber<T, R> implements CoreSubscriber<T>, Subscription, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<OrderedMainSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(OrderedMainSubscriber.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<OrderedMainSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(OrderedMainSubscriber.class, "requested");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<OrderedMainSubscriber> BYTES =
+                AtomicLongFieldUpdater.newUpdater(OrderedMainSubscriber.class, "bytes");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<OrderedMainSubscriber, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(OrderedMainSubscriber.class, Throwable.class, "error");
+
+        final CoreSubscriber<? super R> actual;
+
+        final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+        final int concurrency;
+
+        final int prefetch;
+
+        final long maxElements;
+
+        final long maxBytes;
+
+        final ToLongFunction<? super R> sizeEstimator;
+
+        final Context ctx;
+
+        /**
+         * 源头刚订阅的内部订阅者，单生产者（源头的 onNext）单消费者（drain）
+         */
+        final Queue<OrderedInner<R>> pending = Queues.<OrderedInner<R>>unbounded(Queues.XS_BUFFER_SIZE).get();
+
+        /**
+         * 按源头顺序排列的内部订阅者，第一个就是 head，只在 drain 中访问
+         */
+        final ArrayDeque<OrderedInner<R>> active = new ArrayDeque<>();
+
+        Subscription s;
+
+        volatile int wip;
+
+        volatile long requested;
+
+        /**
+         * 窗口中元素的估算字节数，内部订阅者收到元素时增加，发给下游时减少
+         */
+        volatile long bytes;
+
+        volatile Throwable error;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        /**
+         * 窗口中已经请求、还没发给下游的元素个数，只在 drain 中修改，volatile 只是为了 scan
+         */
+        volatile long reserved;
+
+        /**
+         * 内部 Publisher 完成后还没补充给源头的请求个数，只在 drain 中访问
+         */
+        int sourceCredit;
+
+        OrderedMainSubscriber(CoreSubscriber<? super R> actual,
+                              Function<? super T, ? extends Publisher<? extends R>> mapper,
+                              int concurrency,
+                              ReorderWindow<R> window) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.concurrency = concurrency;
+            this.prefetch = window.prefetch;
+            this.maxElements = window.maxElements;
+            this.maxBytes = window.maxBytes;
+            this.sizeEstimator = window.sizeEstimator;
+            this.ctx = actual.currentContext();
+        }
+
+        @Override
+        public Context currentContext() {
+            return ctx;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+                s.request(concurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : concurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, ctx);
+                return;
+            }
+            Publisher<? extends R> p;
+            try {
+                p = Objects.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+            }
+            catch (Throwable ex) {
+                onError(Operators.onOperatorError(s, ex, t, ctx));
+                return;
+            }
+            OrderedInner<R> inner = new OrderedInner<>(this);
+            // 先放入队列再订阅，保证 drain 看到的顺序和源头一致
+            pending.offer(inner);
+            if (cancelled) {
+                drain();
+                return;
+            }
+            p.subscribe(inner);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, ctx);
+                return;
+            }
+            if (Exceptions.addThrowable(ERROR, this, t)) {
+                done = true;
+                drain();
+            }
+            else {
+                Operators.onErrorDropped(t, ctx);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            s.cancel();
+            drain();
+        }
+
+        void innerNext(R value) {
+            if (sizeEstimator != null) {
+                BYTES.addAndGet(this, sizeEstimator.applyAsLong(value));
+            }
+            drain();
+        }
+
+        void innerError(Throwable t) {
+            if (Exceptions.addThrowable(ERROR, this, t)) {
+                drain();
+            }
+            else {
+                Operators.onErrorDropped(t, ctx);
+            }
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            int missed = 1;
+            ArrayDeque<OrderedInner<R>> active = this.active;
+            for (; ; ) {
+                if (cancelled) {
+                    cancelAll();
+                    return;
+                }
+                if (error != null) {
+                    Throwable ex = Exceptions.terminate(ERROR, this);
+                    s.cancel();
+                    cancelAll();
+                    actual.onError(ex);
+                    return;
+                }
+
+                OrderedInner<R> next;
+                while ((next = pending.poll()) != null) {
+                    active.offer(next);
+                }
+
+                long r = requested;
+                long e = 0L;
+                for (; ; ) {
+                    if (cancelled) {
+                        cancelAll();
+                        return;
+                    }
+                    OrderedInner<R> head = active.peek();
+                    if (head == null) {
+                        break;
+                    }
+                    boolean d = head.done;
+                    if (e != r) {
+                        R v = head.queue.poll();
+                        if (v != null) {
+                            consume(head, v);
+                            actual.onNext(v);
+                            e++;
+                            continue;
+                        }
+                    }
+                    if (d && head.queue.isEmpty()) {
+                        active.poll();
+                        // 没用完的请求个数不会再到达，从窗口中释放
+                        reserved -= head.granted - head.consumed;
+                        sourceCredit++;
+                        continue;
+                    }
+                    break;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                if (done && active.isEmpty() && pending.isEmpty()) {
+                    if (error == null) {
+                        actual.onComplete();
+                        return;
+                    }
+                    continue;
+                }
+
+                grantInners(active);
+                requestSource();
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void consume(OrderedInner<R> inner, R v) {
+            inner.consumed++;
+            reserved--;
+            if (sizeEstimator != null) {
+                BYTES.addAndGet(this, -sizeEstimator.applyAsLong(v));
+            }
+        }
+
+        boolean windowFull() {
+            return reserved >= maxElements || bytes >= maxBytes;
+        }
+
+        /**
+         * 按顺序给内部订阅者补充请求，head 不受窗口限制；窗口满了之后后面的都不补充，空间优先留给前面的
+         */
+        void grantInners(ArrayDeque<OrderedInner<R>> active) {
+            boolean head = true;
+            for (OrderedInner<R> inner : active) {
+                Subscription is = inner.s;
+                if (is != null && !inner.done) {
+                    long outstanding = inner.granted - inner.consumed;
+                    if (outstanding <= prefetch >> 1) {
+                        long n = prefetch - outstanding;
+                        if (!head) {
+                            if (windowFull()) {
+                                return;
+                            }
+                            n = Math.min(n, maxElements - reserved);
+                        }
+                        inner.granted += n;
+                        reserved += n;
+                        is.request(n);
+                    }
+                }
+                head = false;
+            }
+        }
+
+        void requestSource() {
+            int c = sourceCredit;
+            if (c != 0 && !done && !windowFull()) {
+                sourceCredit = 0;
+                s.request(c);
+            }
+        }
+
+        void cancelAll() {
+            OrderedInner<R> inner;
+            while ((inner = active.poll()) != null) {
+                inner.cancel();
+                Operators.onDiscardQueueWithClear(inner.queue, ctx, null);
+            }
+            while ((inner = pending.poll()) != null) {
+                inner.cancel();
+                Operators.onDiscardQueueWithClear(inner.queue, ctx, null);
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.PREFETCH) {
+                return prefetch;
+            }
+            if (key == Attr.BUFFERED) {
+                return (int) Math.min(reserved, Integer.MAX_VALUE);
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.TERMINATED) {
+                return done && active.isEmpty() && pending.isEmpty();
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            return null;
+        }
+    }
+
+    static final class OrderedInner<R> implements CoreSubscriber<R>, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<OrderedInner, Subscription> S =
+                AtomicReferenceFieldUpdater.newUpdater(OrderedInner.class, Subscription.class, "s");
+
+        final OrderedMainSubscriber<?, R> parent;
+
+        final Queue<R> queue;
+
+        volatile Subscription s;
+
+        volatile boolean done;
+
+        /**
+         * 以下字段只在 drain 中访问
+         */
+        long granted;
+
+        long consumed;
+
+        OrderedInner(OrderedMainSubscriber<?, R> parent) {
+            this.parent = parent;
+            this.queue = Queues.<R>unbounded(parent.prefetch).get();
+        }
+
+        @Override
+        public Context currentContext() {
+            return parent.ctx;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.setOnce(S, this, s)) {
+                parent.drain();
+            }
+        }
+
+        @Override
+        public void onNext(R t) {
+            queue.offer(t);
+            parent.innerNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void cancel() {
+            Operators.terminate(S, this);
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return parent;
+            }
+            if (key == Attr.PREFETCH) {
+                return parent.prefetch;
+            }
+            if (key == Attr.BUFFERED) {
+                return queue.size();
+            }
+            if (key == Attr.TERMINATED) {
+                return done && queue.isEmpty();
+            }
+            if (key == Attr.CANCELLED) {
+                return s == Operators.cancelledSubscription();
+            }
+            return null;
+        }
+    }
+}
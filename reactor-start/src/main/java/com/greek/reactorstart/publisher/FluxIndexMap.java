@@ -0,0 +1,156 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Indexing#map} 的实现：按顺序给每个元素一个 long 序号，交给 {@link IndexedMapper} <br>
+ * 序号按块分配：有 blocks 时用完一块再从 blocks 取下一块（{@link ParallelIndexMap} 的每个 rail），
+ * 没有时只有一块 [0, Long.MAX_VALUE)
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxIndexMap<T, R> extends FluxOperator<T, R> {
+
+    static <T, R> Flux<R> create(Flux<? extends T> source, IndexedMapper<? super T, ? extends R> mapper) {
+        return onAssembly(new FluxIndexMap<>(source, mapper));
+    }
+
+    final IndexedMapper<? super T, ? extends R> mapper;
+
+    FluxIndexMap(Flux<? extends T> source, IndexedMapper<? super T, ? extends R> mapper) {
+        super(source);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R> actual) {
+        source.subscribe(new IndexMapSubscriber<>(actual, mapper, null, 0));
+    }
+
+    static final class IndexMapSubscriber<T, R> implements CoreSubscriber<T>, Subscription, Scannable {
+
+        final CoreSubscriber<? super R> actual;
+
+        final IndexedMapper<? super T, ? extends R> mapper;
+
+        /**
+         * 所有 rail 共用的下一块的起点，为 null 时只有一块
+         */
+        final AtomicLong blocks;
+
+        final int blockSize;
+
+        Subscription s;
+
+        boolean done;
+
+        /**
+         * 下一个序号和当前块的终点（不包括）
+         */
+        long index;
+
+        long end;
+
+        IndexMapSubscriber(CoreSubscriber<? super R> actual,
+                           IndexedMapper<? super T, ? extends R> mapper,
+                           AtomicLong blocks,
+                           int blockSize) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.blocks = blocks;
+            this.blockSize = blockSize;
+            this.end = blocks == null ? Long.MAX_VALUE : 0L;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return;
+            }
+            long i = index;
+            if (i == end) {
+                i = blocks.getAndAdd(blockSize);
+                end = i + blockSize;
+            }
+            index = i + 1;
+            R v;
+            try {
+                v = mapper.apply(i, t);
+                if (v == null) {
+                    throw new NullPointerException("The mapper returned a null value.");
+                }
+            }
+            catch (Throwable ex) {
+                onError(Operators.onOperatorError(s, ex, t, actual.currentContext()));
+                return;
+            }
+            actual.onNext(v);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.function.Function;
+
+/**
+ * {@link ErrorContinue#map} 的实现：mapper 失败的元素交给 {@link ErrorSideChannel}，再向上游请求一个补上
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxMapContinue<T, R> extends FluxOperator<T, R> {
+
+    static <T, R> Flux<R> create(Flux<? extends T> source,
+                                 Function<? super T, ? extends R> mapper,
+                                 ErrorContinue<T> strategy) {
+        return onAssembly(new FluxMapContinue<>(source, mapper, strategy));
+    }
+
+    final Function<? super T, ? extends R> mapper;
+
+    final ErrorContinue<T> strategy;
+
+    FluxMapContinue(Flux<? extends T> source, Function<? super T, ? extends R> mapper, ErrorContinue<T> strategy) {
+        super(source);
+        this.mapper = mapper;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R> actual) {
+        source.subscribe(new MapContinueSubscriber<>(actual, mapper, strategy));
+    }
+
+    static final class MapContinueSubscriber<T, R> implements CoreSubscriber<T>, Subscription, Scannable {
+
+        final CoreSubscriber<? super R> actual;
+
+        final Function<? super T, ? extends R> mapper;
+
+        final ErrorContinue<T> strategy;
+
+        Subscription s;
+
+        boolean done;
+
+        MapContinueSubscriber(CoreSubscriber<? super R> actual,
+                              Function<? super T, ? extends R> mapper,
+                              ErrorContinue<T> strategy) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return;
+            }
+            R v;
+            try {
+                v = mapper.apply(t);
+                if (v == null) {
+                    throw new NullPointerException("The mapper returned a null value.");
+                }
+            }
+            catch (Throwable ex) {
+                if (strategy.skip(t, ex)) {
+                    s.request(1);
+                }
+                else {
+                    onError(Operators.onOperatorError(s, ex, t, actual.currentContext()));
+                }
+                return;
+            }
+            actual.onNext(v);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            done = true;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            s.cancel();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * prefetch 随下游处理速度调整的 publishOn，配置见 {@link AdaptivePrefetch} <br>
+ * 1. outstanding 是已经向上游请求、还没交给下游的元素个数，队列中的元素不会超过它，所以缓存大小随 prefetch 变化 <br>
+ * 2. 队列是分段的链表（Queues.unbounded），取出元素后释放空的分段，prefetch 减小后占用的内存也随之减少 <br>
+ * 3. outstanding 降到 prefetch 的1/4时补充请求，同时根据这一批的处理时间调整 prefetch：
+ * 只统计 drain 循环内的时间，不包括等待上游的时间 <br>
+ * 4. 不支持融合，和 publishOn(scheduler) 一样上游的错误在队列中的元素发送完之后再发出 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxPublishOnAdaptive<T> extends FluxOperator<T, T> {
+
+    static <T> Flux<T> create(Flux<? extends T> source, Scheduler scheduler, AdaptivePrefetch config) {
+        return onAssembly(new FluxPublishOnAdaptive<>(source, scheduler, config));
+    }
+
+    final Scheduler scheduler;
+
+    final AdaptivePrefetch config;
+
+    FluxPublishOnAdaptive(Flux<? extends T> source, Scheduler scheduler, AdaptivePrefetch config) {
+        super(source);
+        this.scheduler = scheduler;
+        this.config = config;
+    }
+
+    @Override
+    public int getPrefetch() {
+        return config.initial;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Scheduler.Worker worker;
+        try {
+            worker = scheduler.createWorker();
+        }
+        catch (Throwable ex) {
+            Operators.error(actual, Operators.onOperatorError(ex, actual.currentContext()));
+            return;
+        }
+        source.subscribe(new PublishOnAdaptiveSubscriber<>(actual, worker, config));
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.RUN_ON) {
+            return scheduler;
+        }
+        return super.scanUnsafe(key);
+    }
+
+    static final class PublishOnAdaptiveSubscriber<T> implements CoreSubscriber<T>, Subscription, Runnable, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<PublishOnAdaptiveSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(PublishOnAdaptiveSubscriber.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<PublishOnAdaptiveSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(PublishOnAdaptiveSubscriber.class, "requested");
+
+        final CoreSubscriber<? super T> actual;
+
+        final Scheduler.Worker worker;
+
+        final AdaptivePrefetch config;
+
+        final Context ctx;
+
+        final Queue<T> queue = Queues.<T>unbounded(Queues.XS_BUFFER_SIZE).get();
+
+        Subscription s;
+
+        /**
+         * 当前的 prefetch，只在 drain 中修改，volatile 只是为了 scan
+         */
+        volatile int prefetch;
+
+        volatile int wip;
+
+        volatile long requested;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        Throwable error;
+
+        /**
+         * 以下字段只在 drain 中访问
+         */
+        long produced;
+
+        long outstanding;
+
+        long batchCount;
+
+        long batchBusyNanos;
+
+        long passStart;
+
+        PublishOnAdaptiveSubscriber(CoreSubscriber<? super T> actual, Scheduler.Worker worker, AdaptivePrefetch config) {
+            this.actual = actual;
+            this.worker = worker;
+            this.config = config;
+            this.ctx = actual.currentContext();
+            this.prefetch = config.initial;
+        }
+
+        @Override
+        public Context currentContext() {
+            return ctx;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                // 下游在 onSubscribe 中请求时会触发 drain，先设置好 outstanding
+                this.outstanding = config.initial;
+                actual.onSubscribe(this);
+                s.request(config.initial);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, ctx);
+                return;
+            }
+            if (cancelled) {
+                Operators.onDiscard(t, ctx);
+                return;
+            }
+            queue.offer(t);
+            trySchedule(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, ctx);
+                return;
+            }
+            error = t;
+            done = true;
+            trySchedule(null);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            trySchedule(null);
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                trySchedule(null);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            s.cancel();
+            worker.dispose();
+            if (WIP.getAndIncrement(this) == 0) {
+                Operators.onDiscardQueueWithClear(queue, ctx, null);
+            }
+        }
+
+        /**
+         * @param dataSignal onNext 放入队列的元素；取消之后 wip 不再归零，队列没有人清理，和 FluxPublishOn 一样直接丢弃
+         */
+        void trySchedule(Object dataSignal) {
+            if (WIP.getAndIncrement(this) != 0) {
+                if (cancelled && dataSignal != null) {
+                    Operators.onDiscard(dataSignal, ctx);
+                }
+                return;
+            }
+            try {
+                worker.schedule(this);
+            }
+            catch (RejectedExecutionException ree) {
+                Operators.onDiscardQueueWithClear(queue, ctx, null);
+                actual.onError(Operators.onRejectedExecution(ree, ctx));
+            }
+        }
+
+        @Override
+        public void run() {
+            passStart = System.nanoTime();
+            int missed = 1;
+            long e = produced;
+            for (; ; ) {
+                long r = requested;
+                while (e != r) {
+                    boolean d = done;
+                    T v = queue.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    actual.onNext(v);
+                    e++;
+                    batchCount++;
+                    if (--outstanding <= (prefetch >> 2)) {
+                        replenish();
+                    }
+                }
+                if (e == r && checkTerminated(done, queue.isEmpty())) {
+                    return;
+                }
+                int w = wip;
+                if (missed == w) {
+                    produced = e;
+                    long now = System.nanoTime();
+                    batchBusyNanos += now - passStart;
+                    passStart = now;
+                    missed = WIP.addAndGet(this, -missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                }
+                else {
+                    missed = w;
+                }
+            }
+        }
+
+        /**
+         * 按这一批每个元素的平均处理时间算出目标 prefetch，超过当前的两倍时翻倍，不到一半时减半
+         */
+        void replenish() {
+            long busy = batchBusyNanos + (System.nanoTime() - passStart);
+            long perElement = Math.max(1L, busy / Math.max(1L, batchCount));
+            long desired = config.targetBatchNanos / perElement;
+            batchBusyNanos = 0L;
+            batchCount = 0L;
+
+            int p = prefetch;
+            int next = p;
+            if (desired >= 2L * p) {
+                next = (int) Math.min(config.max, 2L * p);
+            }
+            // 队列已经空了说明下游在等上游，减小 prefetch 只会更慢
+            else if (desired < p >> 1 && !queue.isEmpty()) {
+                next = Math.max(config.min, p >> 1);
+            }
+            if (next != p) {
+                prefetch = next;
+            }
+            long n = next - outstanding;
+            if (n > 0) {
+                outstanding = next;
+                s.request(n);
+            }
+            // 上游在 request 中同步发出的元素不算下游的处理时间
+            passStart = System.nanoTime();
+        }
+
+        boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                Operators.onDiscardQueueWithClear(queue, ctx, null);
+                return true;
+            }
+            if (d && empty) {
+                worker.dispose();
+                Throwable e = error;
+                if (e != null) {
+                    actual.onError(e);
+                }
+                else {
+                    actual.onComplete();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) {
+                return s;
+            }
+            if (key == Attr.ACTUAL) {
+                return actual;
+            }
+            if (key == Attr.PREFETCH || key == Attr.CAPACITY) {
+                return prefetch;
+            }
+            if (key == Attr.BUFFERED) {
+                return queue.size();
+            }
+            if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+                return requested;
+            }
+            if (key == Attr.CANCELLED) {
+                return cancelled;
+            }
+            if (key == Attr.TERMINATED) {
+                return done && queue.isEmpty();
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            if (key == Attr.DELAY_ERROR) {
+                return true;
+            }
+            if (key == Attr.RUN_ON) {
+                return worker;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.greek.reactorstart.publisher;
+
+/**
+ * 同时接收序号和元素的映射函数，序号是基本类型，不需要像 Flux.index() 那样为每个元素创建 Tuple2
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@FunctionalInterface
+public interface IndexedMapper<T, R> {
+
+    R apply(long index, T value);
+}
@@ -0,0 +1,57 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 代替 index().map(tuple -&gt; ...) 的带序号映射 <br>
+ * 1. map：序号从 0 开始，和 Flux.index() 相同，但序号以 long 传给 {@link IndexedMapper}，不创建 Tuple2 <br>
+ * 2. mapParallel：每个 rail 从共享的计数器一次取一段连续的序号（blockSize 个），用完再取下一段，
+ * rail 之间只在取新的一段时竞争一次 CAS <br>
+ * 3. mapParallel 的序号在所有 rail 中唯一，但不等于元素在源头中的位置；同一个 rail 中的序号递增 <br>
+ *
+ * <pre>
+ * Flux.range(0, 1_000_000)
+ *         .parallel(4)
+ *         .runOn(Schedulers.parallel())
+ *         .transform(Indexing.mapParallel(1024, (index, item) -&gt; new Row(index, item)))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class Indexing {
+
+    /**
+     * 默认每次取 1024 个序号
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private Indexing() {
+    }
+
+    public static <T, R> Function<Flux<T>, Flux<R>> map(IndexedMapper<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return source -> FluxIndexMap.create(source, mapper);
+    }
+
+    public static <T, R> Function<ParallelFlux<T>, ParallelFlux<R>> mapParallel(
+            IndexedMapper<? super T, ? extends R> mapper) {
+        return mapParallel(DEFAULT_BLOCK_SIZE, mapper);
+    }
+
+    /**
+     * @param blockSize 每个 rail 一次取的序号个数，越大竞争越少，但各 rail 的序号相差越远
+     */
+    public static <T, R> Function<ParallelFlux<T>, ParallelFlux<R>> mapParallel(
+            int blockSize, IndexedMapper<? super T, ? extends R> mapper) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize > 0 required but it was " + blockSize);
+        }
+        Objects.requireNonNull(mapper, "mapper");
+        return source -> ParallelIndexMap.create(source, blockSize, mapper);
+    }
+}
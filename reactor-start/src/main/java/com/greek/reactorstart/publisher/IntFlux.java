@@ -0,0 +1,305 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * int 元素的 range -> map -> filter 管道，元素在整条管道中不装箱 <br>
+ * 1. Flux.range(0, 10).map(x -&gt; x * x).filter(odd) 即使 SYNC 融合，每个元素在 poll() 时都要装箱成 Integer <br>
+ * 2. IntFlux 本身不是 Publisher，只是描述管道的不可变对象；map/filter 等阶段在订阅时组合成一个游标，
+ * 源头每推送一个元素，依次经过各个阶段 <br>
+ * 3. 只有 sum/reduce/count 等终止操作（整条管道只装箱结果）或 mapToObj/boxed（每个元素装箱一次）才返回 Flux/Mono <br>
+ *
+ * <pre>
+ * Mono&lt;Long&gt; sum = IntFlux.range(0, 10).map(x -&gt; x * x).filter(x -&gt; x % 2 != 0).sum();
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class IntFlux {
+
+    /**
+     * 和 Flux.range 一样，发出 [start, start + count)
+     */
+    public static IntFlux range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        long end = (long) start + count;
+        if (end - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("start + count can not exceed Integer.MAX_VALUE");
+        }
+        return new IntFlux(sink -> new RangeCursor(start, end, sink));
+    }
+
+    /**
+     * 每次订阅都从头读取数组，数组不会被复制
+     */
+    public static IntFlux fromArray(int... values) {
+        Objects.requireNonNull(values, "values");
+        return new IntFlux(sink -> new ArrayCursor(values, sink));
+    }
+
+    /**
+     * 给定最后一个阶段，打开一个新的游标
+     */
+    final Function<IntConsumer, Cursor> source;
+
+    IntFlux(Function<IntConsumer, Cursor> source) {
+        this.source = source;
+    }
+
+    public IntFlux map(IntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntFlux(sink -> source.apply(new MapSink(mapper, sink)));
+    }
+
+    public IntFlux filter(IntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new IntFlux(sink -> source.apply(new FilterSink(predicate, sink)));
+    }
+
+    public LongFlux mapToLong(IntToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongFlux(sink -> source.apply(new MapToLongSink(mapper, sink)));
+    }
+
+    public LongFlux asLongFlux() {
+        return new LongFlux(sink -> source.apply(sink::accept));
+    }
+
+    /**
+     * 装箱步骤：每个元素转换成对象后按下游的请求数发出，mapper 不能返回 null
+     */
+    public <R> Flux<R> mapToObj(IntFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return FluxCursor.<R>fromCursor(out -> source.apply(new MapToObjSink<>(mapper, out)));
+    }
+
+    public Flux<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * 用 long 累加，避免溢出；没有元素时结果为 0
+     */
+    public Mono<Long> sum() {
+        return terminal(Sum::new);
+    }
+
+    /**
+     * 和 Flux.reduce(initial, accumulator) 一样，没有元素时结果为 identity
+     */
+    public Mono<Integer> reduce(int identity, IntBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return terminal(() -> new Reduce(identity, accumulator));
+    }
+
+    public Mono<Long> count() {
+        return terminal(Count::new);
+    }
+
+    <R, A extends MonoCursorReduce.Reduction<R> & IntConsumer> Mono<R> terminal(Supplier<A> supplier) {
+        return MonoCursorReduce.fromReduction(() -> {
+            A a = supplier.get();
+            a.cursor = source.apply(a);
+            return a;
+        });
+    }
+
+    static final class RangeCursor implements Cursor {
+
+        final IntConsumer actual;
+
+        final long end;
+
+        long index;
+
+        RangeCursor(int start, long end, IntConsumer actual) {
+            this.index = start;
+            this.end = end;
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean advance() {
+            long i = index;
+            if (i == end) {
+                return false;
+            }
+            index = i + 1;
+            actual.accept((int) i);
+            return true;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return index == end;
+        }
+    }
+
+    static final class ArrayCursor implements Cursor {
+
+        final int[] array;
+
+        final IntConsumer actual;
+
+        int index;
+
+        ArrayCursor(int[] array, IntConsumer actual) {
+            this.array = array;
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean advance() {
+            int i = index;
+            if (i == array.length) {
+                return false;
+            }
+            index = i + 1;
+            actual.accept(array[i]);
+            return true;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return index == array.length;
+        }
+    }
+
+    static final class MapSink implements IntConsumer {
+
+        final IntUnaryOperator mapper;
+
+        final IntConsumer actual;
+
+        MapSink(IntUnaryOperator mapper, IntConsumer actual) {
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(int v) {
+            actual.accept(mapper.applyAsInt(v));
+        }
+    }
+
+    static final class FilterSink implements IntConsumer {
+
+        final IntPredicate predicate;
+
+        final IntConsumer actual;
+
+        FilterSink(IntPredicate predicate, IntConsumer actual) {
+            this.predicate = predicate;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(int v) {
+            if (predicate.test(v)) {
+                actual.accept(v);
+            }
+        }
+    }
+
+    static final class MapToLongSink implements IntConsumer {
+
+        final IntToLongFunction mapper;
+
+        final LongConsumer actual;
+
+        MapToLongSink(IntToLongFunction mapper, LongConsumer actual) {
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(int v) {
+            actual.accept(mapper.applyAsLong(v));
+        }
+    }
+
+    static final class MapToObjSink<R> implements IntConsumer {
+
+        final IntFunction<? extends R> mapper;
+
+        final Consumer<R> actual;
+
+        MapToObjSink(IntFunction<? extends R> mapper, Consumer<R> actual) {
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(int v) {
+            actual.accept(mapper.apply(v));
+        }
+    }
+
+    static final class Sum extends MonoCursorReduce.Reduction<Long> implements IntConsumer {
+
+        long sum;
+
+        @Override
+        public void accept(int v) {
+            sum += v;
+        }
+
+        @Override
+        Long result() {
+            return sum;
+        }
+    }
+
+    static final class Reduce extends MonoCursorReduce.Reduction<Integer> implements IntConsumer {
+
+        final IntBinaryOperator accumulator;
+
+        int value;
+
+        Reduce(int identity, IntBinaryOperator accumulator) {
+            this.value = identity;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        public void accept(int v) {
+            value = accumulator.applyAsInt(value, v);
+        }
+
+        @Override
+        Integer result() {
+            return value;
+        }
+    }
+
+    static final class Count extends MonoCursorReduce.Reduction<Long> implements IntConsumer {
+
+        long count;
+
+        @Override
+        public void accept(int v) {
+            count++;
+        }
+
+        @Override
+        Long result() {
+            return count;
+        }
+    }
+}
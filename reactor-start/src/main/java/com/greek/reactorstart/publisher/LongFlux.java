@@ -0,0 +1,255 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * long 元素的管道，用法和 {@link IntFlux} 一样，元素在整条管道中不装箱
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class LongFlux {
+
+    /**
+     * 发出 [start, start + count)
+     */
+    public static LongFlux range(long start, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (count > 0 && start > Long.MAX_VALUE - (count - 1)) {
+            throw new IllegalArgumentException("start + count can not exceed Long.MAX_VALUE");
+        }
+        return new LongFlux(sink -> new RangeCursor(start, count, sink));
+    }
+
+    /**
+     * 每次订阅都从头读取数组，数组不会被复制
+     */
+    public static LongFlux fromArray(long... values) {
+        Objects.requireNonNull(values, "values");
+        return new LongFlux(sink -> new ArrayCursor(values, sink));
+    }
+
+    /**
+     * 给定最后一个阶段，打开一个新的游标
+     */
+    final Function<LongConsumer, Cursor> source;
+
+    LongFlux(Function<LongConsumer, Cursor> source) {
+        this.source = source;
+    }
+
+    public LongFlux map(LongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongFlux(sink -> source.apply(new MapSink(mapper, sink)));
+    }
+
+    public LongFlux filter(LongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new LongFlux(sink -> source.apply(new FilterSink(predicate, sink)));
+    }
+
+    /**
+     * 装箱步骤：每个元素转换成对象后按下游的请求数发出，mapper 不能返回 null
+     */
+    public <R> Flux<R> mapToObj(LongFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return FluxCursor.<R>fromCursor(out -> source.apply(new MapToObjSink<>(mapper, out)));
+    }
+
+    public Flux<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * 没有元素时结果为 0，溢出时和 long 加法一样回绕
+     */
+    public Mono<Long> sum() {
+        return terminal(() -> new Reduce(0L, Long::sum));
+    }
+
+    /**
+     * 和 Flux.reduce(initial, accumulator) 一样，没有元素时结果为 identity
+     */
+    public Mono<Long> reduce(long identity, LongBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return terminal(() -> new Reduce(identity, accumulator));
+    }
+
+    public Mono<Long> count() {
+        return terminal(Count::new);
+    }
+
+    <R, A extends MonoCursorReduce.Reduction<R> & LongConsumer> Mono<R> terminal(Supplier<A> supplier) {
+        return MonoCursorReduce.fromReduction(() -> {
+            A a = supplier.get();
+            a.cursor = source.apply(a);
+            return a;
+        });
+    }
+
+    static final class RangeCursor implements Cursor {
+
+        final LongConsumer actual;
+
+        long next;
+
+        long remaining;
+
+        RangeCursor(long start, long count, LongConsumer actual) {
+            this.next = start;
+            this.remaining = count;
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean advance() {
+            if (remaining == 0L) {
+                return false;
+            }
+            remaining--;
+            long v = next;
+            // 最后一个元素是 Long.MAX_VALUE 时加一会溢出，但之后不会再读取 next
+            next = v + 1;
+            actual.accept(v);
+            return true;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return remaining == 0L;
+        }
+    }
+
+    static final class ArrayCursor implements Cursor {
+
+        final long[] array;
+
+        final LongConsumer actual;
+
+        int index;
+
+        ArrayCursor(long[] array, LongConsumer actual) {
+            this.array = array;
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean advance() {
+            int i = index;
+            if (i == array.length) {
+                return false;
+            }
+            index = i + 1;
+            actual.accept(array[i]);
+            return true;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return index == array.length;
+        }
+    }
+
+    static final class MapSink implements LongConsumer {
+
+        final LongUnaryOperator mapper;
+
+        final LongConsumer actual;
+
+        MapSink(LongUnaryOperator mapper, LongConsumer actual) {
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(long v) {
+            actual.accept(mapper.applyAsLong(v));
+        }
+    }
+
+    static final class FilterSink implements LongConsumer {
+
+        final LongPredicate predicate;
+
+        final LongConsumer actual;
+
+        FilterSink(LongPredicate predicate, LongConsumer actual) {
+            this.predicate = predicate;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(long v) {
+            if (predicate.test(v)) {
+                actual.accept(v);
+            }
+        }
+    }
+
+    static final class MapToObjSink<R> implements LongConsumer {
+
+        final LongFunction<? extends R> mapper;
+
+        final Consumer<R> actual;
+
+        MapToObjSink(LongFunction<? extends R> mapper, Consumer<R> actual) {
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public void accept(long v) {
+            actual.accept(mapper.apply(v));
+        }
+    }
+
+    static final class Reduce extends MonoCursorReduce.Reduction<Long> implements LongConsumer {
+
+        final LongBinaryOperator accumulator;
+
+        long value;
+
+        Reduce(long identity, LongBinaryOperator accumulator) {
+            this.value = identity;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        public void accept(long v) {
+            value = accumulator.applyAsLong(value, v);
+        }
+
+        @Override
+        Long result() {
+            return value;
+        }
+    }
+
+    static final class Count extends MonoCursorReduce.Reduction<Long> implements LongConsumer {
+
+        long count;
+
+        @Override
+        public void accept(long v) {
+            count++;
+        }
+
+        @Override
+        Long result() {
+            return count;
+        }
+    }
+}
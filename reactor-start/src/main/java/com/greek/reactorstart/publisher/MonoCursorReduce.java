@@ -0,0 +1,72 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+import java.util.function.Supplier;
+
+/**
+ * 基本类型管道的终止操作（sum/reduce/count）：订阅时一次推完整个游标，只在最后装箱一次 <br>
+ * 和 MonoCallable 一样在订阅线程上计算，结果由 Operators.MonoSubscriber 按请求发出
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class MonoCursorReduce<R> extends Mono<R> {
+
+    static <R> Mono<R> fromReduction(Supplier<? extends Reduction<R>> reduction) {
+        return onAssembly(new MonoCursorReduce<>(reduction));
+    }
+
+    final Supplier<? extends Reduction<R>> reduction;
+
+    MonoCursorReduce(Supplier<? extends Reduction<R>> reduction) {
+        this.reduction = reduction;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R> actual) {
+        Operators.MonoSubscriber<R, R> s = new Operators.MonoSubscriber<>(actual);
+        actual.onSubscribe(s);
+        R result;
+        try {
+            Reduction<R> r = reduction.get();
+            Cursor c = r.cursor;
+            while (c.advance()) {
+                if (s.isCancelled()) {
+                    return;
+                }
+            }
+            result = r.result();
+        }
+        catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            actual.onError(Operators.onOperatorError(ex, actual.currentContext()));
+            return;
+        }
+        if (s.isCancelled()) {
+            return;
+        }
+        if (result == null) {
+            actual.onComplete();
+        }
+        else {
+            s.complete(result);
+        }
+    }
+
+    /**
+     * 一次订阅的累加状态，作为游标最后的消费者
+     */
+    abstract static class Reduction<R> {
+
+        Cursor cursor;
+
+        /**
+         * @return 累加结果，为 null 时发出空的 Mono
+         */
+        abstract R result();
+    }
+}
@@ -0,0 +1,69 @@
+package com.greek.reactorstart.publisher;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.ParallelFlux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Indexing#mapParallel} 的实现：每个 rail 一个 {@link FluxIndexMap.IndexMapSubscriber}，
+ * 每次订阅共用一个从 0 开始的块计数器 <br>
+ * 源头的各个 rail 通过 {@link ParallelFlux#groups()} 订阅，rail 和下游的对应关系不变
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class ParallelIndexMap<T, R> extends ParallelFlux<R> implements Scannable {
+
+    static <T, R> ParallelFlux<R> create(ParallelFlux<? extends T> source,
+                                         int blockSize,
+                                         IndexedMapper<? super T, ? extends R> mapper) {
+        return onAssembly(new ParallelIndexMap<>(source, blockSize, mapper));
+    }
+
+    final ParallelFlux<? extends T> source;
+
+    final int blockSize;
+
+    final IndexedMapper<? super T, ? extends R> mapper;
+
+    ParallelIndexMap(ParallelFlux<? extends T> source, int blockSize, IndexedMapper<? super T, ? extends R> mapper) {
+        this.source = source;
+        this.blockSize = blockSize;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public int parallelism() {
+        return source.parallelism();
+    }
+
+    @Override
+    public int getPrefetch() {
+        return source.getPrefetch();
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super R>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+        AtomicLong blocks = new AtomicLong();
+        // subscribe(CoreSubscriber[]) 是 protected，通过 groups() 订阅源头，第 i 个 group 就是第 i 个 rail
+        source.groups()
+                .subscribe(rail -> rail.subscribe(
+                        new FluxIndexMap.IndexMapSubscriber<>(subscribers[rail.key()], mapper, blocks, blockSize)));
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) {
+            return source;
+        }
+        if (key == Attr.PREFETCH) {
+            return getPrefetch();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.greek.reactorstart.publisher;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.util.concurrent.Queues;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 保持源头顺序的并发 flatMap 的重排窗口配置，不可变对象，每个方法返回新的配置 <br>
+ * 1. flatMap 并发订阅内部 Publisher，结果交错；需要源头顺序时只能用 concatMap（串行）或 flatMapSequential
+ * （每个内部 Publisher 单独预取，后面的内部 Publisher 先完成时结果全部缓存） <br>
+ * 2. 这里并发订阅最多 concurrency 个内部 Publisher，只有最早的一个（head）直接发给下游，
+ * 其他的结果放在各自的队列中等待；所有队列共用一个按元素个数和/或估算字节数限制的窗口 <br>
+ * 3. 窗口满了之后不再向后面的内部 Publisher 请求，也不再向源头请求新元素（不订阅新的内部 Publisher），
+ * head 不受窗口限制，保证一定能继续，所以窗口最多超出一个 prefetch <br>
+ *
+ * <pre>
+ * flux.transform(ReorderWindow.&lt;String&gt;maxElements(1024)
+ *         .andMaxBytes(16 * 1024 * 1024, s -&gt; 40 + 2L * s.length())
+ *         .flatMap(id -&gt; load(id), 32))
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class ReorderWindow<R> {
+
+    /**
+     * 按元素个数限制窗口
+     */
+    public static <R> ReorderWindow<R> maxElements(int maxElements) {
+        return new ReorderWindow<R>(Long.MAX_VALUE, Long.MAX_VALUE, null, Queues.XS_BUFFER_SIZE)
+                .andMaxElements(maxElements);
+    }
+
+    /**
+     * 按估算的字节数限制窗口
+     *
+     * @param maxBytes      最大字节数
+     * @param sizeEstimator 估算一个元素占用的字节数，同一个元素必须返回相同的值
+     */
+    public static <R> ReorderWindow<R> maxBytes(long maxBytes, ToLongFunction<? super R> sizeEstimator) {
+        return new ReorderWindow<R>(Long.MAX_VALUE, Long.MAX_VALUE, null, Queues.XS_BUFFER_SIZE)
+                .andMaxBytes(maxBytes, sizeEstimator);
+    }
+
+    final long maxElements;
+
+    final long maxBytes;
+
+    final ToLongFunction<? super R> sizeEstimator;
+
+    final int prefetch;
+
+    ReorderWindow(long maxElements, long maxBytes, ToLongFunction<? super R> sizeEstimator, int prefetch) {
+        this.maxElements = maxElements;
+        this.maxBytes = maxBytes;
+        this.sizeEstimator = sizeEstimator;
+        this.prefetch = prefetch;
+    }
+
+    public ReorderWindow<R> andMaxElements(int maxElements) {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements > 0 required but it was " + maxElements);
+        }
+        return new ReorderWindow<>(maxElements, maxBytes, sizeEstimator, prefetch);
+    }
+
+    public ReorderWindow<R> andMaxBytes(long maxBytes, ToLongFunction<? super R> sizeEstimator) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes > 0 required but it was " + maxBytes);
+        }
+        Objects.requireNonNull(sizeEstimator, "sizeEstimator");
+        return new ReorderWindow<>(maxElements, maxBytes, sizeEstimator, prefetch);
+    }
+
+    /**
+     * 每次向一个内部 Publisher 请求的个数，默认 Queues.XS_BUFFER_SIZE(32)
+     */
+    public ReorderWindow<R> prefetch(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return new ReorderWindow<>(maxElements, maxBytes, sizeEstimator, prefetch);
+    }
+
+    /**
+     * 和 flatMap(mapper, concurrency) 一样并发订阅，但按源头的顺序发出结果，用 transform 使用；
+     * 任何一个内部 Publisher 出错时立即取消其他的并发出错误
+     */
+    public <T> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                                 int concurrency) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency > 0 required but it was " + concurrency);
+        }
+        return source -> FluxFlatMapOrdered.create(source, mapper, concurrency, this);
+    }
+
+    @Override
+    public String toString() {
+        return "ReorderWindow{" +
+                "maxElements=" + (maxElements == Long.MAX_VALUE ? "unbounded" : maxElements) +
+                ", maxBytes=" + (maxBytes == Long.MAX_VALUE ? "unbounded" : maxBytes) +
+                ", prefetch=" + prefetch +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.greek.reactorstart.publisher;
+
+/**
+ * 不填充调用栈、不记录 suppressed 的异常，用于大量出现且不需要定位代码位置的预期错误（例如数据校验失败）<br>
+ * 创建时不调用 fillInStackTrace，比普通异常便宜一个数量级；配合 {@link ErrorContinue} 使用时错误信号的开销只剩一次对象分配
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class StacklessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
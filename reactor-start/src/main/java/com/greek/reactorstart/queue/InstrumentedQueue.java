@@ -0,0 +1,161 @@
+package com.greek.reactorstart.queue;
+
+import reactor.core.Scannable;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 记录入队、出队、溢出次数和最大深度的队列装饰器 <br>
+ * 1. 计数器只由一个线程修改（单写者，lazySet），没有 CAS 和锁，可以在生产环境一直开着 <br>
+ * 2. 入队计数、溢出次数和最大深度由生产者修改，出队计数由消费者修改，符合 UnicastProcessor 的使用方式 <br>
+ * 3. 通过 Scannable 读取：Attr.BUFFERED、Attr.CAPACITY 和 {@link QueueAttr} 中的属性 <br>
+ *
+ * 和被装饰的队列一样，offer 只能由一个线程调用，poll/clear 只能由另一个线程调用
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class InstrumentedQueue<E> extends AbstractQueue<E> implements Scannable {
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<InstrumentedQueue> ENQUEUED =
+            AtomicLongFieldUpdater.newUpdater(InstrumentedQueue.class, "enqueued");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<InstrumentedQueue> DEQUEUED =
+            AtomicLongFieldUpdater.newUpdater(InstrumentedQueue.class, "dequeued");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<InstrumentedQueue> HIGH_WATER_MARK =
+            AtomicLongFieldUpdater.newUpdater(InstrumentedQueue.class, "highWaterMark");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<InstrumentedQueue> OVERFLOWS =
+            AtomicLongFieldUpdater.newUpdater(InstrumentedQueue.class, "overflows");
+
+    final Queue<E> delegate;
+
+    final int capacity;
+
+    volatile long enqueued;
+
+    volatile long dequeued;
+
+    volatile long highWaterMark;
+
+    volatile long overflows;
+
+    /**
+     * @param capacity 被装饰的队列的容量，用于 Attr.CAPACITY，无界队列传 Integer.MAX_VALUE
+     */
+    public InstrumentedQueue(Queue<E> delegate, int capacity) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (delegate.offer(e)) {
+            long n = enqueued + 1;
+            ENQUEUED.lazySet(this, n);
+            long depth = n - dequeued;
+            if (depth > highWaterMark) {
+                HIGH_WATER_MARK.lazySet(this, depth);
+            }
+            return true;
+        }
+        OVERFLOWS.lazySet(this, overflows + 1);
+        return false;
+    }
+
+    @Override
+    public E poll() {
+        E v = delegate.poll();
+        if (v != null) {
+            DEQUEUED.lazySet(this, dequeued + 1);
+        }
+        return v;
+    }
+
+    @Override
+    public E peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // 逐个出队，保持出队计数准确
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return delegate.iterator();
+    }
+
+    /**
+     * @return 当前深度，由计数器计算，不访问被装饰的队列
+     */
+    public long depth() {
+        long d = dequeued;
+        return Math.max(0L, enqueued - d);
+    }
+
+    public long enqueued() {
+        return enqueued;
+    }
+
+    public long dequeued() {
+        return dequeued;
+    }
+
+    public long highWaterMark() {
+        return highWaterMark;
+    }
+
+    public long overflows() {
+        return overflows;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.BUFFERED) {
+            return (int) Math.min(depth(), Integer.MAX_VALUE);
+        }
+        if (key == Attr.CAPACITY) {
+            return capacity;
+        }
+        if (key == QueueAttr.ENQUEUED) {
+            return enqueued;
+        }
+        if (key == QueueAttr.DEQUEUED) {
+            return dequeued;
+        }
+        if (key == QueueAttr.HIGH_WATER_MARK) {
+            return highWaterMark;
+        }
+        if (key == QueueAttr.OVERFLOWS) {
+            return overflows;
+        }
+        return null;
+    }
+}
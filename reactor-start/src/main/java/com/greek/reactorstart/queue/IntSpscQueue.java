@@ -0,0 +1,139 @@
+package com.greek.reactorstart.queue;
+
+import reactor.util.concurrent.Queues;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 基于 int[] 的单生产者单消费者有界队列 <br>
+ * 1. 元素以 int 保存，队列中不保留 Integer 对象，入队和出队时才装箱拆箱；
+ *    offer 传入的对象拆箱后丢弃，poll 每次返回新装箱的对象（缓存范围外），按元素计分配次数是对象数组队列的两倍 <br>
+ * 2. 生产者和消费者各自只修改自己的下标（lazySet），不加锁 <br>
+ * 3. 队列满时 offer 返回 false，UnicastProcessor 据此调用 onOverflow <br>
+ *
+ * offer 只能由一个线程调用，poll/peek/clear 只能由另一个线程调用；不支持 iterator
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class IntSpscQueue extends AbstractQueue<Integer> {
+
+    static final AtomicLongFieldUpdater<IntSpscQueue> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(IntSpscQueue.class, "producerIndex");
+
+    static final AtomicLongFieldUpdater<IntSpscQueue> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(IntSpscQueue.class, "consumerIndex");
+
+    final int[] buffer;
+
+    final int mask;
+
+    volatile long producerIndex;
+
+    /**
+     * 生产者缓存的消费者下标，只有看起来满了才重新读取 consumerIndex
+     */
+    long consumerLimit;
+
+    volatile long consumerIndex;
+
+    /**
+     * 消费者缓存的生产者下标，只有看起来空了才重新读取 producerIndex
+     */
+    long producerLimit;
+
+    /**
+     * @param capacity 容量，会向上取整为2的幂
+     */
+    public IntSpscQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        int c = Queues.ceilingNextPowerOfTwo(capacity);
+        this.buffer = new int[c];
+        this.mask = c - 1;
+    }
+
+    @Override
+    public boolean offer(Integer e) {
+        Objects.requireNonNull(e, "e");
+        return offerInt(e);
+    }
+
+    /**
+     * 不装箱的 offer
+     */
+    public boolean offerInt(int e) {
+        long p = producerIndex;
+        if (p - consumerLimit > mask) {
+            consumerLimit = consumerIndex;
+            if (p - consumerLimit > mask) {
+                return false;
+            }
+        }
+        buffer[(int) p & mask] = e;
+        PRODUCER_INDEX.lazySet(this, p + 1);
+        return true;
+    }
+
+    @Override
+    public Integer poll() {
+        long c = consumerIndex;
+        if (c >= producerLimit) {
+            producerLimit = producerIndex;
+            if (c >= producerLimit) {
+                return null;
+            }
+        }
+        int v = buffer[(int) c & mask];
+        CONSUMER_INDEX.lazySet(this, c + 1);
+        return v;
+    }
+
+    @Override
+    public Integer peek() {
+        long c = consumerIndex;
+        if (c >= producerLimit) {
+            producerLimit = producerIndex;
+            if (c >= producerLimit) {
+                return null;
+            }
+        }
+        return buffer[(int) c & mask];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return producerIndex == consumerIndex;
+    }
+
+    @Override
+    public int size() {
+        long c = consumerIndex;
+        for (;;) {
+            long p = producerIndex;
+            long c2 = consumerIndex;
+            if (c == c2) {
+                return (int) (p - c);
+            }
+            c = c2;
+        }
+    }
+
+    @Override
+    public void clear() {
+        CONSUMER_INDEX.lazySet(this, producerIndex);
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
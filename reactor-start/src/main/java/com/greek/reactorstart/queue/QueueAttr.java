@@ -0,0 +1,39 @@
+package com.greek.reactorstart.queue;
+
+import reactor.core.Scannable;
+
+/**
+ * {@link InstrumentedQueue} 额外提供的 Scannable 属性，队列深度和容量使用 Attr.BUFFERED / Attr.CAPACITY
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class QueueAttr {
+
+    private QueueAttr() {
+    }
+
+    /**
+     * 入队成功的元素总数
+     */
+    public static final Scannable.Attr<Long> ENQUEUED = new Scannable.Attr<Long>(0L) {
+    };
+
+    /**
+     * 出队的元素总数（包括 clear 清掉的元素）
+     */
+    public static final Scannable.Attr<Long> DEQUEUED = new Scannable.Attr<Long>(0L) {
+    };
+
+    /**
+     * 队列深度出现过的最大值
+     */
+    public static final Scannable.Attr<Long> HIGH_WATER_MARK = new Scannable.Attr<Long>(0L) {
+    };
+
+    /**
+     * 队列满了 offer 失败的次数
+     */
+    public static final Scannable.Attr<Long> OVERFLOWS = new Scannable.Attr<Long>(0L) {
+    };
+}
@@ -0,0 +1,664 @@
+package com.greek.reactorstart.scheduler;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于时间轮（hashed timing wheel）的定时调度器 <br>
+ * 1. ScheduledThreadPoolExecutor 用堆保存定时任务，插入和取消是 O(log n)，几十万个同时存在的 timeout 时开销明显 <br>
+ * 2. 这里的定时任务先放入一个无锁队列，由时间轮线程每个 tick 转移到对应的槽（双向链表），插入和取消都是 O(1) <br>
+ * 3. 到期的任务交给 delegate 执行（默认 Schedulers.parallel()），时间轮线程只负责计时 <br>
+ * 4. 精度是一个 tick，任务最多晚一个 tick 执行 <br>
+ *
+ * 用法：delayElements(duration, scheduler)、timeout(duration, scheduler)、Mono.delay(duration, scheduler) <br>
+ * 释放时停止时间轮线程并丢弃没到期的任务，不会释放 delegate
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class HashedWheelScheduler implements Scheduler, Scannable {
+
+    static final Logger log = Loggers.getLogger(HashedWheelScheduler.class);
+
+    /**
+     * 每个 tick 最多从队列转移到时间轮的任务数，避免一次提交大量任务时时间轮线程长时间跟不上 tick
+     */
+    static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    /**
+     * tick 为 10ms，512 个槽，到期的任务在 Schedulers.parallel() 上执行
+     */
+    public static HashedWheelScheduler create(String name) {
+        return create(name, Duration.ofMillis(10), 512, Schedulers.parallel());
+    }
+
+    /**
+     * @param tick      时间轮转动一格的时间，也是定时的精度
+     * @param wheelSize 槽的个数，会向上取整为2的幂
+     * @param delegate  执行到期的任务和不带延迟的任务
+     */
+    public static HashedWheelScheduler create(String name, Duration tick, int wheelSize, Scheduler delegate) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(tick, "tick");
+        Objects.requireNonNull(delegate, "delegate");
+        if (tick.toNanos() < TimeUnit.MILLISECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("tick >= 1ms required but it was " + tick);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize in (0, 2^30] required but it was " + wheelSize);
+        }
+        return new HashedWheelScheduler(name, tick.toNanos(), Queues.ceilingNextPowerOfTwo(wheelSize), delegate);
+    }
+
+    final String name;
+
+    final long tickNanos;
+
+    final Bucket[] wheel;
+
+    final int mask;
+
+    final Scheduler delegate;
+
+    final long startTime;
+
+    /**
+     * 新提交的任务和被取消的任务，只由时间轮线程消费
+     */
+    final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    final LongAdder pendingCount = new LongAdder();
+
+    final Thread thread;
+
+    volatile boolean disposed;
+
+    HashedWheelScheduler(String name, long tickNanos, int wheelSize, Scheduler delegate) {
+        this.name = name;
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.delegate = delegate;
+        this.startTime = System.nanoTime();
+        this.thread = new Thread(this::runWheel, name + "-wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        return delegate.schedule(task);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return schedule(task);
+        }
+        Timeout t = new Timeout(this, task, null);
+        arm(t, deadline(unit.toNanos(delay)));
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Periodic p = new Periodic(this, task, null, unit.toNanos(period));
+        p.start(deadline(unit.toNanos(Math.max(0L, initialDelay))));
+        return p;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new WheelWorker(this, delegate.createWorker());
+    }
+
+    /**
+     * @return 相对 startTime 的到期时间，溢出时为 Long.MAX_VALUE，相当于永远不会到期
+     */
+    long deadline(long delayNanos) {
+        return saturatedAdd(System.nanoTime() - startTime, delayNanos);
+    }
+
+    static long saturatedAdd(long time, long delta) {
+        long r = time + delta;
+        if (delta > 0 && r < 0) {
+            return Long.MAX_VALUE;
+        }
+        return r;
+    }
+
+    /**
+     * @param deadline 相对 startTime 的到期时间
+     */
+    void arm(Timeout t, long deadline) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        t.deadline = deadline;
+        pendingCount.increment();
+        pending.offer(t);
+    }
+
+    /**
+     * @return 还没到期的定时任务数
+     */
+    public long pendingTimers() {
+        return pendingCount.sum();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) {
+            return disposed;
+        }
+        if (key == Attr.NAME) {
+            return toString();
+        }
+        if (key == Attr.CAPACITY) {
+            return wheel.length;
+        }
+        if (key == Attr.BUFFERED) {
+            return (int) Math.min(pendingTimers(), Integer.MAX_VALUE);
+        }
+        if (key == Attr.PARENT) {
+            return delegate;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "hashedWheel(\"" + name + "\"," + TimeUnit.NANOSECONDS.toMillis(tickNanos) + "ms," + wheel.length + ")";
+    }
+
+    void runWheel() {
+        long tick = 0L;
+        while (!disposed) {
+            long deadline = waitForNextTick(tick);
+            if (disposed) {
+                break;
+            }
+            removeCancelled();
+            transferPending(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+        // 释放之后丢弃所有还没到期的任务
+        pending.clear();
+        cancelled.clear();
+        for (Bucket b : wheel) {
+            b.head = null;
+            b.tail = null;
+        }
+    }
+
+    /**
+     * 等到第 tick 格结束
+     *
+     * @return 相对 startTime 的当前时间
+     */
+    long waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long now = System.nanoTime() - startTime;
+            long sleep = deadline - now;
+            if (sleep <= 0 || disposed) {
+                return now;
+            }
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    void removeCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            Bucket b = t.bucket;
+            if (b != null) {
+                b.remove(t);
+            }
+        }
+    }
+
+    void transferPending(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout t = pending.poll();
+            if (t == null) {
+                return;
+            }
+            if (t.state != Timeout.INIT) {
+                continue;
+            }
+            long calculated = t.deadline / tickNanos;
+            t.remainingRounds = (calculated - tick) / wheel.length;
+            // 已经过期的任务放到当前的槽，这个 tick 就会执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(t);
+        }
+    }
+
+    /**
+     * 时间轮的一个槽，只由时间轮线程访问
+     */
+    static final class Bucket {
+
+        Timeout head;
+
+        Timeout tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            if (head == null) {
+                head = tail = t;
+            }
+            else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.remainingRounds <= 0) {
+                    remove(t);
+                    t.expire();
+                }
+                else if (t.state == Timeout.CANCELLED) {
+                    remove(t);
+                }
+                else {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+
+        void remove(Timeout t) {
+            if (t.bucket != this) {
+                return;
+            }
+            Timeout next = t.next;
+            if (t.prev != null) {
+                t.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = t.prev;
+            }
+            if (t == head) {
+                head = next;
+            }
+            if (t == tail) {
+                tail = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+    }
+
+    /**
+     * 一个定时任务，到期后交给 delegate（通过 Worker 提交时交给 Worker 对应的 delegate Worker）执行
+     */
+    static final class Timeout implements Disposable {
+
+        static final int INIT = 0;
+
+        static final int CANCELLED = 1;
+
+        static final int EXPIRED = 2;
+
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        static final AtomicReferenceFieldUpdater<Timeout, Disposable> DISPATCHED =
+                AtomicReferenceFieldUpdater.newUpdater(Timeout.class, Disposable.class, "dispatched");
+
+        final HashedWheelScheduler parent;
+
+        final Runnable task;
+
+        final WheelWorker worker;
+
+        /**
+         * 相对 startTime 的到期时间，以下字段只由时间轮线程访问
+         */
+        long deadline;
+
+        long remainingRounds;
+
+        Bucket bucket;
+
+        Timeout prev;
+
+        Timeout next;
+
+        /**
+         * 通过 Worker 提交时在 Worker 的链表中的前后节点，由 Worker 的锁保护
+         */
+        Timeout workerPrev;
+
+        Timeout workerNext;
+
+        volatile int state;
+
+        /**
+         * 到期后交给 delegate 返回的 Disposable，取消时一起取消
+         */
+        volatile Disposable dispatched;
+
+        Timeout(HashedWheelScheduler parent, Runnable task, WheelWorker worker) {
+            this.parent = parent;
+            this.task = task;
+            this.worker = worker;
+        }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, INIT, EXPIRED)) {
+                return;
+            }
+            parent.pendingCount.decrement();
+            try {
+                Disposable d;
+                if (worker != null) {
+                    worker.remove(this);
+                    d = worker.delegate.schedule(task);
+                }
+                else {
+                    d = parent.delegate.schedule(task);
+                }
+                if (!DISPATCHED.compareAndSet(this, null, d)) {
+                    d.dispose();
+                }
+            }
+            catch (Throwable ex) {
+                Exceptions.throwIfJvmFatal(ex);
+                log.warn("Failed to dispatch an expired timer of " + parent, ex);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return state != INIT;
+        }
+
+        @Override
+        public void dispose() {
+            if (STATE.compareAndSet(this, INIT, CANCELLED)) {
+                parent.pendingCount.decrement();
+                parent.cancelled.offer(this);
+                if (worker != null) {
+                    worker.remove(this);
+                }
+                return;
+            }
+            Disposable d = DISPATCHED.getAndSet(this, Disposables.disposed());
+            if (d != null) {
+                d.dispose();
+            }
+        }
+    }
+
+    /**
+     * 周期任务：每次执行完之后按固定频率重新放入时间轮，同一个周期任务不会并发执行
+     */
+    static final class Periodic implements Runnable, Disposable {
+
+        final HashedWheelScheduler parent;
+
+        final Runnable task;
+
+        final WheelWorker worker;
+
+        final long periodNanos;
+
+        /**
+         * 下一次执行的时间，相对 startTime
+         */
+        long nextDeadline;
+
+        volatile Timeout current;
+
+        volatile boolean cancelled;
+
+        Periodic(HashedWheelScheduler parent, Runnable task, WheelWorker worker, long periodNanos) {
+            this.parent = parent;
+            this.task = task;
+            this.worker = worker;
+            this.periodNanos = periodNanos;
+        }
+
+        void start(long firstDeadline) {
+            nextDeadline = firstDeadline;
+            rearm();
+        }
+
+        void rearm() {
+            if (cancelled) {
+                return;
+            }
+            Timeout t = new Timeout(parent, this, worker);
+            if (worker != null && !worker.add(t)) {
+                return;
+            }
+            current = t;
+            parent.arm(t, nextDeadline);
+            if (cancelled) {
+                t.dispose();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                task.run();
+            }
+            catch (Throwable ex) {
+                Exceptions.throwIfJvmFatal(ex);
+                log.error("Periodic task failed on " + parent, ex);
+            }
+            nextDeadline = saturatedAdd(nextDeadline, periodNanos);
+            if (!parent.disposed) {
+                rearm();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        @Override
+        public void dispose() {
+            cancelled = true;
+            Timeout t = current;
+            if (t != null) {
+                t.dispose();
+            }
+        }
+    }
+
+    /**
+     * 不带延迟的任务直接交给 delegate Worker，带延迟的任务到期后交给同一个 delegate Worker，保证顺序
+     */
+    static final class WheelWorker implements Worker, Scannable {
+
+        final HashedWheelScheduler parent;
+
+        final Worker delegate;
+
+        /**
+         * 还没到期的定时任务，通过 Timeout.workerPrev/workerNext 串成双向链表，加入和移除都是 O(1)，
+         * 释放 Worker 时一起取消；以下字段由 synchronized (this) 保护
+         */
+        Timeout head;
+
+        int size;
+
+        volatile boolean disposed;
+
+        WheelWorker(HashedWheelScheduler parent, Worker delegate) {
+            this.parent = parent;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            return delegate.schedule(task);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            if (delay <= 0) {
+                return schedule(task);
+            }
+            Timeout t = new Timeout(parent, task, this);
+            if (!add(t)) {
+                throw Exceptions.failWithRejected();
+            }
+            parent.arm(t, parent.deadline(unit.toNanos(delay)));
+            return t;
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            Periodic p = new Periodic(parent, task, this, unit.toNanos(period));
+            p.start(parent.deadline(unit.toNanos(Math.max(0L, initialDelay))));
+            return p;
+        }
+
+        /**
+         * @return false 表示 Worker 已经释放
+         */
+        synchronized boolean add(Timeout t) {
+            if (disposed) {
+                return false;
+            }
+            Timeout h = head;
+            t.workerNext = h;
+            if (h != null) {
+                h.workerPrev = t;
+            }
+            head = t;
+            size++;
+            return true;
+        }
+
+        /**
+         * 到期或取消时移除；Worker 释放之后链表不再变化，由 dispose 统一处理
+         */
+        synchronized void remove(Timeout t) {
+            if (disposed || (t.workerPrev == null && head != t)) {
+                return;
+            }
+            Timeout prev = t.workerPrev;
+            Timeout next = t.workerNext;
+            if (prev != null) {
+                prev.workerNext = next;
+            }
+            else {
+                head = next;
+            }
+            if (next != null) {
+                next.workerPrev = prev;
+            }
+            t.workerPrev = null;
+            t.workerNext = null;
+            size--;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public void dispose() {
+            Timeout t;
+            synchronized (this) {
+                if (disposed) {
+                    return;
+                }
+                disposed = true;
+                t = head;
+                head = null;
+                size = 0;
+            }
+            while (t != null) {
+                Timeout next = t.workerNext;
+                t.workerPrev = null;
+                t.workerNext = null;
+                t.dispose();
+                t = next;
+            }
+            delegate.dispose();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.TERMINATED || key == Attr.CANCELLED) {
+                return isDisposed();
+            }
+            if (key == Attr.NAME) {
+                return parent.toString() + ".worker";
+            }
+            if (key == Attr.PARENT) {
+                return parent;
+            }
+            if (key == Attr.BUFFERED) {
+                synchronized (this) {
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.greek.reactorstart.scheduler;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录任务排队时间、执行时间和线程切换的调度器装饰 <br>
+ * 1. 调试 SchedulerTest#testExecEnv 时需要打开每个阶段的 log() 才能看到每一步在哪个线程上执行，
+ * 这里把 publishOn/subscribeOn 用到的调度器按名称包装一次，每个任务的耗时记录到 {@link SchedulerStats} <br>
+ * 2. 直接提交的任务和 Worker 提交的任务都会记录；延迟任务的排队时间从到期时间开始算，周期任务按固定频率计算每次的到期时间 <br>
+ * 3. 每个任务多两次 System.nanoTime() 和三次 Recorder 写入，不加锁 <br>
+ *
+ * 用法：
+ * <pre>
+ * InstrumentedScheduler parallel = InstrumentedScheduler.wrap("Parallel", Schedulers.newParallel("Parallel"));
+ * flux.publishOn(parallel)...;
+ * System.out.println(parallel.stats().snapshot());
+ * </pre>
+ * 释放时同时释放被包装的调度器
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class InstrumentedScheduler implements Scheduler, Scannable {
+
+    public static InstrumentedScheduler wrap(String name, Scheduler delegate) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(delegate, "delegate");
+        return new InstrumentedScheduler(delegate, new SchedulerStats(name));
+    }
+
+    final Scheduler delegate;
+
+    final SchedulerStats stats;
+
+    InstrumentedScheduler(Scheduler delegate, SchedulerStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    public SchedulerStats stats() {
+        return stats;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        return delegate.schedule(new TimedTask(task, stats, System.nanoTime()));
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        return delegate.schedule(new TimedTask(task, stats, System.nanoTime() + unit.toNanos(delay)), delay, unit);
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return delegate.schedulePeriodically(
+                new PeriodicTimedTask(task, stats, System.nanoTime() + unit.toNanos(initialDelay), unit.toNanos(period)),
+                initialDelay, period, unit);
+    }
+
+    @Override
+    public long now(TimeUnit unit) {
+        return delegate.now(unit);
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new InstrumentedWorker(delegate.createWorker(), stats);
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate.isDisposed();
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.NAME) {
+            return stats.name;
+        }
+        if (key == Attr.PARENT) {
+            return Scannable.from(delegate);
+        }
+        return Scannable.from(delegate).scanUnsafe(key);
+    }
+
+    @Override
+    public String toString() {
+        return "instrumented(\"" + stats.name + "\"," + delegate + ")";
+    }
+
+    static final class InstrumentedWorker implements Worker, Scannable {
+
+        final Worker delegate;
+
+        final SchedulerStats stats;
+
+        InstrumentedWorker(Worker delegate, SchedulerStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            return delegate.schedule(new TimedTask(task, stats, System.nanoTime()));
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            return delegate.schedule(new TimedTask(task, stats, System.nanoTime() + unit.toNanos(delay)), delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            return delegate.schedulePeriodically(
+                    new PeriodicTimedTask(task, stats, System.nanoTime() + unit.toNanos(initialDelay), unit.toNanos(period)),
+                    initialDelay, period, unit);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.NAME) {
+                return stats.name;
+            }
+            if (key == Attr.PARENT) {
+                return delegate;
+            }
+            return Scannable.from(delegate).scanUnsafe(key);
+        }
+    }
+
+    static final class TimedTask implements Runnable {
+
+        final Runnable task;
+
+        final SchedulerStats stats;
+
+        final long due;
+
+        final Thread submitter;
+
+        TimedTask(Runnable task, SchedulerStats stats, long due) {
+            this.task = task;
+            this.stats = stats;
+            this.due = due;
+            this.submitter = Thread.currentThread();
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            stats.recordStart(due, start, Thread.currentThread() != submitter);
+            try {
+                task.run();
+            } finally {
+                stats.recordEnd(start, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * 周期任务的多次执行不会重叠，由调度器保证先后顺序，next 不需要同步
+     */
+    static final class PeriodicTimedTask implements Runnable {
+
+        final Runnable task;
+
+        final SchedulerStats stats;
+
+        final long period;
+
+        final Thread submitter;
+
+        long next;
+
+        PeriodicTimedTask(Runnable task, SchedulerStats stats, long first, long period) {
+            this.task = task;
+            this.stats = stats;
+            this.next = first;
+            this.period = period;
+            this.submitter = Thread.currentThread();
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long due = next;
+            stats.recordStart(due, start, Thread.currentThread() != submitter);
+            try {
+                task.run();
+            } finally {
+                long end = System.nanoTime();
+                // 固定频率：下一次的到期时间是这一次加一个周期；period 为 0 时执行完立即重新提交
+                next = period > 0 ? due + period : end;
+                stats.recordEnd(start, end);
+            }
+        }
+    }
+}
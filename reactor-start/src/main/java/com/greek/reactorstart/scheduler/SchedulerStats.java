@@ -0,0 +1,137 @@
+package com.greek.reactorstart.scheduler;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个调度器（按名称区分）上任务的排队时间、执行时间和线程切换，由 {@link InstrumentedScheduler} 记录 <br>
+ * 1. queueWait：从提交任务到开始执行的时间（延迟任务从到期时间开始算），即一次 publishOn/subscribeOn 切换带来的延迟 <br>
+ * 2. execution：任务的执行时间，publishOn 的一个任务是一次 drain 循环 <br>
+ * 3. hopWait：执行线程和提交线程不同（发生了线程切换）的任务的排队时间，总数就是切换的次数 <br>
+ *
+ * 使用 HdrHistogram 的 Recorder 记录，写入不加锁，{@link #snapshot()} 取出上次快照之后的数据，单位都是纳秒
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class SchedulerStats {
+
+    /**
+     * 有效数字位数，3位即误差在0.1%以内
+     */
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    final String name;
+
+    final Recorder queueWait = new Recorder(SIGNIFICANT_DIGITS);
+
+    final Recorder execution = new Recorder(SIGNIFICANT_DIGITS);
+
+    final Recorder hopWait = new Recorder(SIGNIFICANT_DIGITS);
+
+    SchedulerStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 任务开始执行时记录，任务发出的信号可能在执行结束之前就被下游看到
+     */
+    void recordStart(long submitted, long started, boolean hop) {
+        long wait = Math.max(0L, started - submitted);
+        queueWait.recordValue(wait);
+        if (hop) {
+            hopWait.recordValue(wait);
+        }
+    }
+
+    void recordEnd(long started, long finished) {
+        execution.recordValue(Math.max(0L, finished - started));
+    }
+
+    /**
+     * 取出上次调用之后记录的数据，每次调用都会重新开始计数
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(name,
+                queueWait.getIntervalHistogram(),
+                execution.getIntervalHistogram(),
+                hopWait.getIntervalHistogram());
+    }
+
+    /**
+     * 一段时间内的统计结果
+     */
+    public static final class Snapshot {
+
+        final String name;
+
+        final Histogram queueWait;
+
+        final Histogram execution;
+
+        final Histogram hopWait;
+
+        Snapshot(String name, Histogram queueWait, Histogram execution, Histogram hopWait) {
+            this.name = name;
+            this.queueWait = queueWait;
+            this.execution = execution;
+            this.hopWait = hopWait;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * 开始执行的任务数，还没执行完的任务不在 execution 中
+         */
+        public long tasks() {
+            return queueWait.getTotalCount();
+        }
+
+        /**
+         * 在提交线程之外的线程上执行的任务数
+         */
+        public long hops() {
+            return hopWait.getTotalCount();
+        }
+
+        public Histogram queueWait() {
+            return queueWait;
+        }
+
+        public Histogram execution() {
+            return execution;
+        }
+
+        public Histogram hopWait() {
+            return hopWait;
+        }
+
+        /**
+         * 一行摘要，时间单位为微秒，例如：<br>
+         * Parallel tasks=10 hops=10 wait[p50=12.3 p99=45.6 max=50.1]us exec[p50=3.2 p99=8.0 max=9.1]us
+         */
+        @Override
+        public String toString() {
+            return name + " tasks=" + tasks() + " hops=" + hops()
+                    + " wait" + summary(queueWait) + "us exec" + summary(execution) + "us";
+        }
+
+        static String summary(Histogram h) {
+            return "[p50=" + micros(h.getValueAtPercentile(50))
+                    + " p99=" + micros(h.getValueAtPercentile(99))
+                    + " max=" + micros(h.getMaxValue()) + "]";
+        }
+
+        static String micros(long nanos) {
+            return String.format("%.1f", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1));
+        }
+    }
+}
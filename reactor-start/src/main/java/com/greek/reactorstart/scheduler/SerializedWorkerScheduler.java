@@ -0,0 +1,478 @@
+package com.greek.reactorstart.scheduler;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Worker 不绑定线程的调度器 <br>
+ * 1. 每个 Worker 有自己的任务队列，有任务时把队列作为一个整体交给 {@link #doExecute(Runnable)}，同一个 Worker 的任务按提交顺序串行执行 <br>
+ * 2. 一个 Worker 每次最多连续执行 workerBatch 个任务，然后重新提交 <br>
+ * 3. 延迟任务和周期任务由一个共享的定时线程触发，到时间后放入 Worker 的队列 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+abstract class SerializedWorkerScheduler implements Scheduler, Scannable {
+
+    static final Logger log = Loggers.getLogger(SerializedWorkerScheduler.class);
+
+    final String name;
+
+    final int workerBatch;
+
+    final ScheduledExecutorService timer;
+
+    volatile boolean disposed;
+
+    SerializedWorkerScheduler(String name, int workerBatch) {
+        this.name = name;
+        this.workerBatch = workerBatch;
+        ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, name + "-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        stpe.setRemoveOnCancelPolicy(true);
+        this.timer = stpe;
+    }
+
+    /**
+     * 在底层的执行器中执行，无法执行时抛出 RejectedExecutionException
+     */
+    abstract void doExecute(Runnable r);
+
+    /**
+     * 释放底层的执行器
+     */
+    abstract void shutdown();
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        Task t = new Task(task, null);
+        execute(t);
+        return t;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        Task t = new Task(task, null);
+        t.setFuture(scheduleTimer(() -> execute(t), delay, unit));
+        return t;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        // 借用一个 Worker，保证周期任务不会并发执行
+        Worker worker = createWorker();
+        worker.schedulePeriodically(task, initialDelay, period, unit);
+        return worker;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerializedWorker(this);
+    }
+
+    void execute(Runnable r) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            doExecute(r);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected();
+        }
+    }
+
+    ScheduledFuture<?> scheduleTimer(Runnable r, long delay, TimeUnit unit) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            return timer.schedule(r, delay, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected();
+        }
+    }
+
+    ScheduledFuture<?> scheduleTimerAtFixedRate(Runnable r, long initialDelay, long period, TimeUnit unit) {
+        if (disposed) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            return timer.scheduleAtFixedRate(r, initialDelay, period, unit);
+        }
+        catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            timer.shutdownNow();
+            shutdown();
+        }
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED || key == Attr.CANCELLED) {
+            return disposed;
+        }
+        if (key == Attr.NAME) {
+            return toString();
+        }
+        return null;
+    }
+
+    /**
+     * 任务抛出的异常交给当前线程的 UncaughtExceptionHandler，和 Schedulers 的默认处理一致
+     */
+    static void handleError(Throwable ex) {
+        Exceptions.throwIfJvmFatal(ex);
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        if (handler != null) {
+            handler.uncaughtException(thread, ex);
+        }
+        else {
+            log.error("Scheduler worker failed with an uncaught exception", ex);
+        }
+    }
+
+    /**
+     * 可以取消的任务，取消时同时取消还没触发的定时
+     */
+    static final class Task implements Runnable, Disposable {
+
+        static final int READY = 0;
+
+        static final int RUNNING = 1;
+
+        static final int FINISHED = 2;
+
+        static final int CANCELLED = 3;
+
+        static final AtomicIntegerFieldUpdater<Task> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Task.class, "state");
+
+        final Runnable task;
+
+        /**
+         * 所属的 Worker，取消时从 Worker 中移除，直接提交到调度器的任务为 null
+         */
+        final SerializedWorker parent;
+
+        volatile int state;
+
+        volatile ScheduledFuture<?> future;
+
+        Task(Runnable task, SerializedWorker parent) {
+            this.task = task;
+            this.parent = parent;
+        }
+
+        void setFuture(ScheduledFuture<?> f) {
+            future = f;
+            if (state == CANCELLED) {
+                f.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!STATE.compareAndSet(this, READY, RUNNING)) {
+                return;
+            }
+            try {
+                task.run();
+            }
+            catch (Throwable ex) {
+                handleError(ex);
+            }
+            finally {
+                STATE.compareAndSet(this, RUNNING, FINISHED);
+                if (parent != null) {
+                    parent.tasks.decrementAndGet();
+                    if (future != null) {
+                        parent.timed.remove(this);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            int s = state;
+            return s == FINISHED || s == CANCELLED;
+        }
+
+        @Override
+        public void dispose() {
+            for (;;) {
+                int s = state;
+                if (s == FINISHED || s == CANCELLED) {
+                    return;
+                }
+                if (STATE.compareAndSet(this, s, CANCELLED)) {
+                    ScheduledFuture<?> f = future;
+                    if (f != null) {
+                        f.cancel(false);
+                    }
+                    if (parent != null) {
+                        if (s == READY) {
+                            parent.tasks.decrementAndGet();
+                        }
+                        if (f != null) {
+                            parent.timed.remove(this);
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 不绑定线程的 Worker：任务进入自己的队列，由 ForkJoinPool 中任意一个线程串行执行
+     */
+    static final class SerializedWorker implements Worker, Runnable, Scannable {
+
+        static final AtomicIntegerFieldUpdater<SerializedWorker> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(SerializedWorker.class, "wip");
+
+        final SerializedWorkerScheduler parent;
+
+        final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 还没结束的任务数（包括等待定时触发的），用于 Attr.BUFFERED
+         */
+        final AtomicInteger tasks = new AtomicInteger();
+
+        /**
+         * 等待定时线程触发的任务，Worker 释放时一起取消
+         */
+        final Disposable.Composite timed = Disposables.composite();
+
+        volatile int wip;
+
+        volatile boolean disposed;
+
+        SerializedWorker(SerializedWorkerScheduler parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            Task t = new Task(task, this);
+            tasks.incrementAndGet();
+            enqueue(t);
+            return t;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            Task t = new Task(task, this);
+            tasks.incrementAndGet();
+            timed.add(t);
+            t.setFuture(parent.scheduleTimer(() -> enqueue(t), delay, unit));
+            return t;
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            Periodic p = new Periodic(task, this);
+            timed.add(p);
+            p.future = parent.scheduleTimerAtFixedRate(p::tick, initialDelay, period, unit);
+            if (p.cancelled) {
+                p.future.cancel(false);
+            }
+            return p;
+        }
+
+        void enqueue(Runnable r) {
+            if (disposed) {
+                return;
+            }
+            queue.offer(r);
+            if (WIP.getAndIncrement(this) == 0) {
+                submit();
+            }
+        }
+
+        /**
+         * 执行器拒绝时 wip 归零并释放 Worker，异常抛给调用方：由 schedule 调用时抛给提交任务的线程
+         */
+        void submit() {
+            try {
+                parent.execute(this);
+            }
+            catch (RejectedExecutionException e) {
+                wip = 0;
+                dispose();
+                throw e;
+            }
+        }
+
+        /**
+         * 在 ForkJoinPool 的线程中串行执行队列中的任务，执行一批之后还有任务就重新提交
+         */
+        @Override
+        public void run() {
+            int missed = wip;
+            int executed = 0;
+            for (;;) {
+                Runnable r;
+                while ((r = queue.poll()) != null) {
+                    if (disposed) {
+                        queue.clear();
+                        return;
+                    }
+                    r.run();
+                    if (++executed == parent.workerBatch) {
+                        // 还有任务没执行，wip 不归零，重新提交让出线程
+                        try {
+                            submit();
+                        }
+                        catch (RejectedExecutionException e) {
+                            // 执行器已经关闭，Worker 已经释放
+                        }
+                        return;
+                    }
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                timed.dispose();
+                Runnable r;
+                while ((r = queue.poll()) != null) {
+                    if (r instanceof Disposable) {
+                        ((Disposable) r).dispose();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.TERMINATED || key == Attr.CANCELLED) {
+                return disposed;
+            }
+            if (key == Attr.NAME) {
+                return parent.toString() + ".worker";
+            }
+            if (key == Attr.PARENT) {
+                return parent;
+            }
+            if (key == Attr.BUFFERED) {
+                return Math.max(0, tasks.get());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 周期任务：定时线程每次触发时放入 Worker 的队列，上一次还没执行完时跳过这次触发
+     */
+    static final class Periodic implements Runnable, Disposable {
+
+        final Runnable task;
+
+        final SerializedWorker worker;
+
+        final AtomicBoolean pending = new AtomicBoolean();
+
+        volatile ScheduledFuture<?> future;
+
+        volatile boolean cancelled;
+
+        Periodic(Runnable task, SerializedWorker worker) {
+            this.task = task;
+            this.worker = worker;
+        }
+
+        void tick() {
+            if (!cancelled && !worker.disposed && pending.compareAndSet(false, true)) {
+                worker.enqueue(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!cancelled) {
+                    task.run();
+                }
+            }
+            catch (Throwable ex) {
+                handleError(ex);
+            }
+            finally {
+                pending.set(false);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+
+        @Override
+        public void dispose() {
+            cancelled = true;
+            ScheduledFuture<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+            worker.timed.remove(this);
+        }
+    }
+}
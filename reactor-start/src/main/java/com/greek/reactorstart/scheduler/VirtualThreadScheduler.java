@@ -0,0 +1,150 @@
+package com.greek.reactorstart.scheduler;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在虚拟线程上执行阻塞任务的调度器，用来替代 Schedulers.elastic / boundedElastic <br>
+ * 1. elastic 为每个空闲不足的 Worker 创建平台线程，大量阻塞调用会让线程数暴涨 <br>
+ * 2. 这里的 Worker 有任务时启动一个虚拟线程串行执行队列中的任务，队列空了线程就结束，同一个 Worker 的任务按提交顺序执行 <br>
+ * 3. 虚拟线程需要 Java 21，项目按 Java 8 编译，所以通过反射创建；
+ * 运行在更早的 JVM 上时退回到最多 fallbackMaxThreads 个平台线程的线程池（和 boundedElastic 一样有上限，任务排队） <br>
+ * 4. 通过 {@link #factory()} 替换 Schedulers 的工厂之后，Schedulers.elastic() / boundedElastic() 使用这个调度器 <br>
+ *
+ * 线程不是 NonBlocking 的，可以调用 block()
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class VirtualThreadScheduler extends SerializedWorkerScheduler {
+
+    static final int WORKER_BATCH = 64;
+
+    public static VirtualThreadScheduler create(String name) {
+        return create(name, Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE);
+    }
+
+    /**
+     * @param fallbackMaxThreads 不支持虚拟线程时，平台线程的最大数量
+     */
+    public static VirtualThreadScheduler create(String name, int fallbackMaxThreads) {
+        Objects.requireNonNull(name, "name");
+        if (fallbackMaxThreads <= 0) {
+            throw new IllegalArgumentException("fallbackMaxThreads > 0 required but it was " + fallbackMaxThreads);
+        }
+        return new VirtualThreadScheduler(name, fallbackMaxThreads);
+    }
+
+    /**
+     * 用于 Schedulers.setFactory，让 elastic 和 boundedElastic 使用虚拟线程 <br>
+     * boundedElastic 的 threadCap 作为 fallbackMaxThreads，queuedTaskCap 和 ttl 不生效
+     */
+    public static Schedulers.Factory factory() {
+        return new Schedulers.Factory() {
+            @Override
+            public Scheduler newElastic(int ttlSeconds, ThreadFactory threadFactory) {
+                return create("virtual-elastic");
+            }
+
+            @Override
+            public Scheduler newBoundedElastic(int threadCap, int queuedTaskCap, ThreadFactory threadFactory,
+                                               int ttlSeconds) {
+                return create("virtual-boundedElastic", threadCap);
+            }
+        };
+    }
+
+    /**
+     * 虚拟线程的工厂，不支持虚拟线程时为 null
+     */
+    final ThreadFactory virtualThreads;
+
+    /**
+     * 不支持虚拟线程时使用的平台线程池
+     */
+    final ThreadPoolExecutor fallback;
+
+    final int fallbackMaxThreads;
+
+    VirtualThreadScheduler(String name, int fallbackMaxThreads) {
+        super(name, WORKER_BATCH);
+        this.fallbackMaxThreads = fallbackMaxThreads;
+        this.virtualThreads = virtualThreadFactory(name);
+        if (virtualThreads == null) {
+            AtomicLong counter = new AtomicLong();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(fallbackMaxThreads, fallbackMaxThreads,
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            this.fallback = executor;
+        }
+        else {
+            this.fallback = null;
+        }
+    }
+
+    /**
+     * Thread.ofVirtual().name(name + "-", 1).factory()
+     */
+    static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 是否运行在虚拟线程上
+     */
+    public boolean isVirtual() {
+        return virtualThreads != null;
+    }
+
+    @Override
+    void doExecute(Runnable r) {
+        if (virtualThreads != null) {
+            virtualThreads.newThread(r).start();
+        }
+        else {
+            fallback.execute(r);
+        }
+    }
+
+    @Override
+    void shutdown() {
+        if (fallback != null) {
+            fallback.shutdownNow();
+        }
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.CAPACITY) {
+            return virtualThreads != null ? Integer.MAX_VALUE : fallbackMaxThreads;
+        }
+        if (key == Attr.BUFFERED && fallback != null) {
+            return fallback.getQueue().size();
+        }
+        return super.scanUnsafe(key);
+    }
+
+    @Override
+    public String toString() {
+        return (virtualThreads != null ? "virtualThreads(\"" : "virtualThreadsFallback(\"") + name + "\")";
+    }
+}
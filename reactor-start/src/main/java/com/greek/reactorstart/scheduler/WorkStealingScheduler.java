@@ -0,0 +1,92 @@
+package com.greek.reactorstart.scheduler;
+
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 ForkJoinPool 工作窃取的并行调度器，用来替代 Schedulers.newParallel <br>
+ * 1. newParallel 的每个 Worker 固定绑定一个单线程执行器（轮询分配），一个繁忙的 publishOn 会占满它的线程，
+ * 分到同一个线程的其他 Worker 只能排队，其他线程却空闲 <br>
+ * 2. 这里的 Worker 不绑定线程：每个 Worker 有自己的任务队列，有任务时把队列作为一个整体提交到 ForkJoinPool，
+ * 任何空闲的线程都可以执行它，同一个 Worker 的任务仍然按提交顺序串行执行 <br>
+ * 3. 一个 Worker 每次最多连续执行 {@link #WORKER_BATCH} 个任务，然后重新提交，让其他 Worker 有机会执行 <br>
+ * 4. 延迟任务和周期任务由一个共享的定时线程触发，到时间后放入 Worker 的队列 <br>
+ * 5. 线程实现了 NonBlocking，和 parallel 调度器一样不允许 block() <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class WorkStealingScheduler extends SerializedWorkerScheduler {
+
+    /**
+     * Worker 每次连续执行的最大任务数
+     */
+    static final int WORKER_BATCH = 64;
+
+    public static WorkStealingScheduler create(String name) {
+        return create(name, Schedulers.DEFAULT_POOL_SIZE);
+    }
+
+    public static WorkStealingScheduler create(String name, int parallelism) {
+        Objects.requireNonNull(name, "name");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+        }
+        return new WorkStealingScheduler(name, parallelism);
+    }
+
+    final int parallelism;
+
+    final ForkJoinPool pool;
+
+    WorkStealingScheduler(String name, int parallelism) {
+        super(name, WORKER_BATCH);
+        this.parallelism = parallelism;
+        AtomicLong counter = new AtomicLong();
+        // asyncMode=true：本地队列先进先出，适合事件类的任务
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = new NonBlockingWorkerThread(p);
+            t.setName(name + "-" + counter.incrementAndGet());
+            return t;
+        }, (t, e) -> log.error("Scheduler worker " + t.getName() + " failed with an uncaught exception", e), true);
+    }
+
+    @Override
+    void doExecute(Runnable r) {
+        pool.execute(r);
+    }
+
+    @Override
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.CAPACITY) {
+            return parallelism;
+        }
+        if (key == Attr.BUFFERED) {
+            return (int) Math.min(pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(), Integer.MAX_VALUE);
+        }
+        return super.scanUnsafe(key);
+    }
+
+    @Override
+    public String toString() {
+        return "workStealing(\"" + name + "\"," + parallelism + ")";
+    }
+
+    static final class NonBlockingWorkerThread extends ForkJoinWorkerThread implements NonBlocking {
+
+        NonBlockingWorkerThread(ForkJoinPool pool) {
+            super(pool);
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.greek.reactorstart.sink;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongConsumer;
+
+/**
+ * 自定义FluxSink的公共部分，行为和 FluxCreate.BaseSink 保持一致 <br>
+ * 1. 记录下游的请求数，并回调 onRequest 注册的函数 <br>
+ * 2. onCancel 只在取消时调用；onDispose 在第一个终止信号（取消、完成、错误）时调用 <br>
+ * 3. 终止之后再注册 onDispose 会马上执行（取消之后注册 onCancel 也一样） <br>
+ *
+ * 子类负责数据的缓存和推送：实现 next/complete/error，以及 onRequestedFromDownstream、onCancel 两个钩子
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+abstract class BaseSink<T> implements FluxSink<T>, Subscription, Scannable {
+
+    static final Disposable TERMINATED = () -> { };
+
+    static final Disposable CANCELLED = () -> { };
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<BaseSink> REQUESTED =
+            AtomicLongFieldUpdater.newUpdater(BaseSink.class, "requested");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<BaseSink, Disposable> DISPOSABLE =
+            AtomicReferenceFieldUpdater.newUpdater(BaseSink.class, Disposable.class, "disposable");
+
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<BaseSink, LongConsumer> REQUEST_CONSUMER =
+            AtomicReferenceFieldUpdater.newUpdater(BaseSink.class, LongConsumer.class, "requestConsumer");
+
+    final CoreSubscriber<? super T> actual;
+
+    final Context ctx;
+
+    volatile long requested;
+
+    volatile Disposable disposable;
+
+    volatile LongConsumer requestConsumer;
+
+    BaseSink(CoreSubscriber<? super T> actual) {
+        this.actual = actual;
+        this.ctx = actual.currentContext();
+    }
+
+    @Override
+    public Context currentContext() {
+        return ctx;
+    }
+
+    @Override
+    public long requestedFromDownstream() {
+        return requested;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return disposable == CANCELLED;
+    }
+
+    final boolean isTerminated() {
+        return disposable == TERMINATED;
+    }
+
+    @Override
+    public final void request(long n) {
+        if (Operators.validate(n)) {
+            Operators.addCap(REQUESTED, this, n);
+
+            LongConsumer consumer = requestConsumer;
+            if (consumer != null && !isCancelled()) {
+                consumer.accept(n);
+            }
+            onRequestedFromDownstream();
+        }
+    }
+
+    @Override
+    public final void cancel() {
+        disposeResource(true);
+        onCancel();
+    }
+
+    /**
+     * 下游请求了更多元素
+     */
+    void onRequestedFromDownstream() {
+    }
+
+    /**
+     * 下游取消了订阅，子类在这里清理缓存
+     */
+    void onCancel() {
+    }
+
+    /**
+     * 发出完成信号并释放资源，由子类在推送完缓存的数据之后调用
+     */
+    final void terminate(Throwable error) {
+        if (isCancelled()) {
+            return;
+        }
+        try {
+            if (error != null) {
+                actual.onError(error);
+            }
+            else {
+                actual.onComplete();
+            }
+        }
+        finally {
+            disposeResource(false);
+        }
+    }
+
+    final void disposeResource(boolean isCancel) {
+        Disposable d = disposable;
+        if (d != TERMINATED && d != CANCELLED) {
+            d = DISPOSABLE.getAndSet(this, isCancel ? CANCELLED : TERMINATED);
+            if (d != null && d != TERMINATED && d != CANCELLED) {
+                if (isCancel && d instanceof SinkDisposable) {
+                    ((SinkDisposable) d).cancel();
+                }
+                d.dispose();
+            }
+        }
+    }
+
+    @Override
+    public final FluxSink<T> onRequest(LongConsumer consumer) {
+        Objects.requireNonNull(consumer, "onRequest");
+        if (!REQUEST_CONSUMER.compareAndSet(this, null, consumer)) {
+            throw new IllegalStateException("A consumer has already been assigned to consume requests");
+        }
+        long r = requested;
+        if (r > 0) {
+            consumer.accept(r);
+        }
+        return this;
+    }
+
+    @Override
+    public final FluxSink<T> onCancel(Disposable d) {
+        Objects.requireNonNull(d, "onCancel");
+        SinkDisposable sd = new SinkDisposable(null, d);
+        if (!DISPOSABLE.compareAndSet(this, null, sd)) {
+            Disposable c = disposable;
+            if (c == CANCELLED) {
+                d.dispose();
+            }
+            else if (c instanceof SinkDisposable) {
+                SinkDisposable current = (SinkDisposable) c;
+                if (current.onCancel == null) {
+                    current.onCancel = d;
+                }
+                else {
+                    d.dispose();
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public final FluxSink<T> onDispose(Disposable d) {
+        Objects.requireNonNull(d, "onDispose");
+        SinkDisposable sd = new SinkDisposable(d, null);
+        if (!DISPOSABLE.compareAndSet(this, null, sd)) {
+            Disposable c = disposable;
+            if (c == TERMINATED || c == CANCELLED) {
+                d.dispose();
+            }
+            else if (c instanceof SinkDisposable) {
+                SinkDisposable current = (SinkDisposable) c;
+                if (current.disposable == null) {
+                    current.disposable = d;
+                }
+                else {
+                    d.dispose();
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.TERMINATED) {
+            return isTerminated();
+        }
+        if (key == Attr.CANCELLED) {
+            return isCancelled();
+        }
+        if (key == Attr.REQUESTED_FROM_DOWNSTREAM) {
+            return requested;
+        }
+        if (key == Attr.ACTUAL) {
+            return actual;
+        }
+        return null;
+    }
+
+    /**
+     * onDispose 和 onCancel 注册的函数
+     */
+    static final class SinkDisposable implements Disposable {
+
+        Disposable onCancel;
+
+        Disposable disposable;
+
+        SinkDisposable(Disposable disposable, Disposable onCancel) {
+            this.disposable = disposable;
+            this.onCancel = onCancel;
+        }
+
+        @Override
+        public void dispose() {
+            if (disposable != null) {
+                disposable.dispose();
+            }
+        }
+
+        void cancel() {
+            if (onCancel != null) {
+                onCancel.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.publisher.FluxSink;
+
+/**
+ * 可以一次推送多个元素的 FluxSink <br>
+ * 一批元素只放入队列一次、只触发一次drain，效果和按顺序逐个调用 next 一样（包括溢出策略） <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public interface BatchFluxSink<T> extends FluxSink<T> {
+
+    /**
+     * 按顺序推送数组中的所有元素，数组会被复制，调用之后可以继续修改
+     *
+     * @param values 元素，不能包含null
+     * @return this
+     */
+    BatchFluxSink<T> nextAll(T[] values);
+
+    /**
+     * 按顺序推送所有元素
+     *
+     * @param values 元素，不能包含null
+     * @return this
+     */
+    BatchFluxSink<T> nextAll(Iterable<? extends T> values);
+}
@@ -0,0 +1,28 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+
+/**
+ * 由下游请求数控制生产速度的 FluxSink，给线程池这类非响应式的生产者使用 <br>
+ * 1. next 在下游没有请求数时阻塞调用线程，直到下游请求、取消或者序列终止；等待时线程被中断，元素交给 onDiscard，保留中断标记并抛出异常 <br>
+ * 2. offer 最多阻塞 timeout，超时返回 false，元素仍然由调用方持有 <br>
+ * 3. 下游请求 Long.MAX_VALUE 时不会阻塞 <br>
+ *
+ * 阻塞使用 LockSupport.park，虚拟线程也可以使用；在 Schedulers.parallel() 这类非阻塞线程中需要阻塞时抛出 IllegalStateException
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public interface BlockingFluxSink<T> extends FluxSink<T> {
+
+    /**
+     * 等待下游的请求数，最多等待 timeout
+     *
+     * @param t       元素
+     * @param timeout 最长等待时间
+     * @return true 表示已推送；false 表示超时、被取消、已终止或者线程被中断（保留中断标记），元素没有推送
+     */
+    boolean offer(T t, Duration timeout);
+}
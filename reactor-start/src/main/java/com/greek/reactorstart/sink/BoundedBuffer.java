@@ -0,0 +1,119 @@
+package com.greek.reactorstart.sink;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Flux.create BUFFER 策略的有界版本配置，不可变对象，每个方法返回新的配置 <br>
+ * 1. 可以按元素个数、估算字节数限制缓存，两个都配置时任意一个满了就算满 <br>
+ * 2. 单个元素超过 maxBytes 时，只有缓存为空才能放入，避免永远放不进去 <br>
+ * 3. 缓存满了之后按 {@link BufferFallback} 处理，默认 ERROR <br>
+ *
+ * <pre>
+ * BoundedBuffer.&lt;String&gt;maxElements(1024)
+ *         .andMaxBytes(64 * 1024 * 1024, s -&gt; 40 + 2L * s.length())
+ *         .fallback(BufferFallback.BLOCK)
+ *         .blockTimeout(Duration.ofSeconds(5))
+ *         .metrics(metrics);
+ * </pre>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class BoundedBuffer<T> {
+
+    static final Duration DEFAULT_BLOCK_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * 按元素个数限制缓存
+     */
+    public static <T> BoundedBuffer<T> maxElements(int maxElements) {
+        return new BoundedBuffer<T>(Long.MAX_VALUE, Long.MAX_VALUE, null,
+                BufferFallback.ERROR, DEFAULT_BLOCK_TIMEOUT, null)
+                .andMaxElements(maxElements);
+    }
+
+    /**
+     * 按估算的字节数限制缓存
+     *
+     * @param maxBytes      最大字节数
+     * @param sizeEstimator 估算一个元素占用的字节数，同一个元素必须返回相同的值
+     */
+    public static <T> BoundedBuffer<T> maxBytes(long maxBytes, ToLongFunction<? super T> sizeEstimator) {
+        return new BoundedBuffer<T>(Long.MAX_VALUE, Long.MAX_VALUE, null,
+                BufferFallback.ERROR, DEFAULT_BLOCK_TIMEOUT, null)
+                .andMaxBytes(maxBytes, sizeEstimator);
+    }
+
+    final long maxElements;
+
+    final long maxBytes;
+
+    final ToLongFunction<? super T> sizeEstimator;
+
+    final BufferFallback fallback;
+
+    final Duration blockTimeout;
+
+    final BoundedBufferMetrics metrics;
+
+    BoundedBuffer(long maxElements, long maxBytes, ToLongFunction<? super T> sizeEstimator,
+                  BufferFallback fallback, Duration blockTimeout, BoundedBufferMetrics metrics) {
+        this.maxElements = maxElements;
+        this.maxBytes = maxBytes;
+        this.sizeEstimator = sizeEstimator;
+        this.fallback = fallback;
+        this.blockTimeout = blockTimeout;
+        this.metrics = metrics;
+    }
+
+    public BoundedBuffer<T> andMaxElements(int maxElements) {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements > 0 required but it was " + maxElements);
+        }
+        return new BoundedBuffer<>(maxElements, maxBytes, sizeEstimator, fallback, blockTimeout, metrics);
+    }
+
+    public BoundedBuffer<T> andMaxBytes(long maxBytes, ToLongFunction<? super T> sizeEstimator) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes > 0 required but it was " + maxBytes);
+        }
+        Objects.requireNonNull(sizeEstimator, "sizeEstimator");
+        return new BoundedBuffer<>(maxElements, maxBytes, sizeEstimator, fallback, blockTimeout, metrics);
+    }
+
+    public BoundedBuffer<T> fallback(BufferFallback fallback) {
+        Objects.requireNonNull(fallback, "fallback");
+        return new BoundedBuffer<>(maxElements, maxBytes, sizeEstimator, fallback, blockTimeout, metrics);
+    }
+
+    /**
+     * BLOCK 模式下最多等待的时间，默认30秒
+     */
+    public BoundedBuffer<T> blockTimeout(Duration blockTimeout) {
+        Objects.requireNonNull(blockTimeout, "blockTimeout");
+        if (blockTimeout.isNegative()) {
+            throw new IllegalArgumentException("blockTimeout >= 0 required but it was " + blockTimeout);
+        }
+        return new BoundedBuffer<>(maxElements, maxBytes, sizeEstimator, fallback, blockTimeout, metrics);
+    }
+
+    /**
+     * 把缓存深度、丢弃个数等数据累加到 metrics
+     */
+    public BoundedBuffer<T> metrics(BoundedBufferMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+        return new BoundedBuffer<>(maxElements, maxBytes, sizeEstimator, fallback, blockTimeout, metrics);
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedBuffer{" +
+                "maxElements=" + (maxElements == Long.MAX_VALUE ? "unbounded" : maxElements) +
+                ", maxBytes=" + (maxBytes == Long.MAX_VALUE ? "unbounded" : maxBytes) +
+                ", fallback=" + fallback +
+                ", blockTimeout=" + blockTimeout +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.greek.reactorstart.sink;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界缓存的统计数据，可以被多个订阅共享，数值是所有订阅的总和 <br>
+ * depth/bytes 是当前值（gauge），其他是累计值（counter）
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class BoundedBufferMetrics {
+
+    final LongAdder depth = new LongAdder();
+
+    final LongAdder bytes = new LongAdder();
+
+    final LongAdder dropped = new LongAdder();
+
+    final LongAdder overflows = new LongAdder();
+
+    final LongAdder blocked = new LongAdder();
+
+    /**
+     * @return 当前缓存的元素个数
+     */
+    public long depth() {
+        return depth.sum();
+    }
+
+    /**
+     * @return 当前缓存的元素估算字节数，没有配置 maxBytes 时为0
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return DROP_OLDEST/DROP_NEWEST 丢弃的元素个数
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return 因为缓存满了发出错误信号的次数（包括 BLOCK 超时）
+     */
+    public long overflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * @return BLOCK 模式下生产者线程被阻塞的次数
+     */
+    public long blocked() {
+        return blocked.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedBufferMetrics{" +
+                "depth=" + depth() +
+                ", bytes=" + bytes() +
+                ", dropped=" + dropped() +
+                ", overflows=" + overflows() +
+                ", blocked=" + blocked() +
+                '}';
+    }
+}
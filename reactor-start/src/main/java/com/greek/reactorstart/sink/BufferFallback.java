@@ -0,0 +1,31 @@
+package com.greek.reactorstart.sink;
+
+/**
+ * 有界缓存满了之后的处理方式 {@link BoundedBuffer}
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public enum BufferFallback {
+
+    /**
+     * 丢弃缓存中最早的元素，为新元素腾出空间
+     */
+    DROP_OLDEST,
+
+    /**
+     * 丢弃新推送的元素
+     */
+    DROP_NEWEST,
+
+    /**
+     * 阻塞调用 next 的线程，直到下游取走数据腾出空间；超时之后按 ERROR 处理 <br>
+     * 不能在 Schedulers.parallel() 这类非阻塞线程中使用
+     */
+    BLOCK,
+
+    /**
+     * 发出 Exceptions.failWithOverflow 错误信号，已缓存的数据推送完之后下游才收到错误
+     */
+    ERROR
+}
@@ -0,0 +1,467 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink.OverflowStrategy;
+import reactor.core.publisher.Operators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * 支持批量推送的 Flux.create <br>
+ * 1. nextAll 把一批元素作为一个节点放入队列，只有一次入队、一次drain <br>
+ * 2. 溢出策略按元素计算：DROP/ERROR/LATEST 在入队时一次性预留下游的请求数，预留不到的元素按策略丢弃、报错或替换 <br>
+ * 3. BUFFER 策略下没有竞争并且队列为空时，next 直接推送给下游，不经过队列 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxCreateBatched<T> extends Flux<T> {
+
+    static <T> Flux<T> createBatched(Consumer<? super BatchFluxSink<T>> emitter, OverflowStrategy strategy) {
+        Objects.requireNonNull(emitter, "emitter");
+        Objects.requireNonNull(strategy, "strategy");
+        return onAssembly(new FluxCreateBatched<>(emitter, strategy));
+    }
+
+    final Consumer<? super BatchFluxSink<T>> emitter;
+
+    final OverflowStrategy strategy;
+
+    FluxCreateBatched(Consumer<? super BatchFluxSink<T>> emitter, OverflowStrategy strategy) {
+        this.emitter = emitter;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        BatchSink<T> sink = new BatchSink<>(actual, strategy);
+        actual.onSubscribe(sink);
+        try {
+            emitter.accept(sink);
+        }
+        catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            sink.error(Operators.onOperatorError(ex, actual.currentContext()));
+        }
+    }
+
+    /**
+     * 队列中的一批元素，index 只由drain线程修改
+     */
+    static final class Batch {
+
+        final Object[] values;
+
+        final int limit;
+
+        int index;
+
+        Batch(Object[] values, int limit) {
+            this.values = values;
+            this.limit = limit;
+        }
+    }
+
+    static final class BatchSink<T> extends BaseSink<T> implements BatchFluxSink<T> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<BatchSink> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(BatchSink.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<BatchSink, Object> LATEST =
+                AtomicReferenceFieldUpdater.newUpdater(BatchSink.class, Object.class, "latest");
+
+        final OverflowStrategy strategy;
+
+        /**
+         * 元素或者 Batch；BUFFER 以外的策略，队列中的元素都已经预留了请求数
+         */
+        final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+        volatile int wip;
+
+        /**
+         * LATEST 策略下超出请求数的最后一个元素
+         */
+        volatile Object latest;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        BatchSink(CoreSubscriber<? super T> actual, OverflowStrategy strategy) {
+            super(actual);
+            this.strategy = strategy;
+        }
+
+        @Override
+        public BatchFluxSink<T> next(T t) {
+            Objects.requireNonNull(t, "t");
+            if (done) {
+                Operators.onNextDropped(t, ctx);
+                return this;
+            }
+            if (isCancelled()) {
+                Operators.onDiscard(t, ctx);
+                return this;
+            }
+            switch (strategy) {
+                case BUFFER:
+                    if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+                        if (requested != 0L && queue.isEmpty()) {
+                            actual.onNext(t);
+                            Operators.produced(REQUESTED, this, 1);
+                        }
+                        else {
+                            queue.offer(t);
+                        }
+                        if (WIP.decrementAndGet(this) != 0) {
+                            drainLoop();
+                        }
+                        return this;
+                    }
+                    queue.offer(t);
+                    break;
+                case IGNORE:
+                    reserve(1);
+                    queue.offer(t);
+                    break;
+                default:
+                    promoteLatest();
+                    discardLatest();
+                    if (reserve(1) != 0L) {
+                        queue.offer(t);
+                    }
+                    else {
+                        overflow(new Object[]{t}, 0, 1);
+                    }
+            }
+            signal();
+            return this;
+        }
+
+        @Override
+        public BatchFluxSink<T> nextAll(T[] values) {
+            Objects.requireNonNull(values, "values");
+            int n = values.length;
+            Object[] copy = new Object[n];
+            for (int i = 0; i < n; i++) {
+                copy[i] = Objects.requireNonNull(values[i], "values contains a null element");
+            }
+            return nextBatch(copy);
+        }
+
+        @Override
+        public BatchFluxSink<T> nextAll(Iterable<? extends T> values) {
+            Objects.requireNonNull(values, "values");
+            Object[] copy;
+            if (values instanceof Collection) {
+                copy = ((Collection<?>) values).toArray();
+            }
+            else {
+                ArrayList<Object> list = new ArrayList<>();
+                for (T t : values) {
+                    list.add(t);
+                }
+                copy = list.toArray();
+            }
+            for (Object o : copy) {
+                Objects.requireNonNull(o, "values contains a null element");
+            }
+            return nextBatch(copy);
+        }
+
+        @SuppressWarnings("unchecked")
+        BatchFluxSink<T> nextBatch(Object[] values) {
+            int n = values.length;
+            if (n == 0) {
+                return this;
+            }
+            if (n == 1) {
+                return next((T) values[0]);
+            }
+            if (done) {
+                for (Object v : values) {
+                    Operators.onNextDropped(v, ctx);
+                }
+                return this;
+            }
+            if (isCancelled()) {
+                for (Object v : values) {
+                    Operators.onDiscard(v, ctx);
+                }
+                return this;
+            }
+            switch (strategy) {
+                case BUFFER:
+                    queue.offer(new Batch(values, n));
+                    break;
+                case IGNORE:
+                    reserve(n);
+                    queue.offer(new Batch(values, n));
+                    break;
+                default:
+                    promoteLatest();
+                    discardLatest();
+                    int k = (int) reserve(n);
+                    if (k != 0) {
+                        queue.offer(new Batch(values, k));
+                    }
+                    if (k != n) {
+                        overflow(values, k, n);
+                    }
+            }
+            signal();
+            return this;
+        }
+
+        /**
+         * 从下游的请求数中预留最多n个
+         *
+         * @return 实际预留的个数
+         */
+        long reserve(long n) {
+            for (;;) {
+                long r = requested;
+                if (r == 0L) {
+                    return 0L;
+                }
+                if (r == Long.MAX_VALUE) {
+                    return n;
+                }
+                long k = Math.min(r, n);
+                if (REQUESTED.compareAndSet(this, r, r - k)) {
+                    return k;
+                }
+            }
+        }
+
+        /**
+         * values[from, to) 没有预留到请求数，等同于逐个调用 next 时的溢出处理
+         */
+        void overflow(Object[] values, int from, int to) {
+            switch (strategy) {
+                case DROP:
+                    for (int i = from; i < to; i++) {
+                        Operators.onDiscard(values[i], ctx);
+                    }
+                    break;
+                case LATEST:
+                    for (int i = from; i < to - 1; i++) {
+                        Operators.onDiscard(values[i], ctx);
+                    }
+                    Object old = LATEST.getAndSet(this, values[to - 1]);
+                    if (old != null) {
+                        Operators.onDiscard(old, ctx);
+                    }
+                    break;
+                default:
+                    // ERROR：第一个溢出的元素触发错误，之后的元素相当于在终止之后推送
+                    error(Exceptions.failWithOverflow());
+                    Operators.onDiscard(values[from], ctx);
+                    for (int i = from + 1; i < to; i++) {
+                        Operators.onNextDropped(values[i], ctx);
+                    }
+            }
+        }
+
+        /**
+         * LATEST 策略下，旧元素之后下游又有了请求数时先把它放入队列，而不是被新元素覆盖
+         */
+        void promoteLatest() {
+            if (latest != null && reserve(1) != 0L) {
+                Object old = LATEST.getAndSet(this, null);
+                if (old != null) {
+                    queue.offer(old);
+                }
+                else {
+                    Operators.addCap(REQUESTED, this, 1);
+                }
+            }
+        }
+
+        /**
+         * LATEST 策略下新的元素会覆盖还没推送的旧元素
+         */
+        void discardLatest() {
+            if (latest != null) {
+                Object old = LATEST.getAndSet(this, null);
+                if (old != null) {
+                    Operators.onDiscard(old, ctx);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            signal();
+        }
+
+        @Override
+        public void error(Throwable e) {
+            if (done) {
+                Operators.onErrorDropped(e, ctx);
+                return;
+            }
+            error = e;
+            done = true;
+            signal();
+        }
+
+        @Override
+        void onRequestedFromDownstream() {
+            signal();
+        }
+
+        @Override
+        void onCancel() {
+            signal();
+        }
+
+        void signal() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            drainLoop();
+        }
+
+        @SuppressWarnings("unchecked")
+        void drainLoop() {
+            final CoreSubscriber<? super T> a = actual;
+            final Queue<Object> q = queue;
+            final boolean bounded = strategy == OverflowStrategy.BUFFER;
+            int missed = 1;
+
+            for (;;) {
+                long r = bounded ? requested : Long.MAX_VALUE;
+                long e = 0L;
+
+                for (;;) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    Object o = q.peek();
+
+                    if (o == null) {
+                        if (latest != null) {
+                            if (reserve(1) == 0L) {
+                                break;
+                            }
+                            Object v = LATEST.getAndSet(this, null);
+                            if (v != null) {
+                                a.onNext((T) v);
+                            }
+                            else {
+                                Operators.addCap(REQUESTED, this, 1);
+                            }
+                            continue;
+                        }
+                        if (d) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+
+                    if (e == r) {
+                        break;
+                    }
+
+                    if (o instanceof Batch) {
+                        Batch b = (Batch) o;
+                        Object[] values = b.values;
+                        int i = b.index;
+                        int limit = b.limit;
+                        while (i != limit && e != r) {
+                            if (isCancelled()) {
+                                b.index = i;
+                                clear();
+                                return;
+                            }
+                            a.onNext((T) values[i++]);
+                            e++;
+                        }
+                        b.index = i;
+                        if (i == limit) {
+                            q.poll();
+                        }
+                    }
+                    else {
+                        q.poll();
+                        a.onNext((T) o);
+                        e++;
+                    }
+                }
+
+                if (bounded && e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void clear() {
+            Object o;
+            while ((o = queue.poll()) != null) {
+                if (o instanceof Batch) {
+                    Batch b = (Batch) o;
+                    for (int i = b.index; i < b.limit; i++) {
+                        Operators.onDiscard(b.values[i], ctx);
+                    }
+                }
+                else {
+                    Operators.onDiscard(o, ctx);
+                }
+            }
+            discardLatest();
+        }
+
+        int size() {
+            int n = 0;
+            for (Object o : queue) {
+                if (o instanceof Batch) {
+                    Batch b = (Batch) o;
+                    n += b.limit - b.index;
+                }
+                else {
+                    n++;
+                }
+            }
+            return latest != null ? n + 1 : n;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.BUFFERED) {
+                return size();
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            return super.scanUnsafe(key);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 生产者线程按下游请求数阻塞的 Flux.create {@link BlockingFluxSink} <br>
+ * 1. 每推送一个元素先从 requested 中取走一个请求数，取不到就把当前线程放入等待队列并 park <br>
+ * 2. 下游请求时唤醒等待队列的第一个线程，它拿到请求数后如果还有剩余，再唤醒下一个 <br>
+ * 3. 取消或终止时唤醒所有等待的线程 <br>
+ * 4. 队列中的元素都已经拿到了请求数，drain 时直接推送 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxCreateBlocking<T> extends Flux<T> {
+
+    static <T> Flux<T> createBlocking(Consumer<? super BlockingFluxSink<T>> emitter) {
+        Objects.requireNonNull(emitter, "emitter");
+        return onAssembly(new FluxCreateBlocking<>(emitter));
+    }
+
+    final Consumer<? super BlockingFluxSink<T>> emitter;
+
+    FluxCreateBlocking(Consumer<? super BlockingFluxSink<T>> emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        BlockingSink<T> sink = new BlockingSink<>(actual);
+        actual.onSubscribe(sink);
+        try {
+            emitter.accept(sink);
+        }
+        catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            sink.error(Operators.onOperatorError(ex, actual.currentContext()));
+        }
+    }
+
+    static final class BlockingSink<T> extends BaseSink<T> implements BlockingFluxSink<T> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<BlockingSink> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(BlockingSink.class, "wip");
+
+        final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+        volatile int wip;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        BlockingSink(CoreSubscriber<? super T> actual) {
+            super(actual);
+        }
+
+        @Override
+        public FluxSink<T> next(T t) {
+            Objects.requireNonNull(t, "t");
+            if (!acquire(false, 0L)) {
+                if (done) {
+                    Operators.onNextDropped(t, ctx);
+                }
+                else {
+                    Operators.onDiscard(t, ctx);
+                    if (!isCancelled()) {
+                        // 只有线程被中断时才会走到这里，中断标记已经恢复，由调用方决定如何处理
+                        throw Exceptions.propagate(new InterruptedException(
+                                "Interrupted while waiting for downstream demand"));
+                    }
+                }
+                return this;
+            }
+            queue.offer(t);
+            drain();
+            return this;
+        }
+
+        @Override
+        public boolean offer(T t, Duration timeout) {
+            Objects.requireNonNull(t, "t");
+            Objects.requireNonNull(timeout, "timeout");
+            if (!acquire(true, timeout.toNanos())) {
+                return false;
+            }
+            queue.offer(t);
+            drain();
+            return true;
+        }
+
+        /**
+         * 取走一个请求数，没有请求数时阻塞
+         *
+         * @return false 表示超时、被取消、已终止或者线程被中断
+         */
+        boolean acquire(boolean timed, long nanos) {
+            if (done || isCancelled()) {
+                return false;
+            }
+            if (tryAcquire()) {
+                return true;
+            }
+            if (timed && nanos <= 0L) {
+                return false;
+            }
+            if (Schedulers.isInNonBlockingThread()) {
+                throw new IllegalStateException("BlockingFluxSink would block without downstream demand, " +
+                        "which is not supported in thread " + Thread.currentThread().getName());
+            }
+            Thread current = Thread.currentThread();
+            long deadline = timed ? System.nanoTime() + nanos : 0L;
+            waiters.offer(current);
+            try {
+                for (;;) {
+                    if (done || isCancelled()) {
+                        return false;
+                    }
+                    if (tryAcquire()) {
+                        return true;
+                    }
+                    if (timed) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0L) {
+                            return false;
+                        }
+                        LockSupport.parkNanos(this, remaining);
+                    }
+                    else {
+                        LockSupport.park(this);
+                    }
+                    if (Thread.interrupted()) {
+                        current.interrupt();
+                        return false;
+                    }
+                }
+            }
+            finally {
+                waiters.remove(current);
+                // 把剩余的请求数交给下一个等待的线程
+                if (requested != 0L) {
+                    wakeUpOne();
+                }
+            }
+        }
+
+        boolean tryAcquire() {
+            for (;;) {
+                long r = requested;
+                if (r == 0L) {
+                    return false;
+                }
+                if (r == Long.MAX_VALUE) {
+                    return true;
+                }
+                if (REQUESTED.compareAndSet(this, r, r - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void wakeUpOne() {
+            Thread w = waiters.peek();
+            if (w != null) {
+                LockSupport.unpark(w);
+            }
+        }
+
+        void wakeUpAll() {
+            for (Thread w : waiters) {
+                LockSupport.unpark(w);
+            }
+        }
+
+        @Override
+        public void complete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            wakeUpAll();
+            drain();
+        }
+
+        @Override
+        public void error(Throwable e) {
+            if (done) {
+                Operators.onErrorDropped(e, ctx);
+                return;
+            }
+            error = e;
+            done = true;
+            wakeUpAll();
+            drain();
+        }
+
+        @Override
+        void onRequestedFromDownstream() {
+            wakeUpOne();
+        }
+
+        @Override
+        void onCancel() {
+            wakeUpAll();
+            drain();
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            final CoreSubscriber<? super T> a = actual;
+            final Queue<T> q = queue;
+            int missed = 1;
+
+            for (;;) {
+                for (;;) {
+                    if (isCancelled()) {
+                        Operators.onDiscardQueueWithClear(q, ctx, null);
+                        return;
+                    }
+                    boolean d = done;
+                    T v = q.poll();
+                    if (v == null) {
+                        if (d) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+                    a.onNext(v);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.BUFFERED) {
+                return queue.size();
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            return super.scanUnsafe(key);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 缓存有上限的 Flux.create(emitter, OverflowStrategy.BUFFER) <br>
+ * 1. 放入缓存之前先用CAS预留个数和字节数，预留失败就按 {@link BufferFallback} 处理 <br>
+ * 2. drain 取出元素后马上释放预留的空间，再推送给下游 <br>
+ * 3. BLOCK 模式下等待的生产者在有空间释放、取消或者终止时被唤醒 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxCreateBounded<T> extends Flux<T> {
+
+    static <T> Flux<T> create(Consumer<? super FluxSink<T>> emitter, BoundedBuffer<T> buffer) {
+        Objects.requireNonNull(emitter, "emitter");
+        Objects.requireNonNull(buffer, "buffer");
+        return onAssembly(new FluxCreateBounded<>(emitter, buffer));
+    }
+
+    final Consumer<? super FluxSink<T>> emitter;
+
+    final BoundedBuffer<T> buffer;
+
+    FluxCreateBounded(Consumer<? super FluxSink<T>> emitter, BoundedBuffer<T> buffer) {
+        this.emitter = emitter;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        BoundedSink<T> sink = new BoundedSink<>(actual, buffer);
+        actual.onSubscribe(sink);
+        try {
+            emitter.accept(sink);
+        }
+        catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            sink.error(Operators.onOperatorError(ex, actual.currentContext()));
+        }
+    }
+
+    /**
+     * 配置了 maxBytes 时，缓存中保存元素和它的估算字节数，释放时不需要重新估算
+     */
+    static final class Sized {
+
+        final Object value;
+
+        final long size;
+
+        Sized(Object value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    static final class BoundedSink<T> extends BaseSink<T> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<BoundedSink> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(BoundedSink.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BoundedSink> COUNT =
+                AtomicLongFieldUpdater.newUpdater(BoundedSink.class, "count");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<BoundedSink> BYTES =
+                AtomicLongFieldUpdater.newUpdater(BoundedSink.class, "bytes");
+
+        final BoundedBuffer<T> buffer;
+
+        final BoundedBufferMetrics metrics;
+
+        final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 只在 BLOCK 模式下使用
+         */
+        final ReentrantLock lock;
+
+        final Condition notFull;
+
+        volatile int wip;
+
+        /**
+         * 已预留的元素个数，包括已经预留但还没放入队列的
+         */
+        volatile long count;
+
+        volatile long bytes;
+
+        /**
+         * 正在等待空间的生产者个数，只在持有 lock 时修改
+         */
+        volatile int waiting;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        BoundedSink(CoreSubscriber<? super T> actual, BoundedBuffer<T> buffer) {
+            super(actual);
+            this.buffer = buffer;
+            this.metrics = buffer.metrics;
+            if (buffer.fallback == BufferFallback.BLOCK) {
+                this.lock = new ReentrantLock();
+                this.notFull = lock.newCondition();
+            }
+            else {
+                this.lock = null;
+                this.notFull = null;
+            }
+        }
+
+        @Override
+        public FluxSink<T> next(T t) {
+            Objects.requireNonNull(t, "t");
+            if (done) {
+                Operators.onNextDropped(t, ctx);
+                return this;
+            }
+            if (isCancelled()) {
+                Operators.onDiscard(t, ctx);
+                return this;
+            }
+            long size = buffer.sizeEstimator != null ? buffer.sizeEstimator.applyAsLong(t) : 0L;
+            if (admit(t, size)) {
+                queue.offer(buffer.sizeEstimator != null ? new Sized(t, size) : t);
+                if (metrics != null) {
+                    metrics.depth.increment();
+                    metrics.bytes.add(size);
+                }
+                signal();
+            }
+            return this;
+        }
+
+        /**
+         * 预留一个元素的空间，失败时按 fallback 处理
+         *
+         * @return true 表示预留成功，可以放入队列
+         */
+        boolean admit(T t, long size) {
+            for (;;) {
+                if (tryReserve(size)) {
+                    return true;
+                }
+                switch (buffer.fallback) {
+                    case DROP_NEWEST:
+                        drop(t);
+                        return false;
+                    case DROP_OLDEST:
+                        if (isCancelled() || done) {
+                            Operators.onDiscard(t, ctx);
+                            return false;
+                        }
+                        Object oldest = queue.poll();
+                        if (oldest != null) {
+                            release(oldest);
+                            drop(valueOf(oldest));
+                        }
+                        else {
+                            // 空间被其他生产者预留了，但还没放入队列
+                            Thread.yield();
+                        }
+                        break;
+                    case BLOCK:
+                        return await(t, size);
+                    default:
+                        overflow(t, "The receiver is overrun by more signals than expected (bounded buffer " + buffer + ")");
+                        return false;
+                }
+            }
+        }
+
+        boolean tryReserve(long size) {
+            long maxElements = buffer.maxElements;
+            for (;;) {
+                long c = count;
+                if (c >= maxElements) {
+                    return false;
+                }
+                if (COUNT.compareAndSet(this, c, c + 1)) {
+                    break;
+                }
+            }
+            long maxBytes = buffer.maxBytes;
+            if (maxBytes != Long.MAX_VALUE) {
+                for (;;) {
+                    long b = bytes;
+                    // 缓存为空时，超过maxBytes的单个元素也可以放入
+                    if (b != 0L && b + size > maxBytes) {
+                        COUNT.decrementAndGet(this);
+                        return false;
+                    }
+                    if (BYTES.compareAndSet(this, b, b + size)) {
+                        break;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void release(Object entry) {
+            COUNT.decrementAndGet(this);
+            long size = 0L;
+            if (entry instanceof Sized) {
+                size = ((Sized) entry).size;
+                BYTES.addAndGet(this, -size);
+            }
+            if (metrics != null) {
+                metrics.depth.decrement();
+                metrics.bytes.add(-size);
+            }
+            if (waiting != 0) {
+                signalNotFull();
+            }
+        }
+
+        boolean await(T t, long size) {
+            if (Schedulers.isInNonBlockingThread()) {
+                Operators.onDiscard(t, ctx);
+                throw new IllegalStateException("FluxSink.next() would block in BufferFallback.BLOCK mode, " +
+                        "which is not supported in thread " + Thread.currentThread().getName());
+            }
+            if (metrics != null) {
+                metrics.blocked.increment();
+            }
+            long deadline = System.nanoTime() + buffer.blockTimeout.toNanos();
+            ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                waiting++;
+                for (;;) {
+                    if (isCancelled()) {
+                        Operators.onDiscard(t, ctx);
+                        return false;
+                    }
+                    if (done) {
+                        Operators.onNextDropped(t, ctx);
+                        return false;
+                    }
+                    if (tryReserve(size)) {
+                        return true;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        break;
+                    }
+                    notFull.awaitNanos(remaining);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(t);
+                return false;
+            }
+            finally {
+                waiting--;
+                lock.unlock();
+            }
+            overflow(t, "Bounded buffer still full after blocking for " + buffer.blockTimeout);
+            return false;
+        }
+
+        void signalNotFull() {
+            ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                notFull.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        void drop(Object t) {
+            if (metrics != null) {
+                metrics.dropped.increment();
+            }
+            Operators.onDiscard(t, ctx);
+        }
+
+        void overflow(T t, String message) {
+            if (metrics != null) {
+                metrics.overflows.increment();
+            }
+            error(Exceptions.failWithOverflow(message));
+            Operators.onDiscard(t, ctx);
+        }
+
+        static Object valueOf(Object entry) {
+            return entry instanceof Sized ? ((Sized) entry).value : entry;
+        }
+
+        @Override
+        public void complete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            wakeUpProducers();
+            signal();
+        }
+
+        @Override
+        public void error(Throwable e) {
+            if (done) {
+                Operators.onErrorDropped(e, ctx);
+                return;
+            }
+            error = e;
+            done = true;
+            wakeUpProducers();
+            signal();
+        }
+
+        @Override
+        void onRequestedFromDownstream() {
+            signal();
+        }
+
+        @Override
+        void onCancel() {
+            wakeUpProducers();
+            signal();
+        }
+
+        void wakeUpProducers() {
+            if (lock != null && waiting != 0) {
+                signalNotFull();
+            }
+        }
+
+        void signal() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            drainLoop();
+        }
+
+        @SuppressWarnings("unchecked")
+        void drainLoop() {
+            final CoreSubscriber<? super T> a = actual;
+            final Queue<Object> q = queue;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+
+                while (e != r) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    Object o = q.poll();
+                    if (o == null) {
+                        if (d) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+                    release(o);
+                    a.onNext((T) valueOf(o));
+                    e++;
+                }
+
+                if (e == r) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    if (done && q.isEmpty()) {
+                        terminate(error);
+                        return;
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void clear() {
+            Object o;
+            while ((o = queue.poll()) != null) {
+                release(o);
+                Operators.onDiscard(valueOf(o), ctx);
+            }
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.BUFFERED) {
+                return (int) Math.min(count, Integer.MAX_VALUE);
+            }
+            if (key == Attr.CAPACITY) {
+                return (int) Math.min(buffer.maxElements, Integer.MAX_VALUE);
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            return super.scanUnsafe(key);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * 多线程生产数据的 Flux.create，相当于 OverflowStrategy.BUFFER <br>
+ * Flux.create 的 SerializedSink 让所有生产者线程竞争同一个队列和同一个WIP计数器；
+ * 这里把缓存拆成多个通道（lane），每个线程固定写入自己的通道，由一个drain循环轮流取出数据推送给下游 <br>
+ * 1. 同一个线程推送的数据保持顺序，不同线程之间的顺序不保证（和 SerializedSink 一样） <br>
+ * 2. 线程数不超过通道数时，每个通道只有一个生产者，是真正的单生产者单消费者队列 <br>
+ * 3. 正在drain时，生产者只需要一次volatile读就能返回，不会每个元素都去修改共享的计数器 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+final class FluxCreateStriped<T> extends Flux<T> {
+
+    static <T> Flux<T> create(Consumer<? super FluxSink<T>> emitter, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes > 0 required but it was " + stripes);
+        }
+        return onAssembly(new FluxCreateStriped<>(emitter, Queues.ceilingNextPowerOfTwo(stripes)));
+    }
+
+    final Consumer<? super FluxSink<T>> emitter;
+
+    final int stripes;
+
+    FluxCreateStriped(Consumer<? super FluxSink<T>> emitter, int stripes) {
+        this.emitter = emitter;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        StripedSink<T> sink = new StripedSink<>(actual, stripes);
+        actual.onSubscribe(sink);
+        try {
+            emitter.accept(sink);
+        }
+        catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            sink.error(Operators.onOperatorError(ex, actual.currentContext()));
+        }
+    }
+
+    /**
+     * 每个通道一个单生产者单消费者队列，lock 保证同一时刻只有一个线程写入
+     */
+    static final class Lane<T> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<Lane> LOCK =
+                AtomicIntegerFieldUpdater.newUpdater(Lane.class, "lock");
+
+        final Queue<T> queue = Queues.<T>unbounded(Queues.XS_BUFFER_SIZE).get();
+
+        volatile int lock;
+
+        void offer(T t) {
+            int spins = 0;
+            while (!LOCK.compareAndSet(this, 0, 1)) {
+                if (++spins > 64) {
+                    Thread.yield();
+                }
+            }
+            queue.offer(t);
+            // volatile写：下一个拿到lock的生产者能看到队列的写入状态
+            lock = 0;
+        }
+
+        /**
+         * lock != 0 表示有生产者正在写入，数据马上就会到，不能当作空通道
+         */
+        boolean isEmpty() {
+            return lock == 0 && queue.isEmpty();
+        }
+    }
+
+    static final class StripedSink<T> extends BaseSink<T> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<StripedSink> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(StripedSink.class, "wip");
+
+        /**
+         * 没有在drain
+         */
+        static final int IDLE = 0;
+
+        /**
+         * 正在drain
+         */
+        static final int DRAINING = 1;
+
+        /**
+         * 正在drain，并且drain期间有新的数据或信号，需要再检查一遍
+         */
+        static final int MISSED = 2;
+
+        /**
+         * 从一个通道连续取出的最大个数，超过之后切换到下一个通道，避免某个生产者独占下游
+         */
+        static final int LANE_BATCH = 64;
+
+        final Lane<T>[] lanes;
+
+        final int mask;
+
+        volatile int wip;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        int laneIndex;
+
+        @SuppressWarnings("unchecked")
+        StripedSink(CoreSubscriber<? super T> actual, int stripes) {
+            super(actual);
+            this.lanes = new Lane[stripes];
+            for (int i = 0; i < stripes; i++) {
+                lanes[i] = new Lane<>();
+            }
+            this.mask = stripes - 1;
+        }
+
+        @Override
+        public FluxSink<T> next(T t) {
+            if (done) {
+                Operators.onNextDropped(t, ctx);
+                return this;
+            }
+            if (isCancelled()) {
+                return this;
+            }
+            long id = Thread.currentThread().getId();
+            lanes[(int) (id ^ (id >>> 32)) & mask].offer(t);
+            signal();
+            return this;
+        }
+
+        @Override
+        public void complete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            signal();
+        }
+
+        @Override
+        public void error(Throwable e) {
+            if (done) {
+                Operators.onErrorDropped(e, ctx);
+                return;
+            }
+            error = e;
+            done = true;
+            signal();
+        }
+
+        @Override
+        void onRequestedFromDownstream() {
+            signal();
+        }
+
+        @Override
+        void onCancel() {
+            signal();
+        }
+
+        /**
+         * IDLE时由当前线程drain，DRAINING时标记为MISSED，MISSED时直接返回（drain线程一定会再检查一遍）
+         */
+        void signal() {
+            for (;;) {
+                int w = wip;
+                if (w == IDLE) {
+                    if (WIP.compareAndSet(this, IDLE, DRAINING)) {
+                        drainLoop();
+                        return;
+                    }
+                }
+                else if (w == DRAINING) {
+                    if (WIP.compareAndSet(this, DRAINING, MISSED)) {
+                        return;
+                    }
+                }
+                else {
+                    return;
+                }
+            }
+        }
+
+        void drainLoop() {
+            final CoreSubscriber<? super T> a = actual;
+            final Lane<T>[] lanes = this.lanes;
+            int index = laneIndex;
+
+            for (;;) {
+                long r = requested;
+                long e = 0L;
+                int batch = 0;
+
+                while (e != r) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    T v = null;
+                    for (int k = 0; k <= mask; k++) {
+                        v = lanes[index].queue.poll();
+                        if (v != null) {
+                            break;
+                        }
+                        index = (index + 1) & mask;
+                        batch = 0;
+                    }
+                    if (v == null) {
+                        if (d && isEmpty()) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+                    a.onNext(v);
+                    e++;
+                    if (++batch == LANE_BATCH) {
+                        index = (index + 1) & mask;
+                        batch = 0;
+                    }
+                }
+
+                if (e == r) {
+                    if (isCancelled()) {
+                        clear();
+                        return;
+                    }
+                    if (done && isEmpty()) {
+                        terminate(error);
+                        return;
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                if (WIP.compareAndSet(this, DRAINING, IDLE)) {
+                    laneIndex = index;
+                    return;
+                }
+                // MISSED：只有drain线程会把MISSED改回DRAINING，然后再检查一遍所有通道
+                wip = DRAINING;
+            }
+        }
+
+        boolean isEmpty() {
+            for (Lane<T> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void clear() {
+            for (Lane<T> lane : lanes) {
+                lane.queue.clear();
+            }
+        }
+
+        int size() {
+            int n = 0;
+            for (Lane<T> lane : lanes) {
+                n += lane.queue.size();
+            }
+            return n;
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.BUFFERED) {
+                return size();
+            }
+            if (key == Attr.TERMINATED) {
+                return done;
+            }
+            if (key == Attr.ERROR) {
+                return error;
+            }
+            return super.scanUnsafe(key);
+        }
+    }
+}
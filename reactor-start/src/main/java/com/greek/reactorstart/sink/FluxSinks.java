@@ -0,0 +1,95 @@
+package com.greek.reactorstart.sink;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.function.Consumer;
+
+/**
+ * Flux.create 的其他实现，用法和 Flux.create 一样 <br>
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public final class FluxSinks {
+
+    /**
+     * 默认通道数：CPU核数的两倍
+     */
+    public static final int DEFAULT_STRIPES = Runtime.getRuntime().availableProcessors() * 2;
+
+    private FluxSinks() {
+    }
+
+    /**
+     * 多个线程同时调用 FluxSink.next 的场景，代替 Flux.create(emitter, OverflowStrategy.BUFFER) <br>
+     * 每个线程写入自己的通道，同一个线程推送的数据保持顺序
+     *
+     * @param emitter 推送数据的函数
+     * @param <T>     元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createStriped(Consumer<? super FluxSink<T>> emitter) {
+        return createStriped(emitter, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param emitter 推送数据的函数
+     * @param stripes 通道数，会向上取整为2的幂
+     * @param <T>     元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createStriped(Consumer<? super FluxSink<T>> emitter, int stripes) {
+        return FluxCreateStriped.create(emitter, stripes);
+    }
+
+    /**
+     * 和 Flux.create(emitter) 一样，sink 额外支持 nextAll 批量推送
+     *
+     * @param emitter 推送数据的函数
+     * @param <T>     元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createBatched(Consumer<? super BatchFluxSink<T>> emitter) {
+        return createBatched(emitter, FluxSink.OverflowStrategy.BUFFER);
+    }
+
+    /**
+     * 和 Flux.create(emitter, strategy) 一样，sink 额外支持 nextAll 批量推送 <br>
+     * 一批元素的溢出处理和逐个调用 next 的结果相同
+     *
+     * @param emitter  推送数据的函数
+     * @param strategy 溢出策略
+     * @param <T>      元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createBatched(Consumer<? super BatchFluxSink<T>> emitter,
+                                            FluxSink.OverflowStrategy strategy) {
+        return FluxCreateBatched.createBatched(emitter, strategy);
+    }
+
+    /**
+     * 代替 Flux.create(emitter, OverflowStrategy.BUFFER)，缓存按元素个数和/或估算字节数限制大小，
+     * 满了之后按 {@link BufferFallback} 处理，避免下游太慢时缓存无限增长
+     *
+     * @param emitter 推送数据的函数
+     * @param buffer  缓存的上限和溢出处理
+     * @param <T>     元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createBounded(Consumer<? super FluxSink<T>> emitter, BoundedBuffer<T> buffer) {
+        return FluxCreateBounded.create(emitter, buffer);
+    }
+
+    /**
+     * 生产者线程按下游的请求数推送：没有请求数时 next 阻塞调用线程，不需要轮询 requestedFromDownstream() <br>
+     * 注意 Processor.sink() 会向 Processor 请求 Long.MAX_VALUE，无法把下游的请求数传给生产者，需要背压时用这个方法代替
+     *
+     * @param emitter 推送数据的函数，通常把 sink 交给其他线程使用
+     * @param <T>     元素类型
+     * @return 新的Flux
+     */
+    public static <T> Flux<T> createBlocking(Consumer<? super BlockingFluxSink<T>> emitter) {
+        return FluxCreateBlocking.createBlocking(emitter);
+    }
+}
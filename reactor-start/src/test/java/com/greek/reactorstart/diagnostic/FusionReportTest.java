@@ -0,0 +1,125 @@
+package com.greek.reactorstart.diagnostic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 SchedulerTest#fuseableTest 和 TransformDemo#errorModeContinueNullPublisher，一次检查整条链的融合情况
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("操作链的融合报告")
+public class FusionReportTest {
+
+    Scheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = Schedulers.newSingle("fusion");
+    }
+
+    @AfterEach
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("publishOn 直接接在 range 后面时同步融合，队列就是 range 本身")
+    public void syncFusion() {
+        FusionReport report = subscribe(Flux.range(0, 10).publishOn(scheduler));
+
+        FusionReport.Edge edge = report.edges().get(0);
+        Assertions.assertEquals(FusionReport.Mode.SYNC, edge.mode());
+        assertThat(edge.queue()).startsWith("fused(");
+        Assertions.assertEquals(256, edge.prefetch());
+        Assertions.assertEquals("", edge.reason());
+    }
+
+    @Test
+    @DisplayName("UnicastProcessor 和 publishOn 异步融合")
+    public void asyncFusion() {
+        UnicastProcessor<Integer> processor = UnicastProcessor.create();
+        AtomicReference<Subscription> upstream = new AtomicReference<>();
+        StepVerifier.create(processor.publishOn(scheduler).doOnSubscribe(upstream::set))
+                .then(() -> {
+                    processor.onNext(1);
+                    processor.onComplete();
+                })
+                .expectNext(1)
+                .verifyComplete();
+
+        FusionReport report = FusionReport.subscribed(upstream.get());
+        Assertions.assertEquals(FusionReport.Mode.ASYNC, report.edges().get(0).mode());
+    }
+
+    @Test
+    @DisplayName("map 拒绝 publishOn 的 THREAD_BARRIER，range 和 map 之间也不再融合")
+    public void threadBarrier() {
+        FusionReport report = subscribe(Flux.range(0, 10)
+                .map(item -> item * item)
+                .publishOn(scheduler)
+                .filter(item -> item % 2 != 0));
+
+        List<FusionReport.Edge> edges = report.edges();
+        Assertions.assertEquals(3, edges.size());
+        assertThat(edges).extracting(FusionReport.Edge::mode).containsOnly(FusionReport.Mode.NONE);
+        assertThat(edges.get(0).reason()).contains("not fused downstream");
+        assertThat(edges.get(1).reason()).contains("THREAD_BARRIER");
+        assertThat(edges.get(1).queue()).isNotEqualTo("-");
+        assertThat(edges.get(2).reason()).contains("did not request fusion");
+        assertThat(report.toString()).contains(" -> ");
+    }
+
+    @Test
+    @DisplayName("hide() 打断融合")
+    public void hideBreaksFusion() {
+        FusionReport report = subscribe(Flux.range(0, 10).hide().publishOn(scheduler));
+
+        FusionReport.Edge edge = report.edges().get(1);
+        Assertions.assertEquals(FusionReport.Mode.NONE, edge.mode());
+        assertThat(edge.reason()).contains("does not support fusion");
+        Assertions.assertEquals(report.edges().size(), report.unfused().size());
+    }
+
+    @Test
+    @DisplayName("还没订阅时找出一定不会融合的边")
+    public void assembly() {
+        Flux<Integer> test = Flux.just(1, 2, 3)
+                .hide()
+                .flatMap(Flux::just)
+                .log();
+        FusionReport report = FusionReport.assembly(test);
+        Assertions.assertEquals(3, report.edges().size());
+        Assertions.assertEquals(3, report.unfused().size());
+
+        FusionReport fuseable = FusionReport.assembly(Flux.range(0, 10).map(item -> item * item));
+        Assertions.assertEquals(FusionReport.Mode.UNKNOWN, fuseable.edges().get(0).mode());
+    }
+
+    @Test
+    @DisplayName("参数不能扫描时抛出异常")
+    public void notScannable() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FusionReport.subscribed(new Object()));
+    }
+
+    FusionReport subscribe(Flux<Integer> flux) {
+        AtomicReference<Subscription> upstream = new AtomicReference<>();
+        flux.doOnSubscribe(upstream::set).blockLast();
+        return FusionReport.subscribed(upstream.get());
+    }
+}
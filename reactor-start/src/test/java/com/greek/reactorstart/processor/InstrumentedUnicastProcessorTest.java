@@ -0,0 +1,105 @@
+package com.greek.reactorstart.processor;
+
+import com.greek.reactorstart.queue.IntSpscQueue;
+import com.greek.reactorstart.queue.QueueAttr;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.FluxSink;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.LinkedBlockingDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 UnicastProcessorTest#overflowQueueTerminate，溢出之前就能看到队列有多满
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("可以观察缓存队列状态的UnicastProcessor")
+public class InstrumentedUnicastProcessorTest {
+
+    @Test
+    @DisplayName("通过scan读取深度、最大深度、入队和出队次数")
+    public void scanQueue() {
+        InstrumentedUnicastProcessor<Integer> processor = InstrumentedUnicastProcessor.create(new IntSpscQueue(16), 16);
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+        processor.subscribe(ts);
+
+        for (int i = 0; i < 5; i++) {
+            processor.onNext(i);
+        }
+        assertThat(processor.scan(Scannable.Attr.BUFFERED)).isEqualTo(5);
+        assertThat(processor.scan(Scannable.Attr.CAPACITY)).isEqualTo(16);
+        assertThat(processor.scan(QueueAttr.ENQUEUED)).isEqualTo(5L);
+
+        ts.request(3);
+        ts.assertValues(0, 1, 2);
+        assertThat(processor.scan(Scannable.Attr.BUFFERED)).isEqualTo(2);
+        assertThat(processor.scan(QueueAttr.DEQUEUED)).isEqualTo(3L);
+        assertThat(processor.scan(QueueAttr.HIGH_WATER_MARK)).isEqualTo(5L);
+        assertThat(processor.scan(QueueAttr.OVERFLOWS)).isEqualTo(0L);
+        // 其余属性来自 UnicastProcessor
+        assertThat(processor.scan(Scannable.Attr.TERMINATED)).isFalse();
+
+        ts.cancel();
+        assertThat(processor.scan(Scannable.Attr.BUFFERED)).isEqualTo(0);
+        assertThat(processor.scan(QueueAttr.DEQUEUED)).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("队列溢出时记录溢出次数，仍然调用onOverflow")
+    public void overflow() {
+        LinkedBlockingDeque<Integer> queue = new LinkedBlockingDeque<>(1);
+        int[] overflowed = new int[1];
+        InstrumentedUnicastProcessor<Integer> processor =
+                InstrumentedUnicastProcessor.create(queue, 1, v -> overflowed[0]++, () -> {});
+
+        StepVerifier
+                .create(processor, 0L)
+                .then(() -> {
+                    FluxSink<Integer> sink = processor.sink();
+                    sink.next(0);
+                    sink.next(1);
+                })
+                .thenRequest(1)
+                .expectNext(0)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify();
+
+        Assertions.assertEquals(1, overflowed[0]);
+        Assertions.assertEquals(1, processor.queue().overflows());
+        Assertions.assertEquals(1, processor.queue().highWaterMark());
+    }
+
+    @Test
+    @DisplayName("注册到Micrometer")
+    public void micrometer() {
+        InstrumentedUnicastProcessor<Integer> processor =
+                InstrumentedUnicastProcessor.create(Queues.<Integer>get(8).get(), 8);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new UnicastProcessorMetrics(processor, "orders", Tags.of("app", "test")).bindTo(registry);
+
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(1);
+        processor.subscribe(ts);
+        processor.onNext(1);
+        processor.onNext(2);
+        processor.onNext(3);
+        ts.assertValues(1);
+
+        Assertions.assertEquals(2.0, registry.get("reactor.unicast.queue.depth").tag("name", "orders").gauge().value());
+        Assertions.assertEquals(8.0, registry.get("reactor.unicast.queue.capacity").gauge().value());
+        Assertions.assertEquals(2.0, registry.get("reactor.unicast.queue.high.water").gauge().value());
+        Assertions.assertEquals(3.0, registry.get("reactor.unicast.queue.enqueued").tag("app", "test")
+                .functionCounter().count());
+        Assertions.assertEquals(0.0, registry.get("reactor.unicast.queue.overflows").functionCounter().count());
+    }
+}
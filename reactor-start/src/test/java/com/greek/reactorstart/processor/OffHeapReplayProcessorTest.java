@@ -0,0 +1,169 @@
+package com.greek.reactorstart.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 DirectProcessorTest#afterOnNextAddSubscriber，后来的订阅者可以从堆外缓存中重放之前的数据
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("历史数据保存在堆外内存中的ReplayProcessor")
+public class OffHeapReplayProcessorTest {
+
+    @Test
+    @DisplayName("后来的订阅者重放缓存中的数据")
+    public void lateSubscriberReplays() {
+        OffHeapReplayProcessor<String> processor = OffHeapReplayProcessor.direct(1024, ElementCodec.utf8());
+        processor.onNext("test1");
+        processor.onNext("测试2");
+
+        StepVerifier
+                .create(processor)
+                .expectNext("test1", "测试2")
+                .then(() -> processor.onNext("test3"))
+                .expectNext("test3")
+                .then(processor::onComplete)
+                .verifyComplete();
+
+        // 完成之后订阅仍然重放
+        StepVerifier
+                .create(processor)
+                .expectNext("test1", "测试2", "test3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("缓存写满之后覆盖最早的元素")
+    public void overwriteOldest() {
+        // 每个元素 4 字节长度 + 4 字节数据，正好放下8个
+        OffHeapReplayProcessor<Integer> processor = OffHeapReplayProcessor.direct(64, ElementCodec.ints());
+        Flux.range(0, 20).subscribe(processor);
+
+        Assertions.assertEquals(8, processor.retainedElements());
+        assertThat(processor.scan(Scannable.Attr.BUFFERED)).isEqualTo(8);
+        StepVerifier
+                .create(processor)
+                .expectNext(12, 13, 14, 15, 16, 17, 18, 19)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("元素长度不同时，末尾放不下的元素从头开始写")
+    public void wrapVariableLength() {
+        OffHeapReplayProcessor<String> processor = OffHeapReplayProcessor.direct(64, ElementCodec.utf8());
+        AssertSubscriber<String> ts = AssertSubscriber.create();
+        processor.subscribe(ts);
+
+        for (int i = 0; i < 100; i++) {
+            processor.onNext(i % 3 == 0 ? "v" + i : "value-" + i);
+        }
+        processor.onComplete();
+        ts.assertValueCount(100).assertComplete();
+
+        AssertSubscriber<String> late = AssertSubscriber.create();
+        processor.subscribe(late);
+        late.assertComplete();
+        assertThat(late.values()).isNotEmpty().endsWith("v99");
+        Assertions.assertEquals(processor.retainedElements(), late.values().size());
+    }
+
+    @Test
+    @DisplayName("内存映射文件")
+    public void mappedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("replay.ring");
+        OffHeapReplayProcessor<Long> processor = OffHeapReplayProcessor.mapped(file, 4096, ElementCodec.longs());
+        Flux.range(0, 100).map(Long::valueOf).subscribe(processor);
+
+        Assertions.assertEquals(4096, Files.size(file));
+        StepVerifier
+                .create(processor)
+                .expectNextCount(100)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("DROP_SUBSCRIBER：读取的位置被覆盖时，订阅者收到溢出错误")
+    public void dropLaggingSubscriber() {
+        OffHeapReplayProcessor<Integer> processor = OffHeapReplayProcessor.direct(64, ElementCodec.ints());
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+        processor.subscribe(fast);
+        processor.subscribe(slow);
+
+        Flux.range(0, 8).subscribe(processor::onNext);
+        slow.assertNotTerminated();
+
+        processor.onNext(8);
+        slow.assertNoValues()
+                .assertErrorWith(e -> assertThat(Exceptions.isOverflow(e)).isTrue());
+        Assertions.assertEquals(1, processor.laggedSubscribers());
+        fast.assertValueCount(9);
+    }
+
+    @Test
+    @DisplayName("SKIP_AHEAD：读取的位置被覆盖时，跳到缓存中最早的元素")
+    public void skipAhead() {
+        OffHeapReplayProcessor<Integer> processor =
+                OffHeapReplayProcessor.direct(64, ElementCodec.ints(), LagPolicy.SKIP_AHEAD);
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+        processor.subscribe(slow);
+
+        Flux.range(0, 20).subscribe(processor);
+        slow.request(Long.MAX_VALUE);
+        slow.assertValues(12, 13, 14, 15, 16, 17, 18, 19).assertComplete();
+        Assertions.assertEquals(12, processor.skippedElements());
+    }
+
+    @Test
+    @DisplayName("元素超过缓存大小时发出错误信号")
+    public void elementTooLarge() {
+        OffHeapReplayProcessor<String> processor = OffHeapReplayProcessor.direct(64, ElementCodec.utf8());
+
+        StepVerifier
+                .create(processor)
+                .then(() -> processor.onNext(new String(new char[100]).replace('\0', 'x')))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("生产者覆盖数据的同时读取，订阅者不会读到损坏的数据")
+    public void concurrentOverwrite() {
+        int count = 200_000;
+        OffHeapReplayProcessor<Long> processor =
+                OffHeapReplayProcessor.direct(4096, ElementCodec.longs(), LagPolicy.SKIP_AHEAD);
+        AtomicLong last = new AtomicLong(-1);
+
+        StepVerifier
+                .create(processor.publishOn(Schedulers.single(), 32)
+                        .doOnNext(v -> {
+                            assertThat(v).isGreaterThan(last.get());
+                            last.set(v);
+                        })
+                        .count())
+                .then(() -> Flux.range(0, count).map(Long::valueOf)
+                        .subscribeOn(Schedulers.parallel())
+                        .subscribe(processor))
+                .assertNext(received -> Assertions.assertEquals(count, received + processor.skippedElements()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+        Assertions.assertEquals(count - 1, last.get());
+    }
+}
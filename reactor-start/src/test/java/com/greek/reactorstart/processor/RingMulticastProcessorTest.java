@@ -0,0 +1,184 @@
+package com.greek.reactorstart.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 EmitterProcessorTest#slowestSubscriberGatesAll，慢的订阅者不再拖慢其他订阅者
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("每个订阅者独立背压的广播Processor")
+public class RingMulticastProcessorTest {
+
+    @Test
+    @DisplayName("正常")
+    public void normal() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create();
+        Assertions.assertEquals(Queues.SMALL_BUFFER_SIZE, processor.getBufferSize());
+
+        StepVerifier
+                .create(processor)
+                .then(() -> Assertions.assertTrue(processor.hasDownstreams(), "缺少订阅者"))
+                .then(() -> {
+                    processor.onNext(1);
+                    processor.onNext(2);
+                })
+                .expectNext(1, 2)
+                .then(() -> {
+                    processor.onNext(3);
+                    processor.onComplete();
+                })
+                .expectNext(3)
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("容量向上取整为2的幂")
+    public void capacity() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create(10, LagPolicy.SKIP_AHEAD);
+        Assertions.assertEquals(16, processor.getBufferSize());
+        assertThat(processor.scan(Scannable.Attr.CAPACITY)).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("每个订阅者按自己的请求数消费，慢的订阅者不影响快的订阅者")
+    public void slowSubscriberDoesNotGateOthers() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create(16, LagPolicy.DROP_SUBSCRIBER);
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(1);
+
+        processor.subscribe(fast);
+        processor.subscribe(slow);
+        Assertions.assertEquals(2, processor.downstreamCount());
+
+        processor.onNext(1);
+        processor.onNext(2);
+        processor.onNext(3);
+
+        fast.assertValues(1, 2, 3);
+        slow.assertValues(1);
+
+        slow.request(10);
+        slow.assertValues(1, 2, 3);
+
+        processor.onComplete();
+        fast.assertComplete();
+        slow.assertComplete();
+    }
+
+    @Test
+    @DisplayName("DROP_SUBSCRIBER：落后超过容量的订阅者收到溢出错误，其他订阅者继续")
+    public void dropLaggingSubscriber() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create(4, LagPolicy.DROP_SUBSCRIBER);
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+
+        processor.subscribe(fast);
+        processor.subscribe(slow);
+
+        Flux.range(1, 4).subscribe(processor::onNext);
+        slow.assertNoValues().assertNotTerminated();
+
+        processor.onNext(5);
+        slow.assertNoValues()
+                .assertError()
+                .assertErrorWith(e -> assertThat(Exceptions.isOverflow(e)).isTrue());
+        Assertions.assertEquals(1, processor.laggedSubscribers());
+        Assertions.assertEquals(1, processor.downstreamCount());
+
+        processor.onNext(6);
+        processor.onComplete();
+        fast.assertValues(1, 2, 3, 4, 5, 6).assertComplete();
+    }
+
+    @Test
+    @DisplayName("SKIP_AHEAD：落后的订阅者跳到缓存中最早的元素，记录跳过的个数")
+    public void skipAhead() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create(4, LagPolicy.SKIP_AHEAD);
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+
+        processor.subscribe(fast);
+        processor.subscribe(slow);
+
+        Flux.range(0, 10).subscribe(processor::onNext);
+        fast.assertValueCount(10);
+        Assertions.assertEquals(6, processor.skippedElements());
+        assertThat(Scannable.from(slow.upstream()).scan(Scannable.Attr.BUFFERED)).isEqualTo(4);
+
+        slow.request(Long.MAX_VALUE);
+        slow.assertValues(6, 7, 8, 9);
+
+        processor.onNext(10);
+        processor.onComplete();
+        slow.assertValues(6, 7, 8, 9, 10).assertComplete();
+        Assertions.assertEquals(0, processor.laggedSubscribers());
+    }
+
+    @Test
+    @DisplayName("推送过的数据不再推送给后来的订阅者")
+    public void lateSubscriber() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create();
+        AssertSubscriber<Integer> ts_1 = AssertSubscriber.create();
+        AssertSubscriber<Integer> ts_2 = AssertSubscriber.create();
+
+        processor.subscribe(ts_1);
+        processor.onNext(1);
+        processor.onNext(2);
+
+        processor.subscribe(ts_2);
+        processor.onNext(3);
+        processor.onComplete();
+
+        ts_1.assertValues(1, 2, 3).assertComplete();
+        ts_2.assertValues(3).assertComplete();
+    }
+
+    @Test
+    @DisplayName("错误信号推送给所有订阅者，之后的订阅者直接收到错误")
+    public void error() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create();
+        AssertSubscriber<Integer> ts_1 = AssertSubscriber.create();
+        AssertSubscriber<Integer> ts_2 = AssertSubscriber.create(0);
+        AssertSubscriber<Integer> late = AssertSubscriber.create();
+
+        processor.subscribe(ts_1);
+        processor.subscribe(ts_2);
+        processor.onNext(1);
+        processor.onError(new IllegalStateException("boom"));
+
+        ts_1.assertValues(1).assertErrorMessage("boom");
+        // 先推送缓存中的数据，再推送错误
+        ts_2.assertNoValues().assertNotTerminated();
+        ts_2.request(1);
+        ts_2.assertValues(1).assertErrorMessage("boom");
+        Assertions.assertTrue(processor.hasError(), "no error ?");
+
+        processor.subscribe(late);
+        late.assertNoValues().assertErrorMessage("boom");
+    }
+
+    @Test
+    @DisplayName("订阅Publisher并把数据同步给订阅者")
+    public void subscribeToPublisher() {
+        RingMulticastProcessor<Integer> processor = RingMulticastProcessor.create();
+
+        StepVerifier
+                .create(processor)
+                .then(() -> Flux.range(1, 5).subscribe(processor))
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+    }
+}
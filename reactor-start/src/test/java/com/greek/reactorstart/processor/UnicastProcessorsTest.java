@@ -0,0 +1,84 @@
+package com.greek.reactorstart.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 对应 UnicastProcessorTest#overflowQueueTerminate，缓存队列换成基本类型数组
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("基本类型队列的UnicastProcessor")
+public class UnicastProcessorsTest {
+
+    @Test
+    @DisplayName("没有订阅者时缓存数据")
+    public void buffered() {
+        UnicastProcessor<Long> processor = UnicastProcessors.longs(16);
+        processor.onNext(Long.MIN_VALUE);
+        processor.onNext(Long.MAX_VALUE);
+        processor.onComplete();
+
+        StepVerifier
+                .create(processor)
+                .expectNext(Long.MIN_VALUE, Long.MAX_VALUE)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("队列溢出时调用onOverflow并发出溢出错误，终止时调用onTerminate")
+    public void overflow() {
+        List<Integer> overflowed = new ArrayList<>();
+        AtomicBoolean terminated = new AtomicBoolean();
+        UnicastProcessor<Integer> processor = UnicastProcessors.ints(1, overflowed::add, () -> terminated.set(true));
+
+        StepVerifier
+                .create(processor, 0L)
+                .then(() -> {
+                    FluxSink<Integer> sink = processor.sink();
+                    for (int i = 0; i < 20; i++) {
+                        sink.next(i);
+                    }
+                    sink.complete();
+                })
+                .thenRequest(1)
+                .expectNext(0)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify();
+
+        Assertions.assertEquals(1, overflowed.get(0));
+        Assertions.assertTrue(terminated.get(), "onTerminate not called ?");
+    }
+
+    @Test
+    @DisplayName("生产者和消费者在不同线程")
+    public void publishOn() {
+        int count = 100_000;
+        UnicastProcessor<Integer> processor = UnicastProcessors.ints(count);
+
+        StepVerifier
+                .create(processor.publishOn(Schedulers.single()), 0L)
+                .then(() -> {
+                    for (int i = 0; i < count; i++) {
+                        processor.onNext(i);
+                    }
+                    processor.onComplete();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(count)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+}
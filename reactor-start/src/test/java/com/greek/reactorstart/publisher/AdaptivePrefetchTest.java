@@ -0,0 +1,182 @@
+package com.greek.reactorstart.publisher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 SchedulerTest#testPublishOn，publishOn 的 prefetch 根据下游的处理速度调整
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("自适应prefetch的publishOn")
+public class AdaptivePrefetchTest {
+
+    Scheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = Schedulers.newSingle("adaptive");
+    }
+
+    @AfterEach
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("和publishOn一样按顺序发出所有元素")
+    public void testPublishOn() {
+        StepVerifier.create(Flux.range(0, 10)
+                        .transform(AdaptivePrefetch.defaults().publishOn(scheduler))
+                        .map(item -> item + ""))
+                .expectNext("0", "1", "2", "3", "4", "5", "6", "7", "8", "9")
+                .verifyComplete();
+
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+        Flux.range(0, 100_000)
+                .transform(AdaptivePrefetch.between(1, 64).publishOn(scheduler))
+                .subscribe(ts);
+        ts.await(Duration.ofSeconds(5))
+                .assertValueCount(100_000)
+                .assertComplete();
+        assertThat(ts.values()).isSorted();
+    }
+
+    @Test
+    @DisplayName("下游很快时prefetch增大到上限")
+    public void growOnFastConsumer() {
+        AtomicReference<Subscription> upstream = new AtomicReference<>();
+        StepVerifier.create(Flux.range(0, 1_000_000)
+                        .transform(AdaptivePrefetch.between(16, 4096)
+                                .initial(16)
+                                .targetBatchTime(Duration.ofMillis(100))
+                                .publishOn(scheduler))
+                        .doOnSubscribe(upstream::set))
+                .expectNextCount(1_000_000)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+
+        assertThat(Scannable.from(upstream.get()).scan(Scannable.Attr.PREFETCH)).isEqualTo(4096);
+    }
+
+    @Test
+    @DisplayName("下游很慢时prefetch减小到下限，缓存的元素随之减少")
+    public void shrinkOnSlowConsumer() {
+        AtomicReference<Subscription> upstream = new AtomicReference<>();
+        StepVerifier.create(Flux.range(0, 150)
+                        .transform(AdaptivePrefetch.between(4, 1024)
+                                .initial(64)
+                                .targetBatchTime(Duration.ofMillis(1))
+                                .publishOn(scheduler))
+                        .doOnSubscribe(upstream::set)
+                        .doOnNext(v -> sleep(1)))
+                .expectNextCount(150)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+
+        Scannable inner = Scannable.from(upstream.get());
+        assertThat(inner.scan(Scannable.Attr.PREFETCH)).isEqualTo(4);
+        assertThat(inner.scan(Scannable.Attr.BUFFERED)).isZero();
+    }
+
+    @Test
+    @DisplayName("缓存的元素个数不超过上限")
+    public void boundedByMax() {
+        AtomicInteger maxBuffered = new AtomicInteger();
+        AtomicReference<Subscription> upstream = new AtomicReference<>();
+        StepVerifier.create(Flux.range(0, 10_000)
+                        .transform(AdaptivePrefetch.between(8, 128).publishOn(scheduler))
+                        .doOnSubscribe(upstream::set)
+                        .doOnNext(v -> {
+                            int buffered = Scannable.from(upstream.get()).scanOrDefault(Scannable.Attr.BUFFERED, 0);
+                            maxBuffered.accumulateAndGet(buffered, Math::max);
+                        }))
+                .expectNextCount(10_000)
+                .verifyComplete();
+
+        assertThat(maxBuffered.get()).isLessThanOrEqualTo(128);
+    }
+
+    @Test
+    @DisplayName("上游的错误在缓存的元素之后发出")
+    public void delayError() {
+        StepVerifier.create(Flux.range(0, 3)
+                        .concatWith(Flux.error(new IllegalStateException("boom")))
+                        .transform(AdaptivePrefetch.defaults().publishOn(scheduler)))
+                .expectNext(0, 1, 2)
+                .expectErrorMessage("boom")
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("下游取消后不再请求上游")
+    public void cancel() {
+        AtomicInteger requested = new AtomicInteger();
+        StepVerifier.create(Flux.range(0, 10_000)
+                        .doOnRequest(n -> requested.incrementAndGet())
+                        .transform(AdaptivePrefetch.between(8, 8).publishOn(scheduler))
+                        .take(10))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        // 第一次请求8个，消费6个后补充一次
+        Assertions.assertEquals(2, requested.get());
+    }
+
+    @Test
+    @DisplayName("取消之后上游继续发出的元素交给discard钩子")
+    public void discardAfterCancel() {
+        TestPublisher<Integer> source = TestPublisher.createNoncompliant(TestPublisher.Violation.DEFER_CANCELLATION);
+        List<Integer> discarded = new CopyOnWriteArrayList<>();
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+        source.flux()
+                .transform(AdaptivePrefetch.between(8, 8).publishOn(scheduler))
+                .doOnDiscard(Integer.class, discarded::add)
+                .subscribe(ts);
+
+        ts.cancel();
+        source.next(1, 2);
+        assertThat(discarded).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptivePrefetch.between(0, 8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptivePrefetch.between(16, 8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AdaptivePrefetch.between(8, 16).initial(32));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AdaptivePrefetch.defaults().targetBatchTime(Duration.ZERO));
+        Assertions.assertEquals(256, AdaptivePrefetch.defaults().initial);
+        Assertions.assertEquals(16, AdaptivePrefetch.between(1, 16).initial);
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.greek.reactorstart.publisher;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 TransformDemo#testMaxConcurrency1/testMaxConcurrency2，flatMap 的并发数不再写死，按内部 Publisher 的耗时和错误调整
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("自动调整并发数的flatMap")
+public class ConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("和flatMap一样发出所有内部Publisher的元素")
+    public void testMaxConcurrency() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(1, 64).limiter();
+        StepVerifier.create(Flux.range(1, 128).transform(limiter.flatMap(Flux::just)))
+                .expectNextCount(128)
+                .verifyComplete();
+
+        Assertions.assertEquals(0, limiter.inFlight());
+        Assertions.assertEquals(128, limiter.samples());
+        Assertions.assertEquals(0, limiter.drops());
+    }
+
+    @Test
+    @DisplayName("内部Publisher很快时并发数增大，不超过上限")
+    public void growOnFastInners() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(2, 8).limiter();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        StepVerifier.create(Flux.range(0, 200)
+                        .transform(limiter.flatMap(v -> Mono.delay(Duration.ofMillis(1))
+                                .thenReturn(v)
+                                .doOnSubscribe(s -> maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(),
+                                        Math::max))
+                                .doOnTerminate(concurrent::decrementAndGet))))
+                .expectNextCount(200)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.limit()).isGreaterThan(2);
+        assertThat(maxConcurrent.get()).isGreaterThan(2).isLessThanOrEqualTo(8);
+        Assertions.assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("内部Publisher超时时并发数减小到下限")
+    public void shrinkOnSlowInners() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(1, 16)
+                .initial(16)
+                .latencyThreshold(Duration.ofMillis(1))
+                .limiter();
+
+        StepVerifier.create(Flux.range(0, 50)
+                        .transform(limiter.flatMap(v -> Mono.delay(Duration.ofMillis(5)).thenReturn(v))))
+                .expectNextCount(50)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, limiter.limit());
+        Assertions.assertEquals(50, limiter.drops());
+    }
+
+    @Test
+    @DisplayName("出错时减小上限，正常完成且用到一半以上时加1")
+    public void aimd() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(1, 10).initial(10).backoffRatio(0.5).limiter();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+
+        limiter.onSample(0, true);
+        Assertions.assertEquals(5, limiter.limit());
+        Assertions.assertEquals(9, limiter.inFlight());
+        Assertions.assertFalse(limiter.tryAcquire());
+
+        limiter.onSample(0, false);
+        Assertions.assertEquals(6, limiter.limit());
+
+        // 只用了不到一半，不增大
+        for (int i = 0; i < 6; i++) {
+            limiter.release();
+        }
+        Assertions.assertEquals(2, limiter.inFlight());
+        limiter.onSample(0, false);
+        Assertions.assertEquals(6, limiter.limit());
+        Assertions.assertEquals(1, limiter.drops());
+    }
+
+    @Test
+    @DisplayName("内部错误和flatMap一样终止，许可全部归还")
+    public void flatMapInnerError() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(4, 4).limiter();
+        StepVerifier.create(Flux.just(1, 2, 3, 4, 5, 6)
+                        .transform(limiter.flatMap(v -> {
+                            if (v < 4) {
+                                return Flux.just("OK");
+                            }
+                            return Flux.<String>error(new RuntimeException("forced failure"));
+                        })))
+                .expectNextCount(3)
+                .expectErrorMessage("forced failure")
+                .verify();
+
+        Assertions.assertEquals(0, limiter.inFlight());
+        Assertions.assertEquals(1, limiter.drops());
+    }
+
+    @Test
+    @DisplayName("下游取消后许可全部归还")
+    public void cancel() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(4, 4).limiter();
+        StepVerifier.create(Flux.range(0, 100)
+                        .transform(limiter.flatMap(v -> v < 3 ? Mono.just(v) : Mono.<Integer>never()))
+                        .take(3))
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+
+        Assertions.assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("多个flatMap共用一个限制器")
+    public void shared() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(4, 4).limiter();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        Flux<Long> flux = Flux.range(0, 50)
+                .transform(limiter.flatMap(v -> Mono.delay(Duration.ofMillis(1))
+                        .doOnSubscribe(s -> maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max))
+                        .doOnTerminate(concurrent::decrementAndGet)));
+
+        StepVerifier.create(Flux.merge(flux, flux))
+                .expectNextCount(100)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(4);
+        Assertions.assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("注册到Micrometer")
+    public void micrometer() {
+        ConcurrencyLimiter limiter = ConcurrencyLimit.aimd(2, 8).initial(4).limiter();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ConcurrencyLimiterMetrics(limiter, "orders", Tags.of("app", "test")).bindTo(registry);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.onSample(0, true);
+
+        Assertions.assertEquals(3.0, registry.get("reactor.flatmap.concurrency.limit").tag("name", "orders").gauge().value());
+        Assertions.assertEquals(1.0, registry.get("reactor.flatmap.concurrency.in.flight").gauge().value());
+        Assertions.assertEquals(1.0, registry.get("reactor.flatmap.concurrency.samples").tag("app", "test")
+                .functionCounter().count());
+        Assertions.assertEquals(1.0, registry.get("reactor.flatmap.concurrency.drops").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.aimd(0, 8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.aimd(8, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.aimd(2, 8).initial(16));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.aimd(2, 8).backoffRatio(1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConcurrencyLimit.aimd(2, 8).latencyThreshold(Duration.ZERO));
+        Assertions.assertEquals(2, ConcurrencyLimit.aimd(2, 8).limiter().limit());
+    }
+}
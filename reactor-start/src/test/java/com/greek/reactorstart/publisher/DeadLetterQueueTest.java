@@ -0,0 +1,149 @@
+package com.greek.reactorstart.publisher;
+
+import com.greek.reactorstart.processor.ElementCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 TransformDemo#errorModeContinueNullPublisher，出错的元素不再交给 Operators.onNextDropped，
+ * 而是进入有界的死信队列，内存满了之后写入本地文件
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("溢出到文件的死信队列")
+public class DeadLetterQueueTest {
+
+    @Test
+    @DisplayName("出错的元素和错误进入死信队列，主管道不受影响")
+    public void errorModeContinueNullPublisher(@TempDir Path dir) {
+        ErrorSideChannel<Integer> deadLetters = ErrorSideChannel.spilling(16, dir.resolve("dead.log"), ElementCodec.ints());
+
+        StepVerifier.create(Flux.just(1, 2, 3)
+                        .hide()
+                        .transform(ErrorContinue.to(deadLetters).<Integer>flatMap(f -> {
+                            if (f == 3) {
+                                return Flux.just(f);
+                            }
+                            return null;
+                        }, 4)))
+                .expectNext(3)
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasNotDroppedElements()
+                .hasNotDroppedErrors();
+
+        // 订阅之前进入队列的元素也会发出
+        StepVerifier.create(deadLetters.asFlux())
+                .assertNext(d -> {
+                    Assertions.assertEquals(1, d.value());
+                    assertThat(d.error()).isInstanceOf(NullPointerException.class);
+                })
+                .assertNext(d -> Assertions.assertEquals(2, d.value()))
+                .thenCancel()
+                .verify();
+        Assertions.assertEquals(0, deadLetters.spilled());
+    }
+
+    @Test
+    @DisplayName("订阅者按请求数读取")
+    public void backpressure(@TempDir Path dir) {
+        ErrorSideChannel<Integer> deadLetters = ErrorSideChannel.spilling(16, dir.resolve("dead.log"), ElementCodec.ints());
+        AssertSubscriber<Dropped<Integer>> ts = AssertSubscriber.create(2);
+        deadLetters.asFlux().subscribe(ts);
+
+        Flux.range(0, 10)
+                .transform(ErrorContinue.to(deadLetters).<Integer>map(v -> {
+                    throw new StacklessException("invalid " + v);
+                }))
+                .blockLast();
+
+        ts.assertValueCount(2);
+        ts.request(8);
+        ts.assertValueCount(10)
+                .assertNotComplete();
+
+        deadLetters.dispose();
+        ts.assertComplete();
+
+        // 取完之后再订阅直接完成
+        StepVerifier.create(deadLetters.asFlux())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("内存满了之后写入文件，之后可以读取重新处理")
+    public void spill(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("dead.log");
+        ErrorSideChannel<String> deadLetters = ErrorSideChannel.spilling(4, file, ElementCodec.utf8());
+
+        StepVerifier.create(Flux.range(0, 10)
+                        .map(i -> "order-" + i)
+                        .transform(ErrorContinue.to(deadLetters).map(s -> {
+                            if (!s.endsWith("0")) {
+                                throw new IllegalArgumentException("invalid " + s);
+                            }
+                            return s;
+                        })))
+                .expectNext("order-0")
+                .verifyComplete();
+        deadLetters.dispose();
+
+        Assertions.assertEquals(9, deadLetters.dropped());
+        Assertions.assertEquals(5, deadLetters.spilled());
+        Assertions.assertTrue(Files.size(file) > 0);
+
+        StepVerifier.create(deadLetters.asFlux().map(Dropped::value))
+                .expectNext("order-1", "order-2", "order-3", "order-4")
+                .verifyComplete();
+
+        StepVerifier.create(ErrorSideChannel.readSpilled(file, ElementCodec.utf8()).collectList())
+                .assertNext(spilled -> {
+                    assertThat(spilled.stream().map(Dropped::value).collect(Collectors.toList()))
+                            .containsExactly("order-5", "order-6", "order-7", "order-8", "order-9");
+                    Assertions.assertEquals("java.lang.IllegalArgumentException: invalid order-5",
+                            spilled.get(0).error().getMessage());
+                    assertThat(spilled.get(0).error()).isInstanceOf(StacklessException.class);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("同一时间只能有一个订阅者，取消后可以重新订阅")
+    public void singleSubscriber(@TempDir Path dir) {
+        ErrorSideChannel<Integer> deadLetters = ErrorSideChannel.spilling(4, dir.resolve("dead.log"), ElementCodec.ints());
+        AssertSubscriber<Dropped<Integer>> first = AssertSubscriber.create();
+        deadLetters.asFlux().subscribe(first);
+
+        StepVerifier.create(deadLetters.asFlux())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        first.cancel();
+        AssertSubscriber<Dropped<Integer>> second = AssertSubscriber.create();
+        deadLetters.asFlux().subscribe(second);
+        second.assertNoError();
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation(@TempDir Path dir) {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ErrorSideChannel.spilling(0, dir.resolve("dead.log"), ElementCodec.ints()));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> ErrorSideChannel.spilling(4, null, ElementCodec.ints()));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> ErrorSideChannel.spilling(4, dir.resolve("dead.log"), null));
+    }
+}
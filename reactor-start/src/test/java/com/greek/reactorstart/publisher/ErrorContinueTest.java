@@ -0,0 +1,169 @@
+package com.greek.reactorstart.publisher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 TransformDemo#errorModeContinueLargerThanConcurrencySourceMappedCallableFails，
+ * 不经过 onErrorContinue 跳过出错的元素，出错的元素交给有界的 ErrorSideChannel
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("跳过出错元素的map/flatMap")
+public class ErrorContinueTest {
+
+    @Test
+    @DisplayName("所有内部Publisher都出错时正常完成，跳过的元素全部计数")
+    public void errorModeContinueLargerThanConcurrencySourceMappedCallableFails() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.counting();
+        Flux.range(1, 500)
+                .transform(ErrorContinue.to(channel)
+                        .<Integer>flatMap(v -> Flux.error(new IllegalStateException("boom #" + v)), 203))
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        Assertions.assertEquals(500, channel.dropped());
+    }
+
+    @Test
+    @DisplayName("flatMap跳过出错的元素，内部Publisher出错之前的元素保留")
+    public void flatMap() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.bounded(16);
+        AssertSubscriber<Dropped<Integer>> dropped = AssertSubscriber.create();
+        channel.asFlux().subscribe(dropped);
+
+        StepVerifier.create(Flux.range(1, 10)
+                        .transform(ErrorContinue.to(channel).flatMap(v -> {
+                            if (v == 3) {
+                                throw new StacklessException("mapper #" + v);
+                            }
+                            if (v % 4 == 0) {
+                                return Flux.just(v).concatWith(Flux.error(new StacklessException("inner #" + v)));
+                            }
+                            return Flux.just(v);
+                        }, 4)))
+                .expectNext(1, 2, 4, 5, 6, 7, 8, 9, 10)
+                .verifyComplete();
+
+        dropped.assertValueCount(3);
+        assertThat(dropped.values().stream().map(Dropped::value).collect(Collectors.toList()))
+                .containsExactly(3, 4, 8);
+        Assertions.assertEquals("inner #4", dropped.values().get(1).error().getMessage());
+    }
+
+    @Test
+    @DisplayName("map跳过出错的元素并向上游补充请求")
+    public void map() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.counting();
+        StepVerifier.create(Flux.range(1, 10)
+                        .transform(ErrorContinue.to(channel).map(v -> {
+                            if (v % 3 == 0) {
+                                throw new StacklessException("invalid " + v);
+                            }
+                            return v * 10;
+                        })), 3)
+                .expectNext(10, 20, 40)
+                .thenRequest(10)
+                .expectNext(50, 70, 80, 100)
+                .verifyComplete();
+
+        Assertions.assertEquals(3, channel.dropped());
+    }
+
+    @Test
+    @DisplayName("不匹配的错误和map/flatMap一样终止")
+    public void only() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.counting();
+        ErrorContinue<Integer> strategy = ErrorContinue.to(channel).only(StacklessException.class);
+
+        StepVerifier.create(Flux.range(1, 10).transform(strategy.map(v -> {
+                    if (v == 2) {
+                        throw new StacklessException("skip");
+                    }
+                    if (v == 4) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return v;
+                })))
+                .expectNext(1, 3)
+                .expectErrorMessage("boom")
+                .verify();
+
+        StepVerifier.create(Flux.range(1, 10).transform(strategy.<Integer>flatMap(v -> v == 4 ?
+                        Flux.error(new IllegalStateException("boom")) : Flux.just(v), 1)))
+                .expectNext(1, 2, 3)
+                .expectErrorMessage("boom")
+                .verify();
+
+        Assertions.assertEquals(1, channel.dropped());
+    }
+
+    @Test
+    @DisplayName("订阅者太慢时只保留最新的")
+    public void boundedChannel() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.bounded(4);
+        AssertSubscriber<Dropped<Integer>> dropped = AssertSubscriber.create(0);
+        channel.asFlux().subscribe(dropped);
+
+        StepVerifier.create(Flux.range(1, 100)
+                        .transform(ErrorContinue.to(channel).<Integer>map(v -> {
+                            throw new StacklessException("invalid");
+                        })))
+                .verifyComplete();
+
+        dropped.request(10);
+        assertThat(dropped.values().stream().map(Dropped::value).collect(Collectors.toList()))
+                .containsExactly(97, 98, 99, 100);
+        Assertions.assertEquals(100, channel.dropped());
+    }
+
+    @Test
+    @DisplayName("ErrorSideChannel同一时间只能有一个订阅者")
+    public void singleSubscriber() {
+        ErrorSideChannel<Integer> channel = ErrorSideChannel.bounded(4);
+        AssertSubscriber<Dropped<Integer>> first = AssertSubscriber.create();
+        channel.asFlux().subscribe(first);
+
+        StepVerifier.create(channel.asFlux())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        first.cancel();
+        AssertSubscriber<Dropped<Integer>> second = AssertSubscriber.create();
+        channel.asFlux().subscribe(second);
+        second.assertNoError();
+
+        StepVerifier.create(ErrorSideChannel.counting().asFlux())
+                .expectError(UnsupportedOperationException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("StacklessException不填充调用栈")
+    public void stackless() {
+        StacklessException ex = new StacklessException("invalid");
+        Assertions.assertEquals(0, ex.getStackTrace().length);
+        ex.addSuppressed(new IllegalStateException());
+        Assertions.assertEquals(0, ex.getSuppressed().length);
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(NullPointerException.class, () -> ErrorContinue.to(null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ErrorContinue.to(ErrorSideChannel.counting()).flatMap(Flux::just, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ErrorSideChannel.bounded(0));
+    }
+}
@@ -0,0 +1,98 @@
+package com.greek.reactorstart.publisher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 TransformDemo#index，序号以 long 传给映射函数，不创建 Tuple2；ParallelFlux 的每个 rail 按块分配序号
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("带序号的map")
+public class IndexingTest {
+
+    @Test
+    @DisplayName("和Flux.index一样从0开始")
+    public void index() {
+        StepVerifier.create(Flux.just("1", "2", "3")
+                        .transform(Indexing.map((index, item) -> index + ":" + item)))
+                .expectNext("0:1", "1:2", "2:3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("每次订阅都从0开始")
+    public void resubscribe() {
+        Flux<Long> flux = Flux.just("a", "b").transform(Indexing.map((index, item) -> index));
+        StepVerifier.create(flux).expectNext(0L, 1L).verifyComplete();
+        StepVerifier.create(flux).expectNext(0L, 1L).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("ParallelFlux的序号在所有rail中唯一，每个rail按块连续")
+    public void parallel() {
+        List<Long> indexed = Flux.range(0, 10_000)
+                .parallel(4)
+                .runOn(Schedulers.parallel())
+                .transform(Indexing.<Integer, Long>mapParallel(100, (index, item) -> index))
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(indexed).hasSize(10_000);
+        assertThat(indexed).doesNotHaveDuplicates();
+        // 每个 rail 最多浪费一块没用完的序号
+        assertThat(indexed.stream().mapToLong(Long::longValue).max().getAsLong()).isLessThan(10_000 + 4 * 100);
+    }
+
+    @Test
+    @DisplayName("同一个rail中的序号递增")
+    public void railOrder() {
+        StepVerifier.create(Flux.range(0, 8)
+                        .parallel(2)
+                        .transform(Indexing.mapParallel(2, (index, item) -> item + "@" + index))
+                        .groups()
+                        .flatMap(rail -> rail.map(s -> Long.parseLong(s.substring(s.indexOf('@') + 1)))
+                                .collectList()))
+                .assertNext(rail -> assertThat(rail).hasSize(4).isSorted())
+                .assertNext(rail -> assertThat(rail).hasSize(4).isSorted())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("函数抛出异常或返回null时发出错误信号")
+    public void mapperError() {
+        StepVerifier.create(Flux.range(0, 10).transform(Indexing.<Integer, Long>map((index, item) -> {
+                    if (index == 3) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return index;
+                })))
+                .expectNext(0L, 1L, 2L)
+                .expectErrorMessage("boom")
+                .verify();
+
+        StepVerifier.create(Flux.range(0, 10).transform(Indexing.map((index, item) -> index == 1 ? null : item)))
+                .expectNext(0)
+                .expectError(NullPointerException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Indexing.mapParallel(0, (index, item) -> item));
+        Assertions.assertThrows(NullPointerException.class, () -> Indexing.map(null));
+    }
+}
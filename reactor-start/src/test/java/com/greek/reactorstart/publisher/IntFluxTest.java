@@ -0,0 +1,162 @@
+package com.greek.reactorstart.publisher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+/**
+ * 对应 FluxTest 和 SchedulerTest#fuseableTest，基本类型的 range -> map -> filter 不装箱
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("基本类型的IntFlux/LongFlux")
+public class IntFluxTest {
+
+    @Test
+    @DisplayName("创建空的IntFlux")
+    public void empty() {
+        StepVerifier.create(IntFlux.range(0, 0).boxed())
+                .expectComplete()
+                .verify();
+        StepVerifier.create(IntFlux.fromArray().sum())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("创建多个元素的IntFlux")
+    public void fromArray() {
+        StepVerifier.create(IntFlux.fromArray(1, 2, 3, 4, 5, 6).boxed())
+                .expectNext(1, 2, 3, 4, 5, 6)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("range -> map -> filter，和 Flux 的结果一样")
+    public void rangeMapFilter() {
+        StepVerifier.create(IntFlux.range(0, 10)
+                        .map(item -> item * item)
+                        .filter(item -> item % 2 != 0)
+                        .boxed())
+                .expectNext(1, 9, 25, 49, 81)
+                .verifyComplete();
+
+        StepVerifier.create(IntFlux.range(0, 10)
+                        .map(item -> item * item)
+                        .filter(item -> item % 2 != 0)
+                        .sum())
+                .expectNext(Flux.range(0, 10)
+                        .map(item -> item * item)
+                        .filter(item -> item % 2 != 0)
+                        .reduce(0L, Long::sum)
+                        .block())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("sum 用 long 累加，reduce 和 count")
+    public void terminals() {
+        StepVerifier.create(IntFlux.range(0, 100_000).sum())
+                .expectNext(4_999_950_000L)
+                .verifyComplete();
+        StepVerifier.create(IntFlux.range(1, 5).reduce(1, (a, b) -> a * b))
+                .expectNext(120)
+                .verifyComplete();
+        StepVerifier.create(IntFlux.range(0, 100).filter(item -> item % 3 == 0).count())
+                .expectNext(34L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("按请求数发出，源头结束时不等下一次请求就完成")
+    public void backpressure() {
+        StepVerifier.create(IntFlux.range(0, 5).boxed(), 2)
+                .expectNext(0, 1)
+                .thenRequest(3)
+                .expectNext(2, 3, 4)
+                .verifyComplete();
+
+        // 源头还剩下会被过滤掉的元素时，要再请求一次才能发现已经结束
+        StepVerifier.create(IntFlux.range(0, 10).filter(item -> item % 2 == 0).boxed(), 2)
+                .expectNext(0, 2)
+                .thenRequest(3)
+                .expectNext(4, 6, 8)
+                .thenRequest(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("订阅者请求融合时SYNC融合")
+    public void syncFusion() {
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+        ts.requestedFusionMode(Fuseable.ANY);
+        IntFlux.range(0, 10).map(item -> item * item).filter(item -> item % 2 != 0).boxed().subscribe(ts);
+        ts.assertFusionMode(Fuseable.SYNC)
+                .assertValues(1, 9, 25, 49, 81)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("函数抛出异常时发出错误信号")
+    public void mapperError() {
+        StepVerifier.create(IntFlux.range(0, 10)
+                        .map(item -> {
+                            if (item == 3) {
+                                throw new IllegalStateException("boom");
+                            }
+                            return item;
+                        })
+                        .boxed())
+                .expectNext(0, 1, 2)
+                .expectErrorMessage("boom")
+                .verify();
+
+        StepVerifier.create(IntFlux.range(0, 10).mapToObj(item -> item == 3 ? null : item))
+                .expectNext(0, 1, 2)
+                .expectError(NullPointerException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("取消后不再发出元素")
+    public void cancel() {
+        StepVerifier.create(IntFlux.range(0, Integer.MAX_VALUE).boxed().take(3))
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("LongFlux和mapToLong")
+    public void longFlux() {
+        StepVerifier.create(IntFlux.range(0, 3).mapToLong(item -> item * 10_000_000_000L).boxed())
+                .expectNext(0L, 10_000_000_000L, 20_000_000_000L)
+                .verifyComplete();
+        StepVerifier.create(LongFlux.range(Long.MAX_VALUE - 2, 3).boxed())
+                .expectNext(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE)
+                .verifyComplete();
+        StepVerifier.create(LongFlux.fromArray(1, 2, 3, 4).map(item -> item * item).filter(item -> item > 1).sum())
+                .expectNext(29L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("每次订阅都重新开始")
+    public void resubscribe() {
+        Flux<Integer> flux = IntFlux.range(0, 3).boxed();
+        StepVerifier.create(flux).expectNext(0, 1, 2).verifyComplete();
+        StepVerifier.create(flux).expectNext(0, 1, 2).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntFlux.range(0, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntFlux.range(Integer.MAX_VALUE, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongFlux.range(Long.MAX_VALUE, 2));
+    }
+}
@@ -0,0 +1,185 @@
+package com.greek.reactorstart.publisher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 TransformDemo#flatMap，并发订阅内部 Publisher，结果按源头顺序发出，缓存受窗口限制
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("有界重排窗口的有序flatMap")
+public class ReorderWindowTest {
+
+    @Test
+    @DisplayName("结果和concatMap一样")
+    public void flatMap() {
+        List<Integer> expected = Flux.range(1, 1000)
+                .concatMap(v -> Flux.range(v, 2))
+                .collectList()
+                .block();
+
+        StepVerifier.create(Flux.range(1, 1000)
+                        .transform(ReorderWindow.<Integer>maxElements(64).flatMap(v -> Flux.range(v, 2), 8))
+                        .collectList())
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("后面的内部Publisher先完成时仍按源头顺序发出")
+    public void outOfOrderCompletion() {
+        StepVerifier.create(Flux.range(1, 20)
+                        .transform(ReorderWindow.<Integer>maxElements(16)
+                                .flatMap(v -> Mono.just(v).delayElement(Duration.ofMillis(5L * (20 - v))), 8)))
+                .expectNext(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("head没有结果时窗口满了就不再请求，head之外最多缓存maxElements个")
+    public void boundedByElements() {
+        UnicastProcessor<Integer> head = UnicastProcessor.create();
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger sourceRequests = new AtomicInteger();
+        AtomicReference<Subscription> main = new AtomicReference<>();
+
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+        Flux.range(0, 8)
+                .doOnRequest(n -> sourceRequests.incrementAndGet())
+                .transform(ReorderWindow.<Integer>maxElements(16)
+                        .prefetch(4)
+                        .flatMap(v -> v == 0 ? head : Flux.range(v * 1000, 1000)
+                                .doOnNext(i -> produced.incrementAndGet()), 4))
+                .doOnSubscribe(main::set)
+                .subscribe(ts);
+
+        ts.assertNoValues();
+        // head 请求了 prefetch 个，剩下的 3 个内部 Publisher 一共最多 16 - 4 个
+        assertThat(produced.get()).isLessThanOrEqualTo(12);
+        assertThat(Scannable.from(main.get()).scan(Scannable.Attr.BUFFERED)).isLessThanOrEqualTo(16 + 4);
+        // 没有内部 Publisher 完成，只有订阅时的一次请求
+        Assertions.assertEquals(1, sourceRequests.get());
+
+        head.onNext(-1);
+        head.onComplete();
+        ts.assertValueCount(7001)
+                .assertComplete();
+        assertThat(ts.values()).isSorted();
+    }
+
+    @Test
+    @DisplayName("按估算的字节数限制窗口")
+    public void boundedByBytes() {
+        UnicastProcessor<String> head = UnicastProcessor.create();
+        AtomicInteger produced = new AtomicInteger();
+
+        AssertSubscriber<String> ts = AssertSubscriber.create();
+        Flux.range(0, 4)
+                .transform(ReorderWindow.<String>maxBytes(100, String::length)
+                        .prefetch(8)
+                        .flatMap(v -> v == 0 ? head : Flux.range(0, 100)
+                                .map(i -> v + "-" + String.format("%07d", i))
+                                .doOnNext(s -> produced.incrementAndGet()), 4))
+                .subscribe(ts);
+
+        // 每个元素 9 个字节，超过 100 字节后不再补充请求，第一批请求之外不会再有元素
+        assertThat(produced.get()).isLessThanOrEqualTo(3 * 8);
+
+        head.onComplete();
+        ts.assertValueCount(300)
+                .assertComplete();
+        assertThat(ts.values()).startsWith("1-0000000").endsWith("3-0000099");
+    }
+
+    @Test
+    @DisplayName("背压实现")
+    public void flatMapBackpressured() {
+        Flux<Integer> flux = Flux.range(1, 1000)
+                .transform(ReorderWindow.<Integer>maxElements(64).flatMap(v -> Flux.range(v, 2), 8));
+
+        StepVerifier.create(flux, 0)
+                .thenRequest(1000)
+                .expectNextCount(1000)
+                .thenRequest(1000)
+                .expectNextCount(1000)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("外部错误")
+    public void flatMapError() {
+        StepVerifier.create(Flux.<Integer>error(new RuntimeException("forced failure"))
+                        .transform(ReorderWindow.<Integer>maxElements(16).flatMap(Flux::just, 4)))
+                .expectErrorMessage("forced failure")
+                .verify();
+    }
+
+    @Test
+    @DisplayName("内部错误立即发出，取消其他内部Publisher")
+    public void flatMapInnerError() {
+        AtomicInteger cancelled = new AtomicInteger();
+        Flux<String> flux = Flux.just(1, 2, 3, 4, 5, 6)
+                .transform(ReorderWindow.<String>maxElements(16).flatMap(v -> {
+                    if (v < 4) {
+                        return Flux.just("OK");
+                    }
+                    if (v == 6) {
+                        return Flux.<String>error(new RuntimeException("forced failure"));
+                    }
+                    return Flux.<String>never().doOnCancel(cancelled::incrementAndGet);
+                }, 8));
+
+        StepVerifier.create(flux)
+                .expectNext("OK", "OK", "OK")
+                .expectErrorMessage("forced failure")
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    @DisplayName("下游取消时取消源头和所有内部Publisher")
+    public void cancel() {
+        UnicastProcessor<Integer> head = UnicastProcessor.create();
+        AtomicInteger cancelled = new AtomicInteger();
+        StepVerifier.create(Flux.range(0, 100)
+                        .transform(ReorderWindow.<Integer>maxElements(16)
+                                .flatMap(v -> v == 0 ? head : Flux.<Integer>never()
+                                        .doOnCancel(cancelled::incrementAndGet), 4))
+                        .take(1))
+                .then(() -> head.onNext(0))
+                .expectNext(0)
+                .verifyComplete();
+        Assertions.assertEquals(3, cancelled.get());
+    }
+
+    @Test
+    @DisplayName("参数校验")
+    public void validation() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReorderWindow.maxElements(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReorderWindow.maxBytes(0, Object::hashCode));
+        Assertions.assertThrows(NullPointerException.class, () -> ReorderWindow.maxBytes(16, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReorderWindow.maxElements(16).prefetch(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ReorderWindow.<Integer>maxElements(16).flatMap(v -> Flux.just(1), 0));
+        Assertions.assertEquals("ReorderWindow{maxElements=16, maxBytes=unbounded, prefetch=32}",
+                ReorderWindow.maxElements(16).toString());
+    }
+}
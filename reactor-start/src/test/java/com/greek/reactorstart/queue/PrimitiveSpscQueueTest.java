@@ -0,0 +1,99 @@
+package com.greek.reactorstart.queue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IntSpscQueue / LongSpscQueue
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("基本类型数组的SPSC队列")
+public class PrimitiveSpscQueueTest {
+
+    @Test
+    @DisplayName("先进先出，满了之后offer返回false")
+    public void offerPoll() {
+        IntSpscQueue queue = new IntSpscQueue(3);
+        Assertions.assertEquals(4, queue.capacity());
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertNull(queue.poll());
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(queue.offer(i));
+        }
+        Assertions.assertFalse(queue.offerInt(4), "queue should be full");
+        Assertions.assertEquals(4, queue.size());
+        Assertions.assertEquals(0, queue.peek());
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals(i, queue.poll());
+        }
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("下标绕过数组末尾")
+    public void wrap() {
+        LongSpscQueue queue = new LongSpscQueue(4);
+        for (long i = 0; i < 100; i++) {
+            Assertions.assertTrue(queue.offerLong(Long.MAX_VALUE - i));
+            Assertions.assertTrue(queue.offer(i));
+            Assertions.assertEquals(Long.MAX_VALUE - i, queue.poll());
+            Assertions.assertEquals(i, queue.poll());
+        }
+        Assertions.assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("clear清空队列之后可以继续使用")
+    public void clear() {
+        IntSpscQueue queue = new IntSpscQueue(4);
+        queue.offer(1);
+        queue.offer(2);
+        queue.clear();
+        Assertions.assertTrue(queue.isEmpty());
+        queue.offer(3);
+        Assertions.assertEquals(3, queue.poll());
+    }
+
+    @Test
+    @DisplayName("不接受null")
+    public void rejectNull() {
+        Assertions.assertThrows(NullPointerException.class, () -> new IntSpscQueue(4).offer(null));
+    }
+
+    @Test
+    @DisplayName("一个线程生产一个线程消费，顺序不变")
+    public void producerConsumer() throws Exception {
+        int count = 1_000_000;
+        LongSpscQueue queue = new LongSpscQueue(64);
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            for (long i = 0; i < count; i++) {
+                while (!queue.offerLong(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+
+        long expected = 0;
+        while (expected < count) {
+            Long v = queue.poll();
+            if (v == null) {
+                Thread.yield();
+                continue;
+            }
+            Assertions.assertEquals(expected++, v.longValue());
+        }
+        producer.get(10, TimeUnit.SECONDS);
+        assertThat(queue).isEmpty();
+    }
+}
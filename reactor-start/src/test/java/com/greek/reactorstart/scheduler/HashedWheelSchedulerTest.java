@@ -0,0 +1,183 @@
+package com.greek.reactorstart.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 SchedulerTest#testDelayElements，定时任务由时间轮调度
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("时间轮定时调度器")
+public class HashedWheelSchedulerTest {
+
+    HashedWheelScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = HashedWheelScheduler.create("wheel");
+    }
+
+    @AfterEach
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("Mono.delay")
+    public void monoDelay() {
+        long start = System.nanoTime();
+        StepVerifier.create(Mono.delay(Duration.ofMillis(50), scheduler))
+                .expectNext(0L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("delayElements")
+    public void delayElements() {
+        StepVerifier.create(Flux.range(1, 5).delayElements(Duration.ofMillis(20), scheduler))
+                .expectNext(1, 2, 3, 4, 5)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("timeout：超时发出TimeoutException，及时完成时取消定时")
+    public void timeout() {
+        StepVerifier.create(Mono.never().timeout(Duration.ofMillis(50), scheduler))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier.create(Mono.just(1).timeout(Duration.ofSeconds(10), scheduler))
+                .expectNext(1)
+                .verifyComplete();
+        Assertions.assertEquals(0, scheduler.pendingTimers());
+    }
+
+    @Test
+    @DisplayName("Flux.interval")
+    public void interval() {
+        StepVerifier.create(Flux.interval(Duration.ofMillis(20), scheduler).take(3))
+                .expectNext(0L, 1L, 2L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("取消之后不再执行")
+    public void cancel() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean();
+        Disposable task = scheduler.schedule(() -> executed.set(true), 50, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(1, scheduler.pendingTimers());
+        task.dispose();
+        Assertions.assertTrue(task.isDisposed());
+        Assertions.assertEquals(0, scheduler.pendingTimers());
+
+        Thread.sleep(150);
+        Assertions.assertFalse(executed.get());
+    }
+
+    @Test
+    @DisplayName("超大的延迟不会溢出成立即执行")
+    public void hugeDelay() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean();
+        Disposable task = scheduler.schedule(() -> executed.set(true), Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(() -> executed.set(true), Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        Disposable periodic = scheduler.schedulePeriodically(() -> executed.set(true),
+                Long.MAX_VALUE, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        StepVerifier.create(Mono.never().timeout(Duration.ofMillis(Long.MAX_VALUE), scheduler))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(300))
+                .thenCancel()
+                .verify();
+
+        Assertions.assertFalse(executed.get());
+        Assertions.assertEquals(3, scheduler.pendingTimers());
+        task.dispose();
+        periodic.dispose();
+        worker.dispose();
+        Assertions.assertEquals(0, scheduler.pendingTimers());
+    }
+
+    @Test
+    @DisplayName("Worker释放时取消所有没到期的定时任务")
+    public void disposeWorker() throws InterruptedException {
+        Scheduler.Worker worker = scheduler.createWorker();
+        AtomicBoolean executed = new AtomicBoolean();
+        List<Disposable> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(worker.schedule(() -> executed.set(true), 50, TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            tasks.get(i).dispose();
+        }
+        Assertions.assertEquals(500, Scannable.from(worker).scan(Scannable.Attr.BUFFERED));
+        Assertions.assertEquals(500, scheduler.pendingTimers());
+
+        worker.dispose();
+        Assertions.assertTrue(worker.isDisposed());
+        Assertions.assertTrue(tasks.stream().allMatch(Disposable::isDisposed));
+        Assertions.assertEquals(0, Scannable.from(worker).scan(Scannable.Attr.BUFFERED));
+        Assertions.assertEquals(0, scheduler.pendingTimers());
+        Assertions.assertThrows(RejectedExecutionException.class,
+                () -> worker.schedule(() -> {}, 10, TimeUnit.MILLISECONDS));
+
+        Thread.sleep(150);
+        Assertions.assertFalse(executed.get());
+    }
+
+    @Test
+    @DisplayName("大量定时任务都能按时执行，超过一圈的任务在正确的圈执行")
+    public void manyTimers() throws InterruptedException {
+        HashedWheelScheduler small = HashedWheelScheduler.create("small", Duration.ofMillis(1), 8,
+                Schedulers.parallel());
+        try {
+            int count = 100_000;
+            CountDownLatch latch = new CountDownLatch(count);
+            AtomicBoolean early = new AtomicBoolean();
+            for (int i = 0; i < count; i++) {
+                long delay = ThreadLocalRandom.current().nextInt(1, 200);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+                small.schedule(() -> {
+                    if (System.nanoTime() < deadline) {
+                        early.set(true);
+                    }
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS), "timers not fired");
+            Assertions.assertFalse(early.get(), "a timer fired before its deadline");
+            Assertions.assertEquals(0, small.pendingTimers());
+        }
+        finally {
+            small.dispose();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.greek.reactorstart.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 SchedulerTest#testExecEnv，不用 log() 也能看到每次切换调度器的排队时间和执行时间
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("记录排队时间和执行时间的调度器")
+public class InstrumentedSchedulerTest {
+
+    InstrumentedScheduler parallel;
+
+    InstrumentedScheduler single;
+
+    InstrumentedScheduler elastic;
+
+    @BeforeEach
+    public void setup() {
+        parallel = InstrumentedScheduler.wrap("Parallel", Schedulers.newParallel("Parallel"));
+        single = InstrumentedScheduler.wrap("Single", Schedulers.newSingle("Single"));
+        elastic = InstrumentedScheduler.wrap("Elastic", Schedulers.newElastic("Elastic"));
+    }
+
+    @AfterEach
+    public void teardown() {
+        parallel.dispose();
+        single.dispose();
+        elastic.dispose();
+    }
+
+    @Test
+    @DisplayName("publishOn/subscribeOn 的每次切换都被记录")
+    public void testExecEnv() {
+        StepVerifier.create(Flux.range(0, 10)
+                        .map(item -> item * item)
+                        .publishOn(parallel)
+                        .filter(item -> item % 2 != 0)
+                        .publishOn(single)
+                        .take(3)
+                        .subscribeOn(elastic))
+                .expectNext(1, 9, 25)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        SchedulerStats.Snapshot p = parallel.stats().snapshot();
+        SchedulerStats.Snapshot s = single.stats().snapshot();
+        SchedulerStats.Snapshot e = elastic.stats().snapshot();
+
+        // subscribeOn 至少提交一次订阅任务，publishOn 至少提交一次 drain
+        assertThat(e.tasks()).isGreaterThanOrEqualTo(1);
+        assertThat(p.tasks()).isGreaterThanOrEqualTo(1);
+        assertThat(s.tasks()).isGreaterThanOrEqualTo(1);
+        // 数据从 Elastic 线程发出，到 Parallel 和 Single 上都发生了线程切换
+        assertThat(p.hops()).isGreaterThanOrEqualTo(1);
+        assertThat(s.hops()).isGreaterThanOrEqualTo(1);
+        assertThat(p.toString()).startsWith("Parallel tasks=");
+    }
+
+    @Test
+    @DisplayName("快照只包含上次快照之后的数据")
+    public void snapshotResets() {
+        StepVerifier.create(Mono.fromCallable(() -> 1).subscribeOn(parallel))
+                .expectNext(1)
+                .verifyComplete();
+        Assertions.assertEquals(1, parallel.stats().snapshot().tasks());
+        Assertions.assertEquals(0, parallel.stats().snapshot().tasks());
+    }
+
+    @Test
+    @DisplayName("延迟任务的排队时间从到期时间开始算，执行时间单独记录")
+    public void delayedTask() {
+        StepVerifier.create(Mono.delay(Duration.ofMillis(50), single)
+                        .map(v -> {
+                            sleep(20);
+                            return v;
+                        }))
+                .expectNext(0L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        // 单线程调度器上再执行一个任务，保证上一个任务已经记录了执行时间
+        Mono.empty().subscribeOn(single).block();
+
+        SchedulerStats.Snapshot s = single.stats().snapshot();
+        Assertions.assertEquals(2, s.tasks());
+        assertThat(s.queueWait().getMaxValue()).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(s.execution().getMaxValue()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    @DisplayName("周期任务每次执行都被记录")
+    public void periodic() {
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10), parallel).take(5))
+                .expectNextCount(5)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(parallel.stats().snapshot().tasks()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("扫描名称和被包装的调度器")
+    public void scan() {
+        assertThat(parallel.scan(Scannable.Attr.NAME)).isEqualTo("Parallel");
+        assertThat(parallel.scan(Scannable.Attr.PARENT)).isSameAs(parallel.delegate);
+        parallel.dispose();
+        Assertions.assertTrue(parallel.delegate.isDisposed());
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
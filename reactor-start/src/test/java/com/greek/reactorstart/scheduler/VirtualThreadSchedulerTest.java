@@ -0,0 +1,127 @@
+package com.greek.reactorstart.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 SchedulerTest#testScheduler，把 Schedulers.elastic 换成虚拟线程的调度器 <br>
+ * 运行在 Java 21 之前的 JVM 上时，测试的是退回的平台线程池
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("虚拟线程调度器")
+public class VirtualThreadSchedulerTest {
+
+    VirtualThreadScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = VirtualThreadScheduler.create("virtual");
+    }
+
+    @AfterEach
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("同一个Worker的阻塞任务按提交顺序串行执行")
+    public void workerOrdering() throws InterruptedException {
+        int count = 200;
+        Scheduler.Worker worker = scheduler.createWorker();
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            int v = i;
+            worker.schedule(() -> {
+                if (concurrent.incrementAndGet() != 1) {
+                    overlapped.set(true);
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executed.add(v);
+                concurrent.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assertions.assertFalse(overlapped.get(), "tasks of one worker ran concurrently");
+        for (int i = 0; i < count; i++) {
+            Assertions.assertEquals(i, executed.get(i));
+        }
+        worker.dispose();
+    }
+
+    @Test
+    @DisplayName("subscribeOn：可以在任务中阻塞")
+    public void blockingSubscribeOn() {
+        StepVerifier.create(Mono.fromCallable(() -> Mono.delay(Duration.ofMillis(10)).block())
+                .subscribeOn(scheduler)
+                .map(v -> Thread.currentThread().getName()))
+                .assertNext(name -> assertThat(name).startsWith("virtual-"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("大量并发的阻塞调用")
+    public void manyBlockingCalls() {
+        int count = 1000;
+        StepVerifier.create(Flux.range(0, count)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(10);
+                    return i;
+                }).subscribeOn(scheduler), count)
+                .count())
+                .expectNext((long) count)
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("替换Schedulers的工厂，elastic和boundedElastic使用虚拟线程")
+    public void dropInFactory() {
+        Schedulers.setFactory(VirtualThreadScheduler.factory());
+        try {
+            StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+                    .subscribeOn(Schedulers.boundedElastic()))
+                    .assertNext(name -> assertThat(name).startsWith("virtual-boundedElastic-"))
+                    .verifyComplete();
+            StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+                    .subscribeOn(Schedulers.elastic()))
+                    .assertNext(name -> assertThat(name).startsWith("virtual-elastic-"))
+                    .verifyComplete();
+        }
+        finally {
+            Schedulers.resetFactory();
+        }
+    }
+}
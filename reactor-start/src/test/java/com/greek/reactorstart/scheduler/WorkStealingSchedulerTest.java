@@ -0,0 +1,176 @@
+package com.greek.reactorstart.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对应 SchedulerTest#testExecEnv，把 Schedulers.newParallel 换成工作窃取的调度器
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("工作窃取的并行调度器")
+public class WorkStealingSchedulerTest {
+
+    WorkStealingScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        scheduler = WorkStealingScheduler.create("workStealing", 2);
+    }
+
+    @AfterEach
+    public void teardown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("同一个Worker的任务按提交顺序串行执行")
+    public void workerOrdering() throws InterruptedException {
+        int count = 10_000;
+        Scheduler.Worker worker = scheduler.createWorker();
+        List<Integer> executed = new ArrayList<>();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 0; i < count; i++) {
+            int v = i;
+            worker.schedule(() -> {
+                if (concurrent.incrementAndGet() != 1) {
+                    overlapped.set(true);
+                }
+                executed.add(v);
+                concurrent.decrementAndGet();
+                if (v == count - 1) {
+                    done.countDown();
+                }
+            });
+        }
+
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assertions.assertFalse(overlapped.get(), "tasks of one worker ran concurrently");
+        for (int i = 0; i < count; i++) {
+            Assertions.assertEquals(i, executed.get(i));
+        }
+        worker.dispose();
+    }
+
+    @Test
+    @DisplayName("一个Worker长时间占用线程时，其他Worker的任务由空闲线程执行")
+    public void busyWorkerDoesNotBlockOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Scheduler.Worker busy = scheduler.createWorker();
+        busy.schedule(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // newParallel(2) 轮询分配时，一半的 Worker 会和 busy 共用一个线程
+        int workers = 8;
+        CountDownLatch light = new CountDownLatch(workers);
+        List<Scheduler.Worker> others = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Scheduler.Worker w = scheduler.createWorker();
+            others.add(w);
+            w.schedule(light::countDown);
+        }
+
+        try {
+            Assertions.assertTrue(light.await(5, TimeUnit.SECONDS), "light workers starved by the busy one");
+        }
+        finally {
+            release.countDown();
+            busy.dispose();
+            others.forEach(Disposable::dispose);
+        }
+    }
+
+    @Test
+    @DisplayName("publishOn：线程是NonBlocking的，不允许block")
+    public void publishOn() {
+        StepVerifier.create(Flux.range(0, 1000)
+                .publishOn(scheduler)
+                .map(v -> Schedulers.isInNonBlockingThread())
+                .distinct())
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(Mono.fromCallable(() -> Mono.delay(Duration.ofMillis(10)).block())
+                .subscribeOn(scheduler))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("延迟任务和周期任务")
+    public void timed() {
+        StepVerifier.create(Mono.delay(Duration.ofMillis(50), scheduler))
+                .expectNext(0L)
+                .verifyComplete();
+
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10), scheduler).take(5))
+                .expectNext(0L, 1L, 2L, 3L, 4L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("取消还没执行的延迟任务")
+    public void cancelDelayed() throws InterruptedException {
+        AtomicBoolean executed = new AtomicBoolean();
+        Scheduler.Worker worker = scheduler.createWorker();
+        Disposable task = worker.schedule(() -> executed.set(true), 50, TimeUnit.MILLISECONDS);
+        task.dispose();
+        Assertions.assertTrue(task.isDisposed());
+
+        Thread.sleep(150);
+        Assertions.assertFalse(executed.get());
+        worker.dispose();
+    }
+
+    @Test
+    @DisplayName("释放之后拒绝新的任务")
+    public void rejectAfterDispose() {
+        Scheduler.Worker worker = scheduler.createWorker();
+        worker.dispose();
+        Assertions.assertThrows(RejectedExecutionException.class, () -> worker.schedule(() -> {}));
+
+        scheduler.dispose();
+        Assertions.assertTrue(scheduler.isDisposed());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> scheduler.schedule(() -> {}));
+    }
+
+    @Test
+    @DisplayName("底层线程池拒绝执行时，Worker被释放并抛出异常，不会一直挂起")
+    public void rejectByExecutor() {
+        Scheduler.Worker worker = scheduler.createWorker();
+        scheduler.shutdown();
+
+        Assertions.assertThrows(RejectedExecutionException.class, () -> worker.schedule(() -> {}));
+        Assertions.assertTrue(worker.isDisposed());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> worker.schedule(() -> {}));
+    }
+}
@@ -0,0 +1,281 @@
+package com.greek.reactorstart.sink;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用法和 CreateDemo 中的 Flux.create 测试相同，逐个 next 换成 nextAll
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("批量推送的FluxSink")
+public class BatchSinkTest {
+
+    @Test
+    @DisplayName("nextAll推送数组")
+    public void nextAllArray() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            s.nextAll(new String[]{"test1", "test2", "test3"});
+            s.complete();
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1", "test2", "test3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("nextAll推送迭代器，可以和next混用")
+    public void nextAllIterable() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            s.next("test1");
+            s.nextAll(Arrays.asList("test2", "test3"));
+            s.nextAll(() -> Arrays.asList("test4", "test5").iterator());
+            s.next("test6");
+            s.complete();
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1", "test2", "test3", "test4", "test5", "test6")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("nextAll不接收Null元素")
+    public void nextAllNullElement() {
+        Flux<String> created = FluxSinks.createBatched(s -> s.nextAll(new String[]{"test1", null}));
+
+        StepVerifier.create(created)
+                .verifyError(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("nextAll复制数组，之后修改数组不影响已推送的元素")
+    public void nextAllCopiesArray() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            String[] values = {"test1", "test2"};
+            s.nextAll(values);
+            values[1] = "changed";
+            s.complete();
+        });
+
+        StepVerifier.create(created, 0)
+                .thenRequest(2)
+                .expectNext("test1", "test2")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("BUFFER策略--背压实现")
+    public void bufferBackpressured() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            assertThat(s.requestedFromDownstream()).isEqualTo(1);
+            s.nextAll(Arrays.asList("test1", "test2", "test3"));
+            s.complete();
+        }, FluxSink.OverflowStrategy.BUFFER);
+
+        StepVerifier.create(created, 1)
+                .expectNext("test1")
+                .thenAwait()
+                .thenRequest(2)
+                .expectNext("test2", "test3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("LATEST策略--背压实现")
+    public void latestBackpressured() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            assertThat(s.requestedFromDownstream()).isEqualTo(1);
+            s.nextAll(Arrays.asList("test1", "test2", "test3"));
+            s.complete();
+        }, FluxSink.OverflowStrategy.LATEST);
+
+        StepVerifier.create(created, 1)
+                .expectNext("test1")
+                .thenAwait()
+                .thenRequest(2)
+                .expectNext("test3")
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasDiscarded("test2");
+    }
+
+    @Test
+    @DisplayName("DROP策略--背压实现")
+    public void dropBackpressured() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            assertThat(s.requestedFromDownstream()).isEqualTo(1);
+            s.nextAll(Arrays.asList("test1", "test2", "test3"));
+            s.complete();
+        }, FluxSink.OverflowStrategy.DROP);
+
+        StepVerifier.create(created, 1)
+                .expectNext("test1")
+                .thenAwait()
+                .thenRequest(2)
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasDiscarded("test2", "test3");
+    }
+
+    @Test
+    @DisplayName("ERROR策略--背压实现")
+    public void errorBackpressured() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            assertThat(s.requestedFromDownstream()).isEqualTo(1);
+            s.nextAll(Arrays.asList("test1", "test2", "test3"));
+            s.complete();
+        }, FluxSink.OverflowStrategy.ERROR);
+
+        StepVerifier.create(created, 1)
+                .expectNext("test1")
+                .thenAwait()
+                .thenRequest(2)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verifyThenAssertThat()
+                .hasDiscarded("test2")
+                .hasDropped("test3");
+    }
+
+    @Test
+    @DisplayName("IGNORE策略--背压实现")
+    public void ignoreBackpressured() {
+        Flux<String> created = FluxSinks.createBatched(s -> {
+            assertThat(s.requestedFromDownstream()).isEqualTo(1);
+            s.nextAll(Arrays.asList("test1", "test2", "test3"));
+            s.complete();
+        }, FluxSink.OverflowStrategy.IGNORE);
+
+        // 和 Flux.create 的 IGNORE 一样，推送的数量超过请求数量
+        List<String> received = new ArrayList<>();
+        created.subscribe(received::add, null, null, subscription -> subscription.request(1));
+        assertThat(received).containsExactly("test1", "test2", "test3");
+    }
+
+    @Test
+    @DisplayName("和逐个调用next的结果相同")
+    public void sameAsNext() {
+        List<Integer> batch = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        for (FluxSink.OverflowStrategy strategy : FluxSink.OverflowStrategy.values()) {
+            Flux<Integer> byElement = Flux.create(s -> {
+                s.onRequest(n -> {
+                    batch.forEach(s::next);
+                    s.complete();
+                });
+            }, strategy);
+            Flux<Integer> byBatch = FluxSinks.createBatched(s -> {
+                s.onRequest(n -> {
+                    s.nextAll(batch);
+                    s.complete();
+                });
+            }, strategy);
+
+            List<Object> expected = signals(byElement);
+            List<Object> actual = signals(byBatch);
+            Assertions.assertEquals(expected, actual, strategy.name());
+        }
+    }
+
+    @Test
+    @DisplayName("onRequest按请求数批量推送元素")
+    public void nextAllOnRequest() {
+        AtomicInteger index = new AtomicInteger(1);
+        Flux<Integer> created = FluxSinks.<Integer>createBatched(s -> s.onRequest(n -> {
+            List<Integer> batch = new ArrayList<>();
+            for (long i = 0; i < n && index.get() <= 5; i++) {
+                batch.add(index.getAndIncrement());
+            }
+            s.nextAll(batch);
+            if (index.get() > 5) {
+                s.complete();
+            }
+        }));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .thenAwait()
+                .thenRequest(1)
+                .expectNext(1)
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .thenRequest(2)
+                .expectNext(4, 5)
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("多个线程同时批量推送，同一批元素保持顺序")
+    public void multiThreadBatches() {
+        int producers = 4;
+        int batches = 1000;
+        int batchSize = 100;
+        AtomicInteger remaining = new AtomicInteger(producers);
+
+        Flux<int[]> created = FluxSinks.createBatched(s -> {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                Schedulers.parallel().schedule(() -> {
+                    for (int b = 0; b < batches; b++) {
+                        int[][] batch = new int[batchSize][];
+                        for (int i = 0; i < batchSize; i++) {
+                            batch[i] = new int[]{producer, b * batchSize + i};
+                        }
+                        s.nextAll(batch);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        s.complete();
+                    }
+                });
+            }
+        });
+
+        int[] expected = new int[producers];
+        StepVerifier.create(created.limitRate(64))
+                .thenConsumeWhile(v -> {
+                    Assertions.assertEquals(expected[v[0]]++, v[1]);
+                    return true;
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+        for (int n : expected) {
+            Assertions.assertEquals(batches * batchSize, n);
+        }
+    }
+
+    /**
+     * 请求2个，再请求3个，然后取消，记录下游收到的所有信号
+     */
+    private static List<Object> signals(Flux<Integer> flux) {
+        List<Object> signals = new ArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        flux.subscribe(signals::add,
+                e -> signals.add("onError: " + e.getMessage()),
+                () -> signals.add("onComplete"),
+                subscription::set);
+        subscription.get().request(2);
+        subscription.get().request(3);
+        subscription.get().cancel();
+        return signals;
+    }
+}
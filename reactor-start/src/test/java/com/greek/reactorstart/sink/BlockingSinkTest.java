@@ -0,0 +1,205 @@
+package com.greek.reactorstart.sink;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 UnicastProcessorTest#multiThreadProducer，生产者线程按下游的请求数推送
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("阻塞生产者的FluxSink")
+public class BlockingSinkTest {
+
+    @Test
+    @DisplayName("没有请求数时next阻塞，请求之后继续推送")
+    public void nextBlocksUntilRequested() {
+        AtomicInteger produced = new AtomicInteger();
+        Flux<Integer> created = FluxSinks.createBlocking(s -> Schedulers.elastic().schedule(() -> {
+            for (int i = 0; i < 10; i++) {
+                s.next(i);
+                produced.incrementAndGet();
+            }
+            s.complete();
+        }));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(() -> assertThat(produced.get()).isEqualTo(0))
+                .thenRequest(3)
+                .expectNext(0, 1, 2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .consumeSubscriptionWith(s -> {
+                    assertThat(produced.get()).isEqualTo(3);
+                    // 没有请求数的元素留在生产者线程，不进入缓存
+                    assertThat(Scannable.from(s).scan(Scannable.Attr.BUFFERED)).isEqualTo(0);
+                })
+                .thenRequest(7)
+                .expectNext(3, 4, 5, 6, 7, 8, 9)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("多个线程同时推送，推送数量不超过请求数")
+    public void multiThreadProducer() throws InterruptedException {
+        int nThread = 5;
+        int perThreadCount = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(nThread);
+        AtomicInteger remaining = new AtomicInteger(nThread);
+        Flux<Integer> created = FluxSinks.createBlocking(s -> {
+            for (int i = 0; i < nThread; i++) {
+                executorService.submit(() -> {
+                    for (int j = 0; j < perThreadCount; j++) {
+                        s.next(j);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        s.complete();
+                    }
+                });
+            }
+        });
+
+        try {
+            // publishOn 的队列只有8个位置，上游推送的数量超过请求数会报 Queue is full 错误
+            StepVerifier.create(created.publishOn(Schedulers.single(), 8))
+                    .expectNextCount(nThread * perThreadCount)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(30));
+        }
+        finally {
+            executorService.shutdownNow();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("offer超时返回false，元素仍由调用方持有")
+    public void offerTimeout() {
+        AtomicReference<Boolean> first = new AtomicReference<>();
+        AtomicReference<Boolean> second = new AtomicReference<>();
+        CountDownLatch offered = new CountDownLatch(1);
+        Flux<String> created = FluxSinks.createBlocking(s -> Schedulers.elastic().schedule(() -> {
+            first.set(s.offer("test1", Duration.ofMillis(50)));
+            second.set(s.offer("test1", Duration.ofSeconds(5)));
+            offered.countDown();
+            s.complete();
+        }));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(200))
+                .thenRequest(1)
+                .expectNext("test1")
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasNotDiscardedElements();
+        assertThat(first.get()).isFalse();
+        assertThat(second.get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("取消订阅时唤醒阻塞的生产者")
+    public void cancelWakesUpProducer() throws InterruptedException {
+        CountDownLatch returned = new CountDownLatch(1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Integer> created = FluxSinks.createBlocking(s -> Schedulers.elastic().schedule(() -> {
+            s.next(1);
+            cancelled.set(s.isCancelled());
+            returned.countDown();
+        }));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+
+        Assertions.assertTrue(returned.await(5, TimeUnit.SECONDS), "producer should be woken up");
+        Assertions.assertTrue(cancelled.get());
+    }
+
+    @Test
+    @DisplayName("等待时线程被中断，next抛出异常并保留中断标记")
+    public void interruptedProducer() throws InterruptedException {
+        CountDownLatch returned = new CountDownLatch(1);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Flux<Integer> created = FluxSinks.createBlocking(s -> {
+            Thread producer = new Thread(() -> {
+                try {
+                    s.next(1);
+                }
+                catch (RuntimeException e) {
+                    thrown.set(e);
+                }
+                interrupted.set(Thread.currentThread().isInterrupted());
+                returned.countDown();
+            });
+            producer.start();
+            producer.interrupt();
+        });
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .then(() -> {
+                    try {
+                        Assertions.assertTrue(returned.await(5, TimeUnit.SECONDS), "producer should return");
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .thenCancel()
+                .verifyThenAssertThat()
+                .hasDiscarded(1);
+
+        assertThat(thrown.get()).hasCauseInstanceOf(InterruptedException.class);
+        Assertions.assertTrue(interrupted.get());
+    }
+
+    @Test
+    @DisplayName("请求Long.MAX_VALUE时不会阻塞")
+    public void unboundedDemand() {
+        Flux<Integer> created = FluxSinks.createBlocking(s -> {
+            for (int i = 0; i < 1000; i++) {
+                s.next(i);
+            }
+            s.complete();
+        });
+
+        StepVerifier.create(created)
+                .expectNextCount(1000)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("不能在非阻塞线程中等待请求数")
+    public void nonBlockingThread() {
+        Flux<Integer> created = FluxSinks.<Integer>createBlocking(s -> s.next(1))
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(created, 0)
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("BlockingFluxSink"))
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,253 @@
+package com.greek.reactorstart.sink;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对应 CreateDemo#fluxCreateBufferedBackpressured，缓存有上限时的行为
+ *
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("有界缓存的FluxSink")
+public class BoundedSinkTest {
+
+    @Test
+    @DisplayName("没有超过上限时和BUFFER策略一样")
+    public void underLimit() {
+        Flux<String> created = FluxSinks.createBounded(s -> {
+            s.next("test1");
+            s.next("test2");
+            s.next("test3");
+            s.complete();
+        }, BoundedBuffer.maxElements(3));
+
+        StepVerifier.create(created, 1)
+                .expectNext("test1")
+                .thenAwait()
+                .thenRequest(2)
+                .expectNext("test2", "test3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("ERROR：超过上限发出溢出错误，缓存的数据先推送完")
+    public void error() {
+        BoundedBufferMetrics metrics = new BoundedBufferMetrics();
+        Flux<Integer> created = FluxSinks.createBounded(s -> {
+            for (int i = 1; i <= 5; i++) {
+                s.next(i);
+            }
+            s.complete();
+        }, BoundedBuffer.<Integer>maxElements(3).metrics(metrics));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .consumeSubscriptionWith(s -> {
+                    assertThat(Scannable.from(s).scan(Scannable.Attr.BUFFERED)).isEqualTo(3);
+                    assertThat(Scannable.from(s).scan(Scannable.Attr.CAPACITY)).isEqualTo(3);
+                    assertThat(metrics.depth()).isEqualTo(3);
+                })
+                .thenRequest(10)
+                .expectNext(1, 2, 3)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verifyThenAssertThat()
+                .hasDiscarded(4)
+                .hasDropped(5);
+        assertThat(metrics.overflows()).isEqualTo(1);
+        assertThat(metrics.depth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST：丢弃新推送的元素")
+    public void dropNewest() {
+        BoundedBufferMetrics metrics = new BoundedBufferMetrics();
+        Flux<Integer> created = FluxSinks.createBounded(s -> {
+            for (int i = 1; i <= 5; i++) {
+                s.next(i);
+            }
+            s.complete();
+        }, BoundedBuffer.<Integer>maxElements(3).fallback(BufferFallback.DROP_NEWEST).metrics(metrics));
+
+        // StepVerifier 会在 onSubscribe 中执行 thenRequest，这里要在没有请求数时推送，改用 AssertSubscriber
+        List<Integer> discarded = new ArrayList<>();
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+        created.doOnDiscard(Integer.class, discarded::add).subscribe(ts);
+        ts.request(10);
+        ts.assertValues(1, 2, 3)
+                .assertComplete();
+        assertThat(discarded).containsExactly(4, 5);
+        assertThat(metrics.dropped()).isEqualTo(2);
+        assertThat(metrics.depth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST：丢弃缓存中最早的元素")
+    public void dropOldest() {
+        Flux<Integer> created = FluxSinks.createBounded(s -> {
+            for (int i = 1; i <= 5; i++) {
+                s.next(i);
+            }
+            s.complete();
+        }, BoundedBuffer.<Integer>maxElements(3).fallback(BufferFallback.DROP_OLDEST));
+
+        List<Integer> discarded = new ArrayList<>();
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+        created.doOnDiscard(Integer.class, discarded::add).subscribe(ts);
+        ts.request(10);
+        ts.assertValues(3, 4, 5)
+                .assertComplete();
+        assertThat(discarded).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("按估算的字节数限制缓存，单个超大元素在缓存为空时可以放入")
+    public void maxBytes() {
+        BoundedBufferMetrics metrics = new BoundedBufferMetrics();
+        Flux<String> created = FluxSinks.createBounded(s -> {
+            s.next("aaaa");
+            s.next("bbbb");
+            s.next("cc");
+            s.next("d");
+            s.onRequest(n -> {
+                if (metrics.depth() == 0) {
+                    s.next("xxxxxxxxxxxxxxx");
+                    s.complete();
+                }
+            });
+        }, BoundedBuffer.<String>maxBytes(10, String::length)
+                .fallback(BufferFallback.DROP_NEWEST)
+                .metrics(metrics));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .then(() -> {
+                    assertThat(metrics.bytes()).isEqualTo(10);
+                    assertThat(metrics.dropped()).isEqualTo(1);
+                })
+                .thenRequest(3)
+                .expectNext("aaaa", "bbbb", "cc")
+                .thenRequest(1)
+                .expectNext("xxxxxxxxxxxxxxx")
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasDiscarded("d");
+        assertThat(metrics.bytes()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("BLOCK：缓存满了阻塞生产者线程，直到下游取走数据")
+    public void block() {
+        int count = 50;
+        BoundedBufferMetrics metrics = new BoundedBufferMetrics();
+        Flux<Integer> created = FluxSinks.createBounded(s -> Schedulers.elastic().schedule(() -> {
+            for (int i = 0; i < count; i++) {
+                s.next(i);
+                assertThat(metrics.depth()).isLessThanOrEqualTo(4);
+            }
+            s.complete();
+        }), BoundedBuffer.<Integer>maxElements(4).fallback(BufferFallback.BLOCK).metrics(metrics));
+
+        StepVerifier.create(created.delayElements(Duration.ofMillis(1)))
+                .expectNextCount(count)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+        assertThat(metrics.blocked()).isPositive();
+        assertThat(metrics.dropped()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("BLOCK：等待超时后发出溢出错误")
+    public void blockTimeout() {
+        Flux<Integer> created = FluxSinks.createBounded(s -> Schedulers.elastic().schedule(() -> {
+            s.next(1);
+            s.next(2);
+            s.complete();
+        }), BoundedBuffer.<Integer>maxElements(1)
+                .fallback(BufferFallback.BLOCK)
+                .blockTimeout(Duration.ofMillis(100)));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(500))
+                .thenRequest(1)
+                .expectNext(1)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("BLOCK：不能在非阻塞线程中使用")
+    public void blockInNonBlockingThread() {
+        Flux<Integer> created = FluxSinks.<Integer>createBounded(s -> {
+            s.next(1);
+            s.next(2);
+        }, BoundedBuffer.<Integer>maxElements(1).fallback(BufferFallback.BLOCK))
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(100))
+                .thenRequest(1)
+                .expectNext(1)
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("BLOCK"))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("BLOCK：取消订阅时唤醒阻塞的生产者")
+    public void blockWakeUpOnCancel() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch returned = new CountDownLatch(1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Integer> created = FluxSinks.createBounded(s -> Schedulers.elastic().schedule(() -> {
+            s.next(1);
+            blocked.countDown();
+            s.next(2);
+            cancelled.set(s.isCancelled());
+            returned.countDown();
+        }), BoundedBuffer.<Integer>maxElements(1).fallback(BufferFallback.BLOCK));
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .then(() -> {
+                    try {
+                        blocked.await(5, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .thenAwait(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+
+        Assertions.assertTrue(returned.await(5, TimeUnit.SECONDS), "producer should be woken up");
+        Assertions.assertTrue(cancelled.get());
+    }
+
+    @Test
+    @DisplayName("上限必须大于0")
+    public void invalidLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BoundedBuffer.maxElements(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BoundedBuffer.maxBytes(0, Object::hashCode));
+    }
+}
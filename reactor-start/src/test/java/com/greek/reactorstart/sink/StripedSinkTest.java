@@ -0,0 +1,223 @@
+package com.greek.reactorstart.sink;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author lianghong
+ * @date 2026/10/17
+ */
+@DisplayName("多通道FluxSink")
+public class StripedSinkTest {
+
+    @Test
+    @DisplayName("简单使用")
+    public void simple() {
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            sink.next("test1");
+            sink.next("test2");
+            sink.complete();
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1", "test2")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("抛出错误信号")
+    public void error() {
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            sink.next("test1");
+            sink.error(new IllegalStateException("boom"));
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1")
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    @DisplayName("emitter抛出的异常转为错误信号")
+    public void emitterThrows() {
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            throw new IllegalStateException("boom");
+        });
+
+        StepVerifier.create(created)
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    @DisplayName("背压：按请求数推送，剩下的数据缓存起来")
+    public void backpressure() {
+        Flux<Integer> created = FluxSinks.createStriped(sink -> {
+            for (int i = 0; i < 10; i++) {
+                sink.next(i);
+            }
+            sink.complete();
+        });
+
+        StepVerifier.create(created, 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNext(0, 1, 2)
+                .thenAwait()
+                .consumeSubscriptionWith(s -> assertThat(Scannable.from(s).scan(Scannable.Attr.BUFFERED)).isEqualTo(7))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(3, 4, 5, 6, 7, 8, 9)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("onRequest拿到下游的请求数")
+    public void onRequest() {
+        List<Long> requests = new ArrayList<>();
+        Flux<Integer> created = FluxSinks.createStriped(sink -> sink.onRequest(requests::add));
+
+        // StepVerifier 会在 onSubscribe 中执行 thenRequest，那时 onRequest 还没注册，两次请求会合并成一次
+        AssertSubscriber<Integer> ts = AssertSubscriber.create(5);
+        created.subscribe(ts);
+        ts.request(10);
+        ts.cancel();
+        assertThat(requests).containsExactly(5L, 10L);
+    }
+
+    @Test
+    @DisplayName("多个线程同时推送，同一个线程的数据保持顺序")
+    public void multiThreadProducer() throws InterruptedException {
+        int producers = 16;
+        int count = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(producers);
+
+        Flux<long[]> created = FluxSinks.createStriped(sink -> {
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    }
+                    catch (InterruptedException e) {
+                        sink.error(e);
+                        return;
+                    }
+                    for (long i = 0; i < count; i++) {
+                        sink.next(new long[]{producer, i});
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        sink.complete();
+                    }
+                });
+            }
+            start.countDown();
+        }, 4);
+
+        long[] expected = new long[producers];
+        try {
+            StepVerifier.create(created.limitRate(256))
+                    .thenConsumeWhile(v -> {
+                        Assertions.assertEquals(expected[(int) v[0]]++, v[1]);
+                        return true;
+                    })
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(30));
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        for (long n : expected) {
+            Assertions.assertEquals(count, n);
+        }
+    }
+
+    @Test
+    @DisplayName("完成后onDispose马上执行，onCancel不执行")
+    public void disposeOnComplete() {
+        AtomicInteger onDispose = new AtomicInteger();
+        AtomicInteger onCancel = new AtomicInteger();
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            sink.onDispose(onDispose::getAndIncrement)
+                    .onCancel(onCancel::getAndIncrement);
+            sink.next("test1");
+            sink.complete();
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1")
+                .verifyComplete();
+        assertThat(onDispose.get()).isEqualTo(1);
+        assertThat(onCancel.get()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("取消时onCancel和onDispose都执行，之后推送的数据被丢弃")
+    public void cancel() {
+        AtomicInteger onDispose = new AtomicInteger();
+        AtomicInteger onCancel = new AtomicInteger();
+        AtomicReference<FluxSink<String>> ref = new AtomicReference<>();
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            sink.onDispose(onDispose::getAndIncrement)
+                    .onCancel(onCancel::getAndIncrement);
+            ref.set(sink);
+            sink.next("test1");
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1")
+                .thenCancel()
+                .verify();
+        assertThat(onDispose.get()).isEqualTo(1);
+        assertThat(onCancel.get()).isEqualTo(1);
+        assertThat(ref.get().isCancelled()).isTrue();
+
+        ref.get().next("test2");
+        assertThat(Scannable.from(ref.get()).scan(Scannable.Attr.BUFFERED)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("完成之后再推送的数据被丢弃")
+    public void nextAfterComplete() {
+        Flux<String> created = FluxSinks.createStriped(sink -> {
+            sink.next("test1");
+            sink.complete();
+            sink.next("test2");
+            sink.error(new IllegalStateException("boom"));
+        });
+
+        StepVerifier.create(created)
+                .expectNext("test1")
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasDroppedElements()
+                .hasDropped("test2")
+                .hasDroppedErrorWithMessage("boom");
+    }
+
+    @Test
+    @DisplayName("通道数必须大于0")
+    public void stripesMustBePositive() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FluxSinks.createStriped(sink -> { }, 0));
+    }
+}
@@ -1,5 +1,16 @@
 package reactor.core.processors;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.subscriber.AssertSubscriber;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  *
  * EmitterProcessor <br>
@@ -13,6 +24,237 @@ package reactor.core.processors;
  */
 public class EmitterProcessorTest {
 
-    // TODO
+    @Test
+    @DisplayName("正常")
+    public void normal() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        StepVerifier
+                .create(emitterProcessor)
+                .then(() -> {
+                    Assertions.assertTrue(emitterProcessor.hasDownstreams(), "缺少订阅者");
+                    Assertions.assertFalse(emitterProcessor.hasCompleted(), "completed ?");
+                    Assertions.assertFalse(emitterProcessor.hasError(), "error ?");
+                })
+                .then(() -> {
+                    emitterProcessor.onNext(1);
+                    emitterProcessor.onNext(2);
+                })
+                .expectNext(1, 2)
+                .then(() -> {
+                    emitterProcessor.onNext(3);
+                    emitterProcessor.onComplete();
+                })
+                .expectNext(3)
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("缓存大小：默认是Queues.SMALL_BUFFER_SIZE，可以自定义")
+    public void bufferSize() {
+        EmitterProcessor<Integer> defaultProcessor = EmitterProcessor.create();
+        Assertions.assertEquals(Queues.SMALL_BUFFER_SIZE, defaultProcessor.getBufferSize());
+
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create(16);
+        Assertions.assertEquals(16, emitterProcessor.getBufferSize());
+    }
+
+    @Test
+    @DisplayName("没有订阅者时缓存数据，第一个订阅者收到缓存的数据")
+    public void warmupBuffer() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create(16);
+        emitterProcessor.onNext(1);
+        emitterProcessor.onNext(2);
+        emitterProcessor.onNext(3);
+        Assertions.assertEquals(3, emitterProcessor.getPending());
+
+        StepVerifier
+                .create(emitterProcessor)
+                .expectNext(1, 2, 3)
+                .then(() -> Assertions.assertEquals(0, emitterProcessor.getPending()))
+                .then(emitterProcessor::onComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("完成之后订阅，仍然能收到还没推送过的缓存数据")
+    public void subscribeAfterCompleteWithBufferedData() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        emitterProcessor.onNext(1);
+        emitterProcessor.onNext(2);
+        emitterProcessor.onComplete();
+
+        StepVerifier
+                .create(emitterProcessor)
+                .expectNext(1, 2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("订阅Publisher并把数据同步给订阅者")
+    public void subscribeToPublisher() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        Flux.range(1, 5).subscribe(emitterProcessor);
+
+        StepVerifier
+                .create(emitterProcessor)
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("背压：按请求最少的订阅者推送，最慢的订阅者决定所有订阅者的进度")
+    public void slowestSubscriberGatesAll() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(1);
+
+        emitterProcessor.subscribe(fast);
+        emitterProcessor.subscribe(slow);
+        Assertions.assertEquals(2, emitterProcessor.downstreamCount());
+
+        emitterProcessor.onNext(1);
+        emitterProcessor.onNext(2);
+        emitterProcessor.onNext(3);
+
+        // slow 只请求了1个，fast 也只能收到1个，剩下的留在缓存中
+        fast.assertValues(1);
+        slow.assertValues(1);
+        Assertions.assertEquals(2, emitterProcessor.getPending());
+
+        slow.request(1);
+        fast.assertValues(1, 2);
+        slow.assertValues(1, 2);
+
+        slow.request(10);
+        fast.assertValues(1, 2, 3);
+        slow.assertValues(1, 2, 3);
+
+        emitterProcessor.onComplete();
+        fast.assertComplete();
+        slow.assertComplete();
+    }
+
+    @Test
+    @DisplayName("最慢的订阅者取消后，其他订阅者继续收到数据")
+    public void slowSubscriberCancelled() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        AssertSubscriber<Integer> fast = AssertSubscriber.create();
+        AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+
+        emitterProcessor.subscribe(fast);
+        emitterProcessor.subscribe(slow);
+        emitterProcessor.onNext(1);
+        emitterProcessor.onNext(2);
+        fast.assertNoValues();
+
+        slow.cancel();
+        fast.assertValues(1, 2);
+        slow.assertNoValues();
+    }
+
+    @Test
+    @DisplayName("推送过的数据不再推送给后来的订阅者")
+    public void lateSubscriber() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        AssertSubscriber<Integer> ts_1 = AssertSubscriber.create();
+        AssertSubscriber<Integer> ts_2 = AssertSubscriber.create();
+
+        emitterProcessor.subscribe(ts_1);
+        emitterProcessor.onNext(1);
+        emitterProcessor.onNext(2);
+
+        emitterProcessor.subscribe(ts_2);
+        emitterProcessor.onNext(3);
+        emitterProcessor.onComplete();
+
+        ts_1.assertValues(1, 2, 3)
+                .assertComplete();
+        ts_2.assertValues(3)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("完成之后订阅，直接收到完成信号")
+    public void subscribeAfterComplete() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        AssertSubscriber<Integer> ts_1 = AssertSubscriber.create();
+        AssertSubscriber<Integer> ts_2 = AssertSubscriber.create();
+
+        emitterProcessor.subscribe(ts_1);
+        emitterProcessor.onNext(1);
+        emitterProcessor.onComplete();
+        ts_1.assertValues(1)
+                .assertComplete();
+
+        emitterProcessor.subscribe(ts_2);
+        ts_2.assertNoValues()
+                .assertComplete();
+        Assertions.assertTrue(emitterProcessor.hasCompleted(), "no completed ?");
+    }
+
+    @Test
+    @DisplayName("错误信号推送给所有订阅者，之后的订阅者直接收到错误")
+    public void error() {
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        AssertSubscriber<Integer> ts_1 = AssertSubscriber.create();
+        AssertSubscriber<Integer> ts_2 = AssertSubscriber.create();
+        AssertSubscriber<Integer> late = AssertSubscriber.create();
+
+        emitterProcessor.subscribe(ts_1);
+        emitterProcessor.subscribe(ts_2);
+        emitterProcessor.onNext(1);
+        emitterProcessor.onError(new IllegalStateException("boom"));
+
+        ts_1.assertValues(1).assertErrorMessage("boom");
+        ts_2.assertValues(1).assertErrorMessage("boom");
+        Assertions.assertTrue(emitterProcessor.hasError(), "no error ?");
+
+        emitterProcessor.subscribe(late);
+        late.assertNoValues().assertErrorMessage("boom");
+    }
+
+    @Test
+    @DisplayName("autoCancel：所有订阅者取消后，取消上游并不再接收订阅者")
+    public void autoCancel() {
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create();
+        Flux.range(1, 1000)
+                .doOnCancel(() -> upstreamCancelled.set(true))
+                .subscribe(emitterProcessor);
+
+        StepVerifier
+                .create(emitterProcessor.take(2))
+                .expectNext(1, 2)
+                .verifyComplete();
+
+        Assertions.assertTrue(upstreamCancelled.get(), "upstream not cancelled ?");
+
+        // 不再接收订阅者，后来的订阅者直接收到完成信号
+        StepVerifier
+                .create(emitterProcessor)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("autoCancel=false：所有订阅者取消后，保留上游和缓存，后来的订阅者继续收到数据")
+    public void noAutoCancel() {
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        EmitterProcessor<Integer> emitterProcessor = EmitterProcessor.create(16, false);
+        Flux.range(1, 1000)
+                .doOnCancel(() -> upstreamCancelled.set(true))
+                .subscribe(emitterProcessor);
+
+        StepVerifier
+                .create(emitterProcessor.take(2))
+                .expectNext(1, 2)
+                .verifyComplete();
+
+        Assertions.assertFalse(upstreamCancelled.get(), "upstream cancelled ?");
 
+        StepVerifier
+                .create(emitterProcessor.take(2))
+                .expectNext(3, 4)
+                .verifyComplete();
+    }
 }
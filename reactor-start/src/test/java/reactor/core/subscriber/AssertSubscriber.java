@@ -30,6 +30,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -80,16 +81,21 @@ public class AssertSubscriber<T>
 	 */
 	public static final Duration DEFAULT_VALUES_TIMEOUT = Duration.ofSeconds(3);
 
+	/**
+	 * Longest single park of the static await methods, which poll an opaque condition
+	 */
+	static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	/**
+	 * First park duration of the static await methods, doubled up to {@link #MAX_PARK_NANOS}
+	 */
+	static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
 	@SuppressWarnings("rawtypes")
     private static final AtomicLongFieldUpdater<AssertSubscriber> REQUESTED =
 			AtomicLongFieldUpdater.newUpdater(AssertSubscriber.class, "requested");
 
 	@SuppressWarnings("rawtypes")
-	private static final AtomicReferenceFieldUpdater<AssertSubscriber, List> NEXT_VALUES =
-			AtomicReferenceFieldUpdater.newUpdater(AssertSubscriber.class, List.class,
-					"values");
-
-	@SuppressWarnings("rawtypes")
     private static final AtomicReferenceFieldUpdater<AssertSubscriber, Subscription> S =
 			AtomicReferenceFieldUpdater.newUpdater(AssertSubscriber.class, Subscription.class, "s");
 
@@ -103,7 +109,16 @@ public class AssertSubscriber<T>
 
 	volatile long requested;
 
-	volatile List<T> values = new LinkedList<>();
+	/**
+	 * Append-only store of the received values, written by the (serialized) onNext
+	 * and readable from any thread.
+	 */
+	final ValuesBuffer<T> values = new ValuesBuffer<>();
+
+	/**
+	 * Index of the first value not yet consumed by {@link #awaitAndAssertNextValuesWith(Consumer[])}.
+	 */
+	private volatile int valuesOffset = 0;
 
 	/**
 	 * The fusion mode to request.
@@ -132,6 +147,20 @@ public class AssertSubscriber<T>
 
 	private boolean valuesStorage = true;
 
+	private StreamingStats<T> streamingStats;
+
+	/**
+	 * Threads blocked in {@link #awaitAndAssertNextValueCount(long)} and
+	 * {@link #awaitAndAssertNextValuesWith(Consumer[])}, guarded by itself.
+	 */
+	private final List<ValueCountWaiter> waiters = new ArrayList<>(2);
+
+	/**
+	 * Lowest value count a waiter is blocked on, {@link Long#MAX_VALUE} when no thread
+	 * waits. Checked by onNext to wake up waiters as soon as their count is reached.
+	 */
+	private volatile long wakeUpValueCount = Long.MAX_VALUE;
+
 //	 ==============================================================================================================
 //	 Static methods
 //	 ==============================================================================================================
@@ -156,20 +185,23 @@ public class AssertSubscriber<T>
 
 		long timeoutNs = timeout.toNanos();
 		long startTime = System.nanoTime();
-		do {
+		long parkNs = MIN_PARK_NANOS;
+		for (;;) {
 			if (conditionSupplier.getAsBoolean()) {
 				return;
 			}
-			try {
-				Thread.sleep(100);
+			long remainingNs = timeoutNs - (System.nanoTime() - startTime);
+			if (remainingNs <= 0) {
+				throw new AssertionError(errorMessageSupplier.get());
 			}
-			catch (InterruptedException e) {
+			// the condition is opaque so nobody can signal us: back off exponentially
+			LockSupport.parkNanos(Math.min(parkNs, remainingNs));
+			if (Thread.interrupted()) {
 				Thread.currentThread().interrupt();
-				throw new RuntimeException(e);
+				throw new AssertionError("Wait interrupted", new InterruptedException());
 			}
+			parkNs = Math.min(parkNs << 1, MAX_PARK_NANOS);
 		}
-		while (System.nanoTime() - startTime < timeoutNs);
-		throw new AssertionError(errorMessageSupplier.get());
 	}
 
 	/**
@@ -259,6 +291,35 @@ public class AssertSubscriber<T>
 		return this;
 	}
 
+	/**
+	 * Enable streaming verification and disable the values storage: received values
+	 * are only summarized in constant memory (count, checksums, min/max, ordering
+	 * violations and a reservoir sample), so that streams with billions of values can
+	 * be asserted. Values are compared with their natural ordering and must be
+	 * {@link Comparable}.
+	 * @param sampleSize the number of values kept in the reservoir sample
+	 * @return this
+	 * @see #configureStreamingVerification(int, Comparator)
+	 */
+	@SuppressWarnings("unchecked")
+	public final AssertSubscriber<T> configureStreamingVerification(int sampleSize) {
+		return configureStreamingVerification(sampleSize, (Comparator<? super T>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Enable streaming verification and disable the values storage, comparing values
+	 * with the given {@link Comparator} for min/max and ordering violations.
+	 * @param sampleSize the number of values kept in the reservoir sample
+	 * @param comparator the values ordering, or null to skip min/max and ordering checks
+	 * @return this
+	 */
+	public final AssertSubscriber<T> configureStreamingVerification(int sampleSize,
+			Comparator<? super T> comparator) {
+		this.streamingStats = new StreamingStats<>(sampleSize, comparator);
+		this.valuesStorage = false;
+		return this;
+	}
+
 	/**
 	 * Configure the timeout in seconds for waiting next values to be received (3 seconds
 	 * by default).
@@ -279,6 +340,16 @@ public class AssertSubscriber<T>
 		return establishedFusionMode;
 	}
 
+	/**
+	 * Returns the streaming statistics, read them after a terminal signal.
+	 *
+	 * @return the statistics of the received values
+	 * @see #configureStreamingVerification(int)
+	 */
+	public final StreamingStats<T> streamingStats() {
+		return requireStreamingStats("streamingStats()");
+	}
+
 //	 ==============================================================================================================
 //	 Assertions
 //	 ==============================================================================================================
@@ -311,8 +382,9 @@ public class AssertSubscriber<T>
 			throw new IllegalStateException(
 					"Using assertNoValues() requires enabling values storage");
 		}
-		if (expectedValues.size() > values.size()) {
-			throw new AssertionError("Actual contains fewer elements" + values, null);
+		List<T> actual = values();
+		if (expectedValues.size() > actual.size()) {
+			throw new AssertionError("Actual contains fewer elements" + actual, null);
 		}
 
 		Iterator<? extends T> expected = expectedValues.iterator();
@@ -321,7 +393,7 @@ public class AssertSubscriber<T>
 			boolean n2 = expected.hasNext();
 			if (n2) {
 				T t2 = expected.next();
-				if (!values.contains(t2)) {
+				if (!actual.contains(t2)) {
 					throw new AssertionError("The element is not contained in the " +
 							"received results" +
 							" = " + valueAndClass(t2), null);
@@ -460,6 +532,24 @@ public class AssertSubscriber<T>
 		return this;
 	}
 
+	/**
+	 * Assert the lowest and highest received values. Streaming verification should be
+	 * enabled to use this method.
+	 * @param min the expected lowest value
+	 * @param max the expected highest value
+	 * @see #configureStreamingVerification(int)
+	 * @return this
+	 */
+	public final AssertSubscriber<T> assertMinMax(T min, T max) {
+		StreamingStats<T> stats = requireStreamingStats("assertMinMax()");
+		if (!Objects.equals(min, stats.min()) || !Objects.equals(max, stats.max())) {
+			throw new AssertionError("Different min/max: expected = [" + valueAndClass(min) + ", " +
+					valueAndClass(max) + "], actual = [" + valueAndClass(stats.min()) + ", " +
+					valueAndClass(stats.max()) + "]", null);
+		}
+		return this;
+	}
+
 	/**
 	 * Assert no error signal has been received.
      * @return this
@@ -477,6 +567,21 @@ public class AssertSubscriber<T>
 		return this;
 	}
 
+	/**
+	 * Assert each received value was not lower than the value received before it.
+	 * Streaming verification should be enabled to use this method.
+	 * @see #configureStreamingVerification(int)
+	 * @return this
+	 */
+	public final AssertSubscriber<T> assertNoOrderingViolation() {
+		StreamingStats<T> stats = requireStreamingStats("assertNoOrderingViolation()");
+		if (stats.orderingViolations() != 0) {
+			throw new AssertionError("Values out of order: " + stats.orderingViolations() +
+					" ordering violations in " + stats.count() + " values", null);
+		}
+		return this;
+	}
+
 	/**
 	 * Assert no values have been received.
 	 *
@@ -484,7 +589,8 @@ public class AssertSubscriber<T>
 	 */
 	public final AssertSubscriber<T> assertNoValues() {
 		if (valueCount != 0) {
-			throw new AssertionError("No values expected but received: [length = " + values.size() + "] " + values,
+			List<T> actual = values();
+			throw new AssertionError("No values expected but received: [length = " + actual.size() + "] " + actual,
 					null);
 		}
 		return this;
@@ -545,6 +651,35 @@ public class AssertSubscriber<T>
 		return this;
 	}
 
+	/**
+	 * Assert the received values have the same count, sum and xor hash as a reference
+	 * summary, regardless of their order. Streaming verification should be enabled to
+	 * use this method.
+	 * @param expected the summary of the expected values
+	 * @see #configureStreamingVerification(int)
+	 * @return this
+	 */
+	public final AssertSubscriber<T> assertSameChecksums(StreamingStats<?> expected) {
+		StreamingStats<T> stats = requireStreamingStats("assertSameChecksums()");
+		if (!stats.sameChecksums(expected)) {
+			throw new AssertionError("Different checksums: expected = " + expected + ", actual = " + stats, null);
+		}
+		return this;
+	}
+
+	/**
+	 * Assert the streaming statistics with a custom expectation. Streaming verification
+	 * should be enabled to use this method.
+	 * @param expectation A method that can verify the statistics and throw an exception
+	 * (like an {@link AssertionError}) if they are not valid.
+	 * @see #configureStreamingVerification(int)
+	 * @return this
+	 */
+	public final AssertSubscriber<T> assertStreamingStats(Consumer<? super StreamingStats<T>> expectation) {
+		expectation.accept(requireStreamingStats("assertStreamingStats()"));
+		return this;
+	}
+
 	/**
 	 * Assert subscription occurred (once).
 	 * @return this
@@ -562,6 +697,21 @@ public class AssertSubscriber<T>
 		return this;
 	}
 
+	/**
+	 * Assert the sum of the received values ({@code long} value of numbers, hash code of
+	 * other values). Streaming verification should be enabled to use this method.
+	 * @param expected the expected sum
+	 * @see #configureStreamingVerification(int)
+	 * @return this
+	 */
+	public final AssertSubscriber<T> assertSum(long expected) {
+		StreamingStats<T> stats = requireStreamingStats("assertSum()");
+		if (stats.sum() != expected) {
+			throw new AssertionError("Different sum: expected = " + expected + ", actual = " + stats.sum(), null);
+		}
+		return this;
+	}
+
 	/**
 	 * Assert either complete successfully or error signal has been received.
 	 * @return this
@@ -601,7 +751,8 @@ public class AssertSubscriber<T>
 		if (!valuesStorage) {
 			throw new IllegalStateException("Using assertNoValues() requires enabling values storage");
 		}
-		Iterator<T> actual = values.iterator();
+		List<T> snapshot = values();
+		Iterator<T> actual = snapshot.iterator();
 		Iterator<? extends T> expected = expectedSequence.iterator();
 		int i = 0;
 		for (; ; ) {
@@ -617,9 +768,9 @@ public class AssertSubscriber<T>
 				}
 				i++;
 			} else if (n1 && !n2) {
-				throw new AssertionError("Actual contains more elements" + values, null);
+				throw new AssertionError("Actual contains more elements" + snapshot, null);
 			} else if (!n1 && n2) {
-				throw new AssertionError("Actual contains fewer elements: " + values, null);
+				throw new AssertionError("Actual contains fewer elements: " + snapshot, null);
 			} else {
 				break;
 			}
@@ -660,12 +811,13 @@ public class AssertSubscriber<T>
 					"Using assertNoValues() requires enabling values storage");
 		}
 		final int expectedValueCount = expectations.length;
-		if (expectedValueCount != values.size()) {
+		List<T> actual = values();
+		if (expectedValueCount != actual.size()) {
 			throw new AssertionError("Different value count: expected = " + expectedValueCount + ", actual = " + valueCount, null);
 		}
 		for (int i = 0; i < expectedValueCount; i++) {
 			Consumer<T> consumer = expectations[i];
-			T actualValue = values.get(i);
+			T actualValue = actual.get(i);
 			consumer.accept(actualValue);
 		}
 		return this;
@@ -686,6 +838,7 @@ public class AssertSubscriber<T>
 		try {
 			cdl.await();
 		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
 			throw new AssertionError("Wait interrupted", ex);
 		}
 		return this;
@@ -708,6 +861,7 @@ public class AssertSubscriber<T>
 			return this;
 		}
 		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
 			throw new AssertionError("Wait interrupted", ex);
 		}
 	}
@@ -720,21 +874,21 @@ public class AssertSubscriber<T>
 	 * @return this
 	 */
 	public final AssertSubscriber<T> awaitAndAssertNextValueCount(final long n) {
-		await(valuesTimeout, () -> {
+		awaitValueCount(nextValueAssertedCount + n, () -> {
 			if(valuesStorage){
 				return String.format("%d out of %d next values received within %d, " +
 						"values : %s",
 						valueCount - nextValueAssertedCount,
 						n,
 						valuesTimeout.toMillis(),
-						values.toString()
+						values().toString()
 						);
 			}
 			return String.format("%d out of %d next values received within %d",
 					valueCount - nextValueAssertedCount,
 					n,
 					valuesTimeout.toMillis());
-		}, () -> valueCount >= (nextValueAssertedCount + n));
+		});
 		nextValueAssertedCount += n;
 		return this;
 	}
@@ -778,29 +932,22 @@ public class AssertSubscriber<T>
 	public final AssertSubscriber<T> awaitAndAssertNextValuesWith(Consumer<T>... expectations) {
 		valuesStorage = true;
 		final int expectedValueCount = expectations.length;
-		await(valuesTimeout, () -> {
+		awaitValueCount(nextValueAssertedCount + expectedValueCount, () -> {
 			if(valuesStorage){
 				return String.format("%d out of %d next values received within %d, " +
 								"values : %s",
 						valueCount - nextValueAssertedCount,
 						expectedValueCount,
 						valuesTimeout.toMillis(),
-						values.toString()
+						values().toString()
 				);
 			}
 			return String.format("%d out of %d next values received within %d ms",
 					valueCount - nextValueAssertedCount,
 					expectedValueCount,
 					valuesTimeout.toMillis());
-		}, () -> valueCount >= (nextValueAssertedCount + expectedValueCount));
-		List<T> nextValuesSnapshot;
-		List<T> empty = new ArrayList<>();
-		for(;;){
-			nextValuesSnapshot = values;
-			if(NEXT_VALUES.compareAndSet(this, values, empty)){
-				break;
-			}
-		}
+		});
+		List<T> nextValuesSnapshot = values();
 		if (nextValuesSnapshot.size() < expectedValueCount) {
 			throw new AssertionError(String.format("Expected %d number of signals but received %d",
 					expectedValueCount,
@@ -811,6 +958,7 @@ public class AssertSubscriber<T>
 			T actualValue = nextValuesSnapshot.get(i);
 			consumer.accept(actualValue);
 		}
+		valuesOffset += expectedValueCount;
 		nextValueAssertedCount += expectedValueCount;
 		return this;
 	}
@@ -842,12 +990,14 @@ public class AssertSubscriber<T>
 	public void onComplete() {
 		completionCount++;
 		cdl.countDown();
+		signalWaiters(Long.MAX_VALUE);
 	}
 
 	@Override
 	public void onError(Throwable t) {
 		errors.add(t);
 		cdl.countDown();
+		signalWaiters(Long.MAX_VALUE);
 	}
 
 	@Override
@@ -858,35 +1008,28 @@ public class AssertSubscriber<T>
 				if (t == null) {
 					break;
 				}
-				valueCount++;
-				if (valuesStorage) {
-					List<T> nextValuesSnapshot;
-					for (; ; ) {
-						nextValuesSnapshot = values;
-						nextValuesSnapshot.add(t);
-						if (NEXT_VALUES.compareAndSet(this,
-								nextValuesSnapshot,
-								nextValuesSnapshot)) {
-							break;
-						}
-					}
-				}
+				addValue(t);
 			}
 		}
 		else {
-			valueCount++;
-			if (valuesStorage) {
-				List<T> nextValuesSnapshot;
-				for (; ; ) {
-					nextValuesSnapshot = values;
-					nextValuesSnapshot.add(t);
-					if (NEXT_VALUES.compareAndSet(this,
-							nextValuesSnapshot,
-							nextValuesSnapshot)) {
-						break;
-					}
-				}
-			}
+			addValue(t);
+		}
+	}
+
+	private void addValue(T t) {
+		if (valuesStorage) {
+			values.add(t);
+		}
+		StreamingStats<T> stats = streamingStats;
+		if (stats != null) {
+			stats.add(t);
+		}
+		// volatile store then volatile load, paired with addWaiter's store of
+		// wakeUpValueCount then load of valueCount: one side always sees the other
+		long count = valueCount + 1;
+		valueCount = count;
+		if (count >= wakeUpValueCount) {
+			signalWaiters(count);
 		}
 	}
 
@@ -1099,6 +1242,112 @@ public class AssertSubscriber<T>
 		throw e;
 	}
 
+	/**
+	 * Blocking method that waits until {@code target} values have been received in
+	 * total, failing after the values timeout or if the sequence terminates before.
+	 * The waiting thread is unparked by onNext once the count is reached, and by the
+	 * terminal signals.
+	 *
+	 * @param target the total value count to wait for
+	 * @param errorMessageSupplier the error message supplier
+	 */
+	private void awaitValueCount(long target, Supplier<String> errorMessageSupplier) {
+		if (valueCount >= target) {
+			return;
+		}
+		ValueCountWaiter waiter = new ValueCountWaiter(Thread.currentThread(), target);
+		addWaiter(waiter);
+		try {
+			long deadline = System.nanoTime() + valuesTimeout.toNanos();
+			for (;;) {
+				if (valueCount >= target) {
+					return;
+				}
+				long remainingNs = deadline - System.nanoTime();
+				if (remainingNs <= 0) {
+					throw new AssertionError(errorMessageSupplier.get());
+				}
+				if (cdl.getCount() == 0) {
+					// the last values may have been published just before the terminal signal
+					if (valueCount >= target) {
+						return;
+					}
+					throw new AssertionError(errorMessageSupplier.get());
+				}
+				// onNext and the terminal signals unpark this thread once it is registered
+				LockSupport.parkNanos(this, remainingNs);
+				if (Thread.interrupted()) {
+					Thread.currentThread().interrupt();
+					throw new AssertionError("Wait interrupted", new InterruptedException());
+				}
+			}
+		}
+		finally {
+			removeWaiter(waiter);
+		}
+	}
+
+	private void addWaiter(ValueCountWaiter waiter) {
+		synchronized (waiters) {
+			waiters.add(waiter);
+			if (waiter.target < wakeUpValueCount) {
+				wakeUpValueCount = waiter.target;
+			}
+		}
+	}
+
+	private void removeWaiter(ValueCountWaiter waiter) {
+		synchronized (waiters) {
+			waiters.remove(waiter);
+			long next = Long.MAX_VALUE;
+			for (ValueCountWaiter w : waiters) {
+				next = Math.min(next, w.target);
+			}
+			wakeUpValueCount = next;
+		}
+	}
+
+	/**
+	 * Unpark the waiters whose target is reached by {@code count} values, all of them
+	 * for {@link Long#MAX_VALUE}.
+	 *
+	 * @param count the current value count
+	 */
+	private void signalWaiters(long count) {
+		synchronized (waiters) {
+			long next = Long.MAX_VALUE;
+			for (ValueCountWaiter w : waiters) {
+				if (w.target <= count) {
+					LockSupport.unpark(w.thread);
+				}
+				else {
+					next = Math.min(next, w.target);
+				}
+			}
+			wakeUpValueCount = next;
+		}
+	}
+
+	static final class ValueCountWaiter {
+
+		final Thread thread;
+
+		final long target;
+
+		ValueCountWaiter(Thread thread, long target) {
+			this.thread = thread;
+			this.target = target;
+		}
+	}
+
+	private StreamingStats<T> requireStreamingStats(String method) {
+		StreamingStats<T> stats = streamingStats;
+		if (stats == null) {
+			throw new IllegalStateException("Using " + method + " requires enabling streaming verification");
+		}
+		return stats;
+	}
+
 	protected final String fusionModeName(int mode) {
 		switch (mode) {
 			case -1:
@@ -1121,8 +1370,15 @@ public class AssertSubscriber<T>
 		return o + " (" + o.getClass().getSimpleName() + ")";
 	}
 
+	/**
+	 * Return a snapshot of the stored values that have not been consumed by
+	 * {@link #awaitAndAssertNextValuesWith(Consumer[])}. The returned list is read-only
+	 * and does not change when further values are received.
+	 *
+	 * @return the values received so far
+	 */
 	public List<T> values(){
-		return values;
+		return values.snapshot(valuesOffset);
 	}
 
 
@@ -0,0 +1,213 @@
+package reactor.core.subscriber;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * AssertSubscriber 值存储的测试 <br>
+ * 1. 分块追加存储，单写多读 <br>
+ * 2. Integer/Long 序列使用 int[]/long[] 存储，读取时才装箱 <br>
+ * 3. 流式校验：不保存数据，只统计校验和与抽样，内存占用固定 <br>
+ * 4. 等待数据时由 onNext/onComplete/onError 直接唤醒，而不是轮询 <br>
+ * @author lianghong
+ * @date 2026/10/17
+ */
+public class AssertSubscriberTest {
+
+    @Test
+    @DisplayName("publishOn异步推送大量数据")
+    public void publishOnManyValues() {
+        int count = 1_000_000;
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+        Flux.range(0, count)
+                .publishOn(Schedulers.parallel())
+                .subscribe(ts);
+
+        ts.await()
+                .assertValueCount(count)
+                .assertComplete();
+        List<Integer> values = ts.values();
+        Assertions.assertEquals(count, values.size());
+        for (int i = 0; i < count; i++) {
+            Assertions.assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    @Test
+    @DisplayName("推送过程中并发读取已收到的数据")
+    public void concurrentReadWhileReceiving() {
+        int count = 500_000;
+        AssertSubscriber<Long> ts = AssertSubscriber.create();
+
+        Flux.range(0, count)
+                .map(Integer::longValue)
+                .publishOn(Schedulers.single())
+                .subscribe(ts);
+
+        while (!ts.isTerminated()) {
+            List<Long> snapshot = ts.values();
+            int n = snapshot.size();
+            if (n > 0) {
+                Assertions.assertEquals(n - 1, snapshot.get(n - 1).longValue());
+            }
+        }
+        ts.assertValueCount(count)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("不同类型的数据混合存储")
+    public void mixedValueTypes() {
+        AssertSubscriber<Object> ts = AssertSubscriber.create();
+        ts.onSubscribe(Operators.emptySubscription());
+
+        ts.onNext(1);
+        ts.onNext(2);
+        // 第一个值是Integer，收到其他类型的值后转为Object存储
+        ts.onNext("three");
+        ts.onNext(4L);
+        ts.onComplete();
+
+        ts.assertValues(1, 2, "three", 4L)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("values()返回的是快照")
+    public void valuesSnapshotIsStable() {
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+        ts.onSubscribe(Operators.emptySubscription());
+        ts.onNext(1);
+
+        List<Integer> snapshot = ts.values();
+        ts.onNext(2);
+
+        Assertions.assertEquals(1, snapshot.size());
+        ts.assertValues(1, 2);
+    }
+
+    @Test
+    @DisplayName("逐步断言后续的数据")
+    public void awaitAndAssertNextValuesInSteps() {
+        AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+        Flux.just(1, 2, 3).subscribe(ts);
+
+        // 只消费已断言的两个值，剩下的值留给下一次断言
+        ts.awaitAndAssertNextValues(1, 2)
+                .awaitAndAssertNextValues(3)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("流式校验大量数据")
+    public void streamingVerification() {
+        int count = 10_000_000;
+        AssertSubscriber<Integer> ts = AssertSubscriber.<Integer>create()
+                .configureStreamingVerification(16);
+
+        Flux.range(1, count)
+                .flatMap(Flux::just)
+                .subscribe(ts);
+
+        ts.await()
+                .assertComplete()
+                .assertValueCount(count)
+                .assertSum((long) count * (count + 1) / 2)
+                .assertMinMax(1, count)
+                .assertNoOrderingViolation()
+                .assertStreamingStats(stats -> Assertions.assertEquals(16, stats.sample().size()));
+        Assertions.assertTrue(ts.values().isEmpty(), "values should not be stored");
+    }
+
+    @Test
+    @DisplayName("流式校验乱序的数据")
+    public void streamingVerificationUnordered() {
+        int count = 100_000;
+        StreamingStats<Integer> expected = StreamingStats.create(0, null);
+        for (int i = 0; i < count; i++) {
+            expected.add(i);
+        }
+        AssertSubscriber<Integer> ts = AssertSubscriber.<Integer>create()
+                .configureStreamingVerification(0);
+
+        Flux.range(0, count)
+                .flatMap(v -> Mono.just(v).subscribeOn(Schedulers.parallel()))
+                .subscribe(ts);
+
+        // flatMap 交错输出，顺序不同但校验和相同
+        ts.await()
+                .assertComplete()
+                .assertSameChecksums(expected)
+                .assertMinMax(0, count - 1);
+    }
+
+    @Test
+    @DisplayName("收到足够的数据后唤醒等待的线程")
+    public void awaitWokenUpByOnNext() {
+        AssertSubscriber<Long> ts = AssertSubscriber.<Long>create()
+                .configureValuesTimeout(Duration.ofSeconds(5));
+
+        Flux.interval(Duration.ofMillis(10))
+                .take(20)
+                .subscribe(ts);
+
+        ts.awaitAndAssertNextValues(0L, 1L)
+                .awaitAndAssertNextValueCount(5)
+                .awaitAndAssertNextValueCount(13);
+        ts.await()
+                .assertValueCount(20)
+                .assertComplete();
+    }
+
+    @Test
+    @DisplayName("等待和onNext并发时不会丢失唤醒")
+    public void noLostWakeUp() throws InterruptedException {
+        int rounds = 5_000;
+        AssertSubscriber<Integer> ts = AssertSubscriber.<Integer>create()
+                .configureValuesTimeout(Duration.ofSeconds(5));
+        ts.onSubscribe(Operators.emptySubscription());
+        Semaphore turn = new Semaphore(0);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                turn.acquireUninterruptibly();
+                ts.onNext(i);
+            }
+        });
+        producer.start();
+
+        // 每一轮都在等待的线程登记前后推送，丢失一次唤醒就会等到超时
+        for (int i = 0; i < rounds; i++) {
+            turn.release();
+            ts.awaitAndAssertNextValueCount(1);
+        }
+        producer.join();
+        ts.assertValueCount(rounds);
+    }
+
+    @Test
+    @DisplayName("序列提前终止时不再等到超时")
+    public void awaitFailsFastOnTermination() {
+        AssertSubscriber<Integer> ts = AssertSubscriber.<Integer>create()
+                .configureValuesTimeout(Duration.ofSeconds(30));
+
+        Flux.just(1)
+                .delayElements(Duration.ofMillis(50))
+                .subscribe(ts);
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(AssertionError.class, () -> ts.awaitAndAssertNextValueCount(2));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(10).toNanos(),
+                "should not wait until the timeout");
+    }
+}
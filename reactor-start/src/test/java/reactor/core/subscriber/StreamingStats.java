@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.subscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Constant-memory summary of a value stream, used by {@link AssertSubscriber} when
+ * streaming verification is enabled.
+ *
+ * <p>It keeps a count, an arithmetic sum, an order-independent xor hash and an
+ * order-dependent hash of the values, their min/max and the number of ordering
+ * violations according to a {@link Comparator}, plus a reservoir sample of a fixed
+ * number of values. Numbers contribute their {@code long} value to the sum and
+ * hashes, other values their {@link Object#hashCode()}.
+ *
+ * <p>Updates are made by the single thread delivering onNext signals. Read the
+ * statistics after a terminal signal (for example after {@link AssertSubscriber#await()})
+ * to get a consistent view.
+ *
+ * @param <T> the value type
+ */
+public final class StreamingStats<T> {
+
+	/**
+	 * Create a new summary, for example to compute the expected statistics of a
+	 * reference sequence.
+	 *
+	 * @param sampleSize the size of the reservoir sample, can be 0
+	 * @param comparator the ordering used for min/max and ordering violations, or
+	 * {@code null} to skip them
+	 * @param <T> the value type
+	 * @return a fresh summary
+	 */
+	public static <T> StreamingStats<T> create(int sampleSize, Comparator<? super T> comparator) {
+		return new StreamingStats<>(sampleSize, comparator);
+	}
+
+	private final Comparator<? super T> comparator;
+
+	private final Object[] sample;
+
+	private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+
+	private volatile long count;
+
+	private long sum;
+
+	private long xorHash;
+
+	private long orderedHash;
+
+	private long orderingViolations;
+
+	private T min;
+
+	private T max;
+
+	private T last;
+
+	StreamingStats(int sampleSize, Comparator<? super T> comparator) {
+		if (sampleSize < 0) {
+			throw new IllegalArgumentException("sampleSize >= 0 required but it was " + sampleSize);
+		}
+		this.sample = new Object[sampleSize];
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Add a value to the summary. Must only be called by one thread at a time.
+	 *
+	 * @param t the value
+	 */
+	public void add(T t) {
+		long n = count;
+		long v = valueOf(t);
+		sum += v;
+		long h = mix(v);
+		xorHash ^= h;
+		orderedHash = orderedHash * 31 + h;
+
+		if (comparator != null) {
+			if (n == 0) {
+				min = t;
+				max = t;
+			}
+			else {
+				if (comparator.compare(t, min) < 0) {
+					min = t;
+				}
+				if (comparator.compare(t, max) > 0) {
+					max = t;
+				}
+				if (comparator.compare(t, last) < 0) {
+					orderingViolations++;
+				}
+			}
+			last = t;
+		}
+
+		int size = sample.length;
+		if (n < size) {
+			sample[(int) n] = t;
+		}
+		else if (size != 0) {
+			long j = random.nextLong(n + 1);
+			if (j < size) {
+				sample[(int) j] = t;
+			}
+		}
+		count = n + 1;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the values, wrapping on overflow
+	 */
+	public long sum() {
+		return sum;
+	}
+
+	/**
+	 * @return a hash of the values that does not depend on their order
+	 */
+	public long xorHash() {
+		return xorHash;
+	}
+
+	/**
+	 * @return a hash of the values that depends on their order
+	 */
+	public long orderedHash() {
+		return orderedHash;
+	}
+
+	/**
+	 * @return the number of values lower than the value received just before them
+	 */
+	public long orderingViolations() {
+		return orderingViolations;
+	}
+
+	public T min() {
+		return min;
+	}
+
+	public T max() {
+		return max;
+	}
+
+	/**
+	 * @return a uniform random sample of at most {@code sampleSize} received values,
+	 * in no particular order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> sample() {
+		int n = (int) Math.min(count, sample.length);
+		List<T> result = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			result.add((T) sample[i]);
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Compare the count, sum and xor hash with another summary, typically computed
+	 * from a reference sequence. The order of the values is not taken into account.
+	 *
+	 * @param other the reference summary
+	 * @return true if both summaries have the same count and checksums
+	 */
+	public boolean sameChecksums(StreamingStats<?> other) {
+		return count == other.count && sum == other.sum && xorHash == other.xorHash;
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingStats{" +
+				"count=" + count +
+				", sum=" + sum +
+				", xorHash=" + xorHash +
+				", orderedHash=" + orderedHash +
+				", min=" + min +
+				", max=" + max +
+				", orderingViolations=" + orderingViolations +
+				", sample=" + Arrays.toString(Arrays.copyOf(sample, (int) Math.min(count, sample.length))) +
+				'}';
+	}
+
+	static long valueOf(Object t) {
+		if (t instanceof Number) {
+			return ((Number) t).longValue();
+		}
+		return Objects.hashCode(t);
+	}
+
+	/**
+	 * MurmurHash3 finalizer, so that the xor of close values does not cancel out.
+	 */
+	static long mix(long v) {
+		v ^= v >>> 33;
+		v *= 0xff51afd7ed558ccdL;
+		v ^= v >>> 33;
+		v *= 0xc4ceb9fe1a85ec53L;
+		v ^= v >>> 33;
+		return v;
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.subscriber;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A chunked, append-only value store with a single writer and any number of
+ * concurrent readers, used by {@link AssertSubscriber} to retain received values.
+ *
+ * <p>Values are written into fixed-size chunks that are never moved once allocated,
+ * so appending allocates O(n / chunk) arrays instead of one node per element. The
+ * writer publishes each value by lazily setting {@link #size}; readers read the size
+ * first and then only access indexes below it.
+ *
+ * <p>When the first value is an {@link Integer} or a {@link Long}, the chunks are
+ * {@code int[]} / {@code long[]} and values are only boxed when read back. A value of
+ * any other type (or {@code null}) migrates the store to {@code Object[]} chunks; readers
+ * holding a snapshot taken before the migration keep reading the old chunks.
+ *
+ * @param <T> the value type
+ */
+final class ValuesBuffer<T> {
+
+	static final int CHUNK_SHIFT = 10;
+
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	static final int KIND_OBJECT = 0;
+
+	static final int KIND_INT = 1;
+
+	static final int KIND_LONG = 2;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<ValuesBuffer> SIZE =
+			AtomicIntegerFieldUpdater.newUpdater(ValuesBuffer.class, "size");
+
+	/**
+	 * The chunk directory and the kind of chunks it holds. A new instance is published
+	 * whenever the directory grows or the chunks are migrated to another kind.
+	 */
+	static final class Chunks {
+
+		final int kind;
+
+		final Object[] directory;
+
+		Chunks(int kind, Object[] directory) {
+			this.kind = kind;
+			this.directory = directory;
+		}
+	}
+
+	volatile Chunks chunks;
+
+	volatile int size;
+
+	/**
+	 * Append a value. Must only be called by one thread at a time, as guaranteed by
+	 * the Reactive Streams serial {@code onNext} rule.
+	 *
+	 * @param t the value to append
+	 */
+	void add(T t) {
+		int n = size;
+		if (n == Integer.MAX_VALUE) {
+			throw new IllegalStateException("Values storage is full");
+		}
+		Chunks c = chunks;
+		Chunks published = c;
+		if (c == null) {
+			c = new Chunks(kindOf(t), new Object[4]);
+		}
+		else if (!accepts(c.kind, t)) {
+			c = toObjectChunks(c, n);
+		}
+
+		int index = n >>> CHUNK_SHIFT;
+		Object[] directory = c.directory;
+		if (index == directory.length) {
+			c = new Chunks(c.kind, Arrays.copyOf(directory, directory.length << 1));
+			directory = c.directory;
+		}
+		Object chunk = directory[index];
+		if (chunk == null) {
+			chunk = newChunk(c.kind);
+			directory[index] = chunk;
+		}
+
+		int offset = n & CHUNK_MASK;
+		switch (c.kind) {
+			case KIND_INT:
+				((int[]) chunk)[offset] = (Integer) t;
+				break;
+			case KIND_LONG:
+				((long[]) chunk)[offset] = (Long) t;
+				break;
+			default:
+				((Object[]) chunk)[offset] = t;
+		}
+
+		if (c != published) {
+			chunks = c;
+		}
+		SIZE.lazySet(this, n + 1);
+	}
+
+	/**
+	 * Return a stable, read-only view of the values between {@code from} (inclusive)
+	 * and the current size (exclusive).
+	 *
+	 * @param from the first index to expose
+	 * @return a snapshot view that does not change when further values are appended
+	 */
+	List<T> snapshot(int from) {
+		int to = size;
+		return new Snapshot<>(chunks, Math.min(from, to), to);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T read(Chunks c, int index) {
+		Object chunk = c.directory[index >>> CHUNK_SHIFT];
+		int offset = index & CHUNK_MASK;
+		switch (c.kind) {
+			case KIND_INT:
+				return (T) Integer.valueOf(((int[]) chunk)[offset]);
+			case KIND_LONG:
+				return (T) Long.valueOf(((long[]) chunk)[offset]);
+			default:
+				return (T) ((Object[]) chunk)[offset];
+		}
+	}
+
+	static int kindOf(Object t) {
+		if (t instanceof Integer) {
+			return KIND_INT;
+		}
+		if (t instanceof Long) {
+			return KIND_LONG;
+		}
+		return KIND_OBJECT;
+	}
+
+	static boolean accepts(int kind, Object t) {
+		switch (kind) {
+			case KIND_INT:
+				return t instanceof Integer;
+			case KIND_LONG:
+				return t instanceof Long;
+			default:
+				return true;
+		}
+	}
+
+	static Object newChunk(int kind) {
+		switch (kind) {
+			case KIND_INT:
+				return new int[CHUNK_SIZE];
+			case KIND_LONG:
+				return new long[CHUNK_SIZE];
+			default:
+				return new Object[CHUNK_SIZE];
+		}
+	}
+
+	static Chunks toObjectChunks(Chunks c, int n) {
+		Object[] directory = new Object[c.directory.length];
+		for (int i = 0; i < n; i++) {
+			int index = i >>> CHUNK_SHIFT;
+			Object[] chunk = (Object[]) directory[index];
+			if (chunk == null) {
+				chunk = new Object[CHUNK_SIZE];
+				directory[index] = chunk;
+			}
+			chunk[i & CHUNK_MASK] = read(c, i);
+		}
+		return new Chunks(KIND_OBJECT, directory);
+	}
+
+	static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+		final Chunks chunks;
+
+		final int from;
+
+		final int to;
+
+		Snapshot(Chunks chunks, int from, int to) {
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public T get(int index) {
+			if (index < 0 || index >= to - from) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+			}
+			return read(chunks, from + index);
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}